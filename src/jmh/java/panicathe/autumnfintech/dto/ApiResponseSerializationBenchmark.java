@@ -0,0 +1,78 @@
+package panicathe.autumnfintech.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import panicathe.autumnfintech.dto.account.AccountDto;
+import panicathe.autumnfintech.dto.user.TokenResponseDto;
+
+/**
+ * 컨트롤러 응답(ApiResponse) 한 건의 JSON 직렬화 비용.
+ * ObjectMapper 는 Spring Boot 와 같은 방식(Jackson2ObjectMapperBuilder)으로 만들어 JavaTimeModule 등 기본 모듈을 포함한다.
+ * accounts 는 계좌 목록 응답의 항목 수다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    int accounts;
+
+    private ObjectWriter writer;
+    private ApiResponse<TokenResponseDto> tokenResponse;
+    private ApiResponse<List<AccountDto>> accountsResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        tokenResponse = new ApiResponse<>(true, "Login successful",
+                new TokenResponseDto("eyJhbGciOiJIUzI1NiJ9." + "a".repeat(220) + ".signature", "r".repeat(43)));
+
+        List<AccountDto> list = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 10, 1, 12, 0);
+        for (int i = 0; i < accounts; i++) {
+            list.add(AccountDto.builder()
+                    .accountNumber(String.format("1000%08d", i))
+                    .balance(1_000_000L + i)
+                    .transactionLimit(5_000_000L)
+                    .dailyLimit(10_000_000L)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        accountsResponse = new ApiResponse<>(true, "Accounts retrieved", list);
+    }
+
+    @Benchmark
+    public byte[] tokenResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(tokenResponse);
+    }
+
+    @Benchmark
+    public byte[] accountListResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(accountsResponse);
+    }
+}
@@ -0,0 +1,48 @@
+package panicathe.autumnfintech.id;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 계좌번호 한 개 발급 비용 (순열 + 포맷). 이미 발급된 계좌 수(issued)와 관계없이 일정해야 한다.
+ * 블록 임대(DB 왕복)는 lease-size 건당 한 번이므로 여기서는 제외한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountNumberAllocatorBenchmark {
+
+    @Param({"0", "10000000", "50000000", "99000000"})
+    long issued;
+
+    private AccountNumberPermutation permutation;
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        permutation = new AccountNumberPermutation("benchmark-secret");
+        counter = issued;
+    }
+
+    @Benchmark
+    public String allocate() {
+        if (counter >= AccountNumberPermutation.DOMAIN) {
+            counter = issued;
+        }
+        return AccountNumberAllocator.format(permutation.permute(counter++));
+    }
+}
@@ -0,0 +1,77 @@
+package panicathe.autumnfintech.jwt;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+
+/**
+ * 인증 필터 한 번의 전체 비용 (헤더 파싱 + 토큰 검증 + 폐기 확인 + SecurityContext 설정).
+ * header 가 none 이면 토큰 없는 요청, invalid 면 서명이 틀린 토큰, valid 면 정상 토큰이다.
+ * 폐기 테이블은 비어 있는 상태로 측정한다. (조회 비용은 맵 두 번 조회로 일정하다)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "YourSecretKeyMustBeAtLeast32CharactersLong";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"none", "invalid", "valid"})
+    String header;
+
+    @Param({"0", "10000"})
+    int cacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtProvider jwtProvider = new JwtProvider(SECRET, cacheSize);
+        // isRevoked 는 메모리 테이블만 조회하므로 저장소가 필요 없다.
+        filter = new JwtAuthenticationFilter(jwtProvider, new TokenRevocationRegistry(null), new MetricsRegistry());
+
+        request = new MockHttpServletRequest("GET", "/user/accounts");
+        response = new MockHttpServletResponse();
+        String token = jwtProvider.create("user@example.com", "ROLE_USER");
+        switch (header) {
+            case "valid" -> request.addHeader("Authorization", "Bearer " + token);
+            case "invalid" -> request.addHeader("Authorization", "Bearer " + token.substring(0, token.length() - 2) + "xx");
+            default -> { }
+        }
+    }
+
+    @Benchmark
+    public Object doFilter() throws ServletException, IOException {
+        try {
+            filter.doFilterInternal(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package panicathe.autumnfintech.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * 요청 한 건당 토큰 발급/검증 비용 비교.
+ * legacyDoubleParse 는 변경 전 필터의 동작(getEmail, getRole 마다 파서 생성 + 서명 검증)을 그대로 재현한다.
+ * cacheSize=0 은 단일 파싱만, cacheSize>0 은 단일 파싱 + 검증 캐시를 측정한다.
+ * create 는 로그인 한 번의 토큰 발급 비용이며 캐시와 무관하다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtProviderBenchmark {
+
+    private static final String SECRET = "YourSecretKeyMustBeAtLeast32CharactersLong";
+
+    @Param({"0", "10000"})
+    int cacheSize;
+
+    private JwtProvider jwtProvider;
+    private SecretKey secretKey;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider(SECRET, cacheSize);
+        secretKey = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        token = jwtProvider.create("user@example.com", "ROLE_USER");
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole blackhole) {
+        blackhole.consume(Jwts.parser().verifyWith(secretKey).build()
+                .parseSignedClaims(token).getPayload().get("email", String.class));
+        blackhole.consume(Jwts.parser().verifyWith(secretKey).build()
+                .parseSignedClaims(token).getPayload().get("role", String.class));
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtProvider.verify(token);
+    }
+
+    @Benchmark
+    public String create() {
+        return jwtProvider.create("user@example.com", "ROLE_USER");
+    }
+
+    @Benchmark
+    public String getEmail() {
+        return jwtProvider.getEmail(token);
+    }
+
+    @Benchmark
+    public String getRole() {
+        return jwtProvider.getRole(token);
+    }
+}
@@ -0,0 +1,165 @@
+package panicathe.autumnfintech.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * page 번째 페이지(size 10) 조회 비용: OFFSET 페이징 vs (created_at, id) keyset 페이징.
+ * 이력은 출금과 입금을 합친 것이므로 두 방향을 모두 측정한다. 데이터의 절반은 출금, 절반은 입금이다.
+ * OFFSET 은 from = ? OR to = ? 를 정렬해 건너뛰고, keyset 은 TransactionHistoryService 처럼 방향마다 인덱스를
+ * 커서 위치부터 size + 1 건 읽어 합친다.
+ * 로컬에서 MySQL 없이 돌릴 수 있도록 인메모리 H2(MySQL 모드)에 같은 테이블/인덱스를 만들어 측정한다.
+ * 절대값보다는 page 가 깊어질 때 두 방식의 증가 추세를 비교하는 용도다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionHistoryPagingBenchmark {
+
+    private static final String ACCOUNT = "100012345678";
+    private static final String COUNTERPARTY = "100087654321";
+    private static final Comparator<long[]> NEWEST_FIRST =
+            Comparator.<long[]>comparingLong(row -> row[1]).thenComparingLong(row -> row[0]).reversed();
+    private static final int SIZE = 10;
+    private static final int ROWS = 200_000;
+
+    @Param({"0", "100", "1000"})
+    int page;
+
+    private Connection connection;
+    private PreparedStatement offsetQuery;
+    private PreparedStatement outgoingQuery;
+    private PreparedStatement incomingQuery;
+    private Timestamp cursorCreatedAt;
+    private long cursorId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:history;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("drop table if exists transactions");
+            ddl.execute("create table transactions (id bigint primary key, from_account_number varchar(12), "
+                    + "to_account_number varchar(12), amount bigint not null, created_at timestamp not null)");
+            ddl.execute("create index idx_transactions_from_created on transactions (from_account_number, created_at, id)");
+            ddl.execute("create index idx_transactions_to_created on transactions (to_account_number, created_at, id)");
+        }
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into transactions (id, from_account_number, to_account_number, amount, created_at) values (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                boolean outgoing = i % 2 == 0;
+                insert.setLong(1, i + 1);
+                insert.setString(2, outgoing ? ACCOUNT : COUNTERPARTY);
+                insert.setString(3, outgoing ? COUNTERPARTY : ACCOUNT);
+                insert.setLong(4, 1000);
+                // 같은 시각에 출금/입금 여러 건이 몰리는 경우도 포함되도록 4건씩 같은 created_at
+                insert.setTimestamp(5, Timestamp.valueOf(start.plusSeconds(i / 4)));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        offsetQuery = connection.prepareStatement("select id, amount, created_at from transactions "
+                + "where from_account_number = ? or to_account_number = ? order by created_at desc, id desc limit ? offset ?");
+        outgoingQuery = connection.prepareStatement(keysetSql("from_account_number"));
+        incomingQuery = connection.prepareStatement(keysetSql("to_account_number"));
+
+        // 직전 페이지의 마지막 행 = 클라이언트가 들고 올 커서
+        cursorCreatedAt = Timestamp.valueOf(LocalDateTime.of(9999, 12, 31, 23, 59, 59));
+        cursorId = Long.MAX_VALUE;
+        if (page > 0) {
+            offsetQuery.setString(1, ACCOUNT);
+            offsetQuery.setString(2, ACCOUNT);
+            offsetQuery.setInt(3, 1);
+            offsetQuery.setInt(4, page * SIZE - 1);
+            try (ResultSet rs = offsetQuery.executeQuery()) {
+                rs.next();
+                cursorId = rs.getLong(1);
+                cursorCreatedAt = rs.getTimestamp(3);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public long offset() throws SQLException {
+        offsetQuery.setString(1, ACCOUNT);
+        offsetQuery.setString(2, ACCOUNT);
+        offsetQuery.setInt(3, SIZE);
+        offsetQuery.setInt(4, page * SIZE);
+        long sum = 0;
+        try (ResultSet rs = offsetQuery.executeQuery()) {
+            while (rs.next()) {
+                sum += rs.getLong(1);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long keyset() throws SQLException {
+        // 다음 페이지 존재 여부를 알기 위해 방향마다 한 건 더 읽는다.
+        List<long[]> merged = new ArrayList<>(2 * (SIZE + 1));
+        fetch(outgoingQuery, merged);
+        fetch(incomingQuery, merged);
+        merged.sort(NEWEST_FIRST);
+
+        long sum = 0;
+        for (int i = 0; i < Math.min(SIZE, merged.size()); i++) {
+            sum += merged.get(i)[0];
+        }
+        return sum;
+    }
+
+    private void fetch(PreparedStatement query, List<long[]> rows) throws SQLException {
+        query.setString(1, ACCOUNT);
+        query.setTimestamp(2, cursorCreatedAt);
+        query.setTimestamp(3, cursorCreatedAt);
+        query.setLong(4, cursorId);
+        query.setInt(5, SIZE + 1);
+        try (ResultSet rs = query.executeQuery()) {
+            while (rs.next()) {
+                rows.add(new long[]{rs.getLong(1), rs.getTimestamp(3).getTime()});
+            }
+        }
+    }
+
+    private static String keysetSql(String accountColumn) {
+        return "select id, amount, created_at from transactions where " + accountColumn + " = ? "
+                + "and (created_at < ? or (created_at = ? and id < ?)) order by created_at desc, id desc limit ?";
+    }
+}
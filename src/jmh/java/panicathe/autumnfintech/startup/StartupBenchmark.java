@@ -0,0 +1,138 @@
+package panicathe.autumnfintech.startup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션 프로세스를 띄워 첫 로그인 요청에 응답하기까지의 시간(time-to-first-request)을 모드별로 잰다.
+ * JVM 기동 자체를 재야 하므로 JMH 가 아니라 매번 새 프로세스를 띄우는 방식이다.
+ * ./gradlew -PfastStart cdsArchive startupBenchmark 로 실행하며, 결과는 build/results/startup/results.json 에 남긴다.
+ * 기동 중에 DB 에 연결하므로 datasource 설정은 환경 변수(SPRING_DATASOURCE_URL 등)나 -Pstartup.args 로 넘긴다.
+ *
+ * <ul>
+ *     <li>baseline: 기본 프로필 그대로</li>
+ *     <li>fast-start: fast-start 프로필 (springdoc 끔, 스키마 검사 생략)</li>
+ *     <li>fast-start-aot: + 빌드 시 AOT 처리된 빈 정의 사용 (-PfastStart 빌드에서만)</li>
+ *     <li>fast-start-aot-cds: + 학습 실행으로 만든 CDS 아카이브 (application.jsa 가 있을 때만)</li>
+ * </ul>
+ */
+public class StartupBenchmark {
+
+    // 없는 사용자로 로그인해 인증 경로(보안 필터, 요청 한도, 사용자 조회)까지 지나게 한다.
+    private static final String LOGIN_BODY = "{\"email\":\"startup-probe@example.com\",\"password\":\"startup-probe\"}";
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        Path appDir = Path.of(System.getProperty("startup.appDir"));
+        String jar = System.getProperty("startup.jar");
+        String java = System.getProperty("startup.java", "java");
+        int runs = Integer.getInteger("startup.runs", 5);
+        int port = Integer.getInteger("startup.port", 18080);
+        boolean aot = Boolean.getBoolean("startup.aot");
+        List<String> extraArgs = split(System.getProperty("startup.args", ""));
+        Path output = Path.of(System.getProperty("startup.output", "build/results/startup/results.json"));
+
+        List<Mode> modes = new ArrayList<>();
+        modes.add(new Mode("baseline", List.of(), List.of()));
+        modes.add(new Mode("fast-start", List.of(), List.of("--spring.profiles.active=fast-start")));
+        if (aot) {
+            modes.add(new Mode("fast-start-aot", List.of("-Dspring.aot.enabled=true"),
+                    List.of("--spring.profiles.active=fast-start")));
+            if (Files.exists(appDir.resolve("application.jsa"))) {
+                modes.add(new Mode("fast-start-aot-cds",
+                        List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true"),
+                        List.of("--spring.profiles.active=fast-start")));
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Files.createDirectories(output.getParent());
+        List<String> results = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-20s %10s %10s %10s%n", "mode", "min(ms)", "median(ms)", "max(ms)");
+        for (Mode mode : modes) {
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(client, appDir, java, jar, port, mode, extraArgs,
+                        output.getParent(), mode.name() + "-" + run);
+            }
+            Arrays.sort(millis);
+            long median = millis[runs / 2];
+            System.out.printf(Locale.ROOT, "%-20s %10d %10d %10d%n", mode.name(), millis[0], median, millis[runs - 1]);
+            results.add(String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"runs\":%d,\"minMillis\":%d,\"medianMillis\":%d,\"maxMillis\":%d,\"samplesMillis\":%s}",
+                    mode.name(), runs, millis[0], median, millis[runs - 1], Arrays.toString(millis).replace(" ", "")));
+        }
+        Files.writeString(output, "[" + String.join(",\n", results) + "]\n", StandardCharsets.UTF_8);
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static long timeToFirstRequest(HttpClient client, Path appDir, String java, String jar, int port, Mode mode,
+                                           List<String> extraArgs, Path logDir, String runName)
+            throws IOException, InterruptedException {
+        Path log = logDir.resolve(runName + ".log");
+        Path dataDir = appDir.resolve("benchmark").resolve(runName);
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(mode.jvmArgs());
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        // 실행마다 새 WAL/감사 로그 디렉터리를 쓴다. (이전 실행의 기록을 복구하지 않도록)
+        command.add("--spring.ledger.wal-dir=" + dataDir.resolve("wal"));
+        command.add("--spring.audit.dir=" + dataDir.resolve("audit"));
+        command.addAll(mode.appArgs());
+        command.addAll(extraArgs);
+
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/tokens"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                .build();
+
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            while (System.nanoTime() - startNanos < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode.name() + " exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    client.send(login, HttpResponse.BodyHandlers.discarding());
+                    // 상태 코드와 관계없이 응답이 오면 요청을 처리할 수 있는 상태다.
+                    return (System.nanoTime() - startNanos) / 1_000_000;
+                } catch (IOException notYetListening) {
+                    Thread.sleep(10);
+                }
+            }
+            throw new IllegalStateException(mode.name() + " did not answer within " + START_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static List<String> split(String args) {
+        return args.isBlank() ? List.of() : List.of(args.trim().split("\\s+"));
+    }
+
+    private record Mode(String name, List<String> jvmArgs, List<String> appArgs) {
+    }
+}
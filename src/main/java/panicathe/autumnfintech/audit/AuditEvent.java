@@ -0,0 +1,19 @@
+package panicathe.autumnfintech.audit;
+
+import panicathe.autumnfintech.entity.AuditEventType;
+
+/**
+ * 감사 이벤트 한 건.
+ *
+ * @param id                        Snowflake ID (이벤트 발생 시 부여)
+ * @param type                      이벤트 종류
+ * @param actor                     요청한 사용자 이메일 (없으면 null)
+ * @param accountNumber             대상 계좌 (없으면 null)
+ * @param counterpartyAccountNumber 상대 계좌 (송금/취소, 없으면 null)
+ * @param amount                    금액 (원, 없으면 0)
+ * @param transactionId             거래 ID (없으면 0)
+ * @param occurredAtMillis          발생 시각 (epoch millis)
+ */
+public record AuditEvent(long id, AuditEventType type, String actor, String accountNumber,
+                         String counterpartyAccountNumber, long amount, long transactionId, long occurredAtMillis) {
+}
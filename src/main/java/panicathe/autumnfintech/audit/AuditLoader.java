@@ -0,0 +1,131 @@
+package panicathe.autumnfintech.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.dto.audit.AuditStatsDto;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 로컬 감사 로그 파일을 읽어 audit_log 테이블에 일괄 적재한다.
+ * 배치 INSERT 와 적재 위치(audit_load_checkpoint) 갱신을 한 트랜잭션으로 묶으므로 재시작해도 빠지거나 중복되는 기록이 없다.
+ * 적재가 끝난 세그먼트 파일은 삭제한다.
+ */
+@Slf4j
+@Component
+public class AuditLoader {
+
+    private static final String INIT_CHECKPOINT_SQL = "INSERT IGNORE INTO audit_load_checkpoint (node_id, seq) VALUES (?, 0)";
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT seq FROM audit_load_checkpoint WHERE node_id = ? FOR UPDATE";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE audit_load_checkpoint SET seq = ? WHERE node_id = ?";
+    private static final String INSERT_AUDIT_LOG_SQL =
+            "INSERT INTO audit_log (id, type, actor, account_number, counterparty_account_number, amount, transaction_id, "
+                    + "occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final AuditTrail auditTrail;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long nodeId;
+    private final int batchSize;
+
+    private volatile long loadedSeq = -1;
+
+    public AuditLoader(AuditTrail auditTrail, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       SnowflakeIdGenerator idGenerator,
+                       @Value("${spring.audit.load-batch-size:5000}") int batchSize) {
+        this.auditTrail = auditTrail;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = idGenerator.getNodeId();
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.audit.load-ms:5000}")
+    public void load() {
+        try {
+            if (loadedSeq < 0) {
+                jdbcTemplate.update(INIT_CHECKPOINT_SQL, nodeId);
+            }
+            int loaded;
+            do {
+                loaded = loadBatch();
+            } while (loaded == batchSize);
+            auditTrail.deleteSegmentsUpTo(loadedSeq);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Audit log load failed, will retry", e);
+        }
+    }
+
+    /**
+     * 적재되지 않은 마지막 순번과의 차이. (파일에는 fsync 되었지만 아직 DB 에 없는 이벤트 수)
+     */
+    public long getLag() {
+        return loadedSeq < 0 ? auditTrail.getDurableSeq() : Math.max(0, auditTrail.getDurableSeq() - loadedSeq);
+    }
+
+    public long getLoadedSeq() {
+        return Math.max(0, loadedSeq);
+    }
+
+    public AuditStatsDto getStats() {
+        return new AuditStatsDto(auditTrail.getDropped(), auditTrail.getPending(), auditTrail.getBufferCapacity(),
+                auditTrail.getDurableSeq(), getLoadedSeq(), getLag(), auditTrail.getWriteFailures());
+    }
+
+    private int loadBatch() {
+        LoadResult result = transactionTemplate.execute(status -> {
+            Long checkpoint = jdbcTemplate.queryForObject(SELECT_CHECKPOINT_SQL, Long.class, nodeId);
+            long afterSeq = checkpoint == null ? 0 : checkpoint;
+            List<AuditSegmentLog.SeqAndEvent> entries;
+            try {
+                entries = auditTrail.read(afterSeq, batchSize);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!entries.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG_SQL, entries, entries.size(), (ps, entry) -> {
+                    AuditEvent event = entry.event();
+                    ps.setLong(1, event.id());
+                    ps.setString(2, event.type().name());
+                    ps.setString(3, event.actor());
+                    ps.setString(4, event.accountNumber());
+                    ps.setString(5, event.counterpartyAccountNumber());
+                    ps.setLong(6, event.amount());
+                    if (event.transactionId() != 0) {
+                        ps.setLong(7, event.transactionId());
+                    } else {
+                        ps.setNull(7, Types.BIGINT);
+                    }
+                    ps.setTimestamp(8, Timestamp.valueOf(toLocalDateTime(event.occurredAtMillis())));
+                });
+                afterSeq = entries.get(entries.size() - 1).seq();
+                jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, afterSeq, nodeId);
+            }
+            return new LoadResult(entries.size(), afterSeq);
+        });
+        if (result == null) {
+            return 0;
+        }
+        loadedSeq = result.seq(); // 커밋된 뒤에만 반영한다. (이 값까지의 세그먼트를 지운다)
+        return result.count();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record LoadResult(int count, long seq) {
+    }
+}
@@ -0,0 +1,337 @@
+package panicathe.autumnfintech.audit;
+
+import panicathe.autumnfintech.entity.AuditEventType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 감사 이벤트를 순번(seq)과 함께 이어 쓰는 세그먼트 파일 로그. 원장 WAL 과 같은 방식으로 append-only, CRC32C 체크섬,
+ * 배치당 fsync 1회(그룹 fsync)로 기록한다. 이벤트마다 이메일 길이가 다르므로 레코드는 가변 길이다.
+ * <p>
+ * 파일 형식: 세그먼트 파일(audit-{첫 seq}.log)에 레코드를 이어 쓴다.
+ * <pre>
+ * | int length | int crc32c | long seq | long id | byte type | long occurredAt | long amount | long txId
+ * | long account | long counterparty | short actorLength | actor (UTF-8) |
+ * </pre>
+ * append 는 쓰기 스레드 하나에서, read / deleteSegmentsUpTo 는 적재 스레드 하나에서 호출한다.
+ */
+public class AuditSegmentLog implements AutoCloseable {
+
+    static final int HEADER_SIZE = 4 + 4;
+    static final int FIXED_PAYLOAD_SIZE = 8 + 8 + 1 + 8 + 8 + 8 + 8 + 8 + 2;
+    static final int MAX_ACTOR_BYTES = 1024;
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    private static final AuditEventType[] TYPES = AuditEventType.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+
+    // 쓰기 스레드 전용
+    private FileChannel channel;
+    // 마지막으로 온전히 기록된 위치. 실패한 append 가 남긴 바이트는 다음 append 전에 여기까지 잘라낸다.
+    private long writtenEnd;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private long nextSeq = 1;
+    private volatile long activeSegmentFirstSeq;
+    private volatile long durableSeq;
+
+    // 적재 스레드 전용: 마지막으로 읽은 위치 (다음 read 에서 세그먼트를 처음부터 다시 읽지 않도록)
+    private Path readSegment;
+    private long readPosition;
+    private long readSeq;
+
+    public AuditSegmentLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * 마지막 세그먼트를 검사해 끝의 잘린/손상된 레코드를 잘라내고 이어 쓸 준비를 한다.
+     *
+     * @return 파일에 남아 있는 마지막 seq (없으면 0)
+     */
+    public long open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        Path path;
+        if (segments.isEmpty()) {
+            path = segmentPath(nextSeq);
+        } else {
+            path = segments.get(segments.size() - 1);
+            long lastSeq = firstSeqOf(path) - 1;
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + FIXED_PAYLOAD_SIZE + MAX_ACTOR_BYTES);
+                CRC32C crc = new CRC32C();
+                long position = 0;
+                long size = file.size();
+                SeqAndEvent entry;
+                while ((entry = readRecord(file, position, size, record, crc)) != null) {
+                    lastSeq = entry.seq();
+                    position += record.limit();
+                }
+                if (position < size) {
+                    file.truncate(position);
+                    file.force(true);
+                }
+            }
+            nextSeq = lastSeq + 1;
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        writtenEnd = channel.size();
+        channel.position(writtenEnd);
+        activeSegmentFirstSeq = firstSeqOf(path);
+        durableSeq = nextSeq - 1;
+        return durableSeq;
+    }
+
+    /**
+     * 이벤트 묶음을 기록하고 fsync 한다. 실패하면 같은 묶음으로 다시 호출할 수 있다.
+     * 이전 호출이 쓰다 만 바이트는 먼저 잘라내므로 잘린 레코드 뒤에 같은 seq 가 중복으로 남지 않는다.
+     *
+     * @return 기록된 마지막 seq
+     */
+    public long append(List<AuditEvent> events) throws IOException {
+        if (channel.size() > writtenEnd) {
+            channel.truncate(writtenEnd);
+        }
+        channel.position(writtenEnd);
+        if (writtenEnd > 0 && writtenEnd >= segmentBytes) {
+            channel.force(false);
+            channel.close();
+            channel = FileChannel.open(segmentPath(nextSeq), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            writtenEnd = 0;
+            activeSegmentFirstSeq = nextSeq;
+        }
+
+        buffer.clear();
+        long seq = nextSeq;
+        for (AuditEvent event : events) {
+            byte[] actor = actorBytes(event.actor());
+            int recordSize = HEADER_SIZE + FIXED_PAYLOAD_SIZE + actor.length;
+            if (buffer.remaining() < recordSize) {
+                buffer = grow(buffer, recordSize);
+            }
+            encode(seq++, event, actor, buffer);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false); // 그룹 fsync: 배치당 1회
+        writtenEnd = channel.position();
+        nextSeq = seq;
+        durableSeq = seq - 1;
+        return durableSeq;
+    }
+
+    /**
+     * fsync 가 끝난 마지막 seq.
+     */
+    public long getDurableSeq() {
+        return durableSeq;
+    }
+
+    /**
+     * afterSeq 다음부터 fsync 가 끝난 레코드를 순서대로 최대 max 개 읽는다.
+     */
+    public List<SeqAndEvent> read(long afterSeq, int max) throws IOException {
+        long upTo = durableSeq;
+        List<SeqAndEvent> result = new ArrayList<>(Math.min(max, 1024));
+        if (afterSeq >= upTo) {
+            return result;
+        }
+
+        List<Path> segments = segments();
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + FIXED_PAYLOAD_SIZE + MAX_ACTOR_BYTES);
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < segments.size() && result.size() < max; i++) {
+            Path segment = segments.get(i);
+            if (i + 1 < segments.size() && firstSeqOf(segments.get(i + 1)) <= afterSeq + 1) {
+                continue; // 이미 모두 읽은 세그먼트
+            }
+            boolean resume = segment.equals(readSegment) && readSeq <= afterSeq;
+            long position = resume ? readPosition : 0;
+            try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long size = file.size();
+                SeqAndEvent entry;
+                while (result.size() < max && (entry = readRecord(file, position, size, record, crc)) != null
+                        && entry.seq() <= upTo) {
+                    position += record.limit();
+                    if (entry.seq() > afterSeq) {
+                        result.add(entry);
+                    }
+                    readSegment = segment;
+                    readPosition = position;
+                    readSeq = entry.seq();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 마지막 seq 가 주어진 seq 이하인 세그먼트(현재 쓰고 있는 세그먼트 제외)를 삭제한다.
+     */
+    public void deleteSegmentsUpTo(long seq) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long firstSeq = firstSeqOf(segments.get(i));
+            long nextFirstSeq = firstSeqOf(segments.get(i + 1));
+            if (firstSeq >= activeSegmentFirstSeq || nextFirstSeq - 1 > seq) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private static SeqAndEvent readRecord(FileChannel file, long position, long size, ByteBuffer record, CRC32C crc)
+            throws IOException {
+        if (position + HEADER_SIZE > size) {
+            return null;
+        }
+        record.clear().limit(HEADER_SIZE);
+        readFully(file, record, position);
+        int length = record.getInt(0);
+        int checksum = record.getInt(4);
+        if (length < FIXED_PAYLOAD_SIZE || length > FIXED_PAYLOAD_SIZE + MAX_ACTOR_BYTES || position + HEADER_SIZE + length > size) {
+            return null;
+        }
+        record.limit(HEADER_SIZE + length);
+        readFully(file, record, position);
+        crc.reset();
+        crc.update(record.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + length));
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return decode(record);
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer target, long position) throws IOException {
+        while (target.hasRemaining() && file.read(target, position + target.position()) > 0) {
+            // 요청한 길이를 끝까지 읽는다.
+        }
+    }
+
+    static void encode(long seq, AuditEvent event, byte[] actor, ByteBuffer target) {
+        int start = target.position();
+        target.putInt(FIXED_PAYLOAD_SIZE + actor.length);
+        target.putInt(0); // crc 자리
+        target.putLong(seq);
+        target.putLong(event.id());
+        target.put((byte) event.type().ordinal());
+        target.putLong(event.occurredAtMillis());
+        target.putLong(event.amount());
+        target.putLong(event.transactionId());
+        target.putLong(toLong(event.accountNumber()));
+        target.putLong(toLong(event.counterpartyAccountNumber()));
+        target.putShort((short) actor.length);
+        target.put(actor);
+
+        CRC32C crc = new CRC32C();
+        crc.update(target.duplicate().position(start + HEADER_SIZE).limit(target.position()));
+        target.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private static SeqAndEvent decode(ByteBuffer source) {
+        source.position(HEADER_SIZE);
+        long seq = source.getLong();
+        long id = source.getLong();
+        int type = source.get();
+        long occurredAt = source.getLong();
+        long amount = source.getLong();
+        long transactionId = source.getLong();
+        String account = toAccountNumber(source.getLong());
+        String counterparty = toAccountNumber(source.getLong());
+        int actorLength = source.getShort();
+        if (type < 0 || type >= TYPES.length || actorLength < 0 || actorLength > source.remaining()) {
+            return null;
+        }
+        byte[] actor = new byte[actorLength];
+        source.get(actor);
+        return new SeqAndEvent(seq, new AuditEvent(id, TYPES[type], actorLength == 0 ? null : new String(actor, StandardCharsets.UTF_8),
+                account, counterparty, amount, transactionId, occurredAt));
+    }
+
+    private static byte[] actorBytes(String actor) {
+        if (actor == null) {
+            return new byte[0];
+        }
+        byte[] bytes = actor.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_ACTOR_BYTES) {
+            return bytes;
+        }
+        // 비정상적으로 긴 입력(로그인 실패 이메일 등)은 잘라서 기록한다.
+        String truncated = new String(bytes, 0, MAX_ACTOR_BYTES, StandardCharsets.UTF_8);
+        while (truncated.getBytes(StandardCharsets.UTF_8).length > MAX_ACTOR_BYTES) {
+            truncated = truncated.substring(0, truncated.length() - 1);
+        }
+        return truncated.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstSeqOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    // 계좌번호는 12자리 숫자이므로 long 으로 저장한다. (0 = 없음, 숫자가 아닌 값도 기록을 막지 않도록 0 으로 둔다)
+    private static long toLong(String accountNumber) {
+        if (accountNumber == null || accountNumber.isEmpty() || accountNumber.length() > 18) {
+            return 0L;
+        }
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (accountNumber.charAt(i) < '0' || accountNumber.charAt(i) > '9') {
+                return 0L;
+            }
+        }
+        return Long.parseLong(accountNumber);
+    }
+
+    private static String toAccountNumber(long value) {
+        return value == 0L ? null : Long.toString(value);
+    }
+
+    public record SeqAndEvent(long seq, AuditEvent event) {
+    }
+}
@@ -0,0 +1,182 @@
+package panicathe.autumnfintech.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import panicathe.autumnfintech.entity.AuditEventType;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+import panicathe.autumnfintech.metrics.LatencyHistogram;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로그인/회원/거래 감사 이벤트를 요청 스레드를 막지 않고 기록한다.
+ * <p>
+ * 요청 스레드는 이벤트를 링 버퍼(MpscRingBuffer)에 넣기만 한다. 버퍼가 가득 차면 기다리지 않고 버리며 그 수를 센다.
+ * 단일 writer 스레드가 버퍼에 쌓인 이벤트를 모아 로컬 세그먼트 파일(AuditSegmentLog)에 쓰고 배치당 한 번 fsync 한다.
+ * DB 적재는 AuditLoader 가 파일을 읽어 따로 일괄 처리하므로 요청 경로에는 DB INSERT 가 없다.
+ */
+@Slf4j
+@Component
+public class AuditTrail {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SnowflakeIdGenerator idGenerator;
+    private final MpscRingBuffer<AuditEvent> ringBuffer;
+    private final AuditSegmentLog segmentLog;
+    private final int batchSize;
+    private final LatencyHistogram flushLatency;
+
+    private volatile boolean running;
+    private volatile long writeFailures;
+    private Thread writer;
+
+    public AuditTrail(SnowflakeIdGenerator idGenerator, MetricsRegistry metricsRegistry,
+                      @Value("${spring.audit.dir:data/audit}") String directory,
+                      @Value("${spring.audit.segment-bytes:67108864}") long segmentBytes,
+                      @Value("${spring.audit.buffer-size:65536}") int bufferSize,
+                      @Value("${spring.audit.batch-size:1024}") int batchSize) {
+        this.idGenerator = idGenerator;
+        this.ringBuffer = new MpscRingBuffer<>(bufferSize);
+        this.segmentLog = new AuditSegmentLog(Path.of(directory), segmentBytes);
+        this.batchSize = batchSize;
+        this.flushLatency = metricsRegistry.histogram("audit.flush");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        long lastSeq = segmentLog.open();
+        log.info("Audit log opened at seq {}", lastSeq);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 이벤트를 바로 버퍼에 넣는다. 버퍼가 가득 차 있으면 버린다. (요청 스레드를 막지 않는다)
+     */
+    public void record(AuditEventType type, String actor, String accountNumber, String counterpartyAccountNumber,
+                       long amount, long transactionId) {
+        ringBuffer.offer(new AuditEvent(idGenerator.nextId(), type, actor, accountNumber, counterpartyAccountNumber,
+                amount, transactionId, System.currentTimeMillis()));
+    }
+
+    public void record(AuditEventType type, String actor) {
+        record(type, actor, null, null, 0, 0);
+    }
+
+    /**
+     * 진행 중인 DB 트랜잭션이 커밋된 뒤에 기록한다. 트랜잭션이 없으면 바로 기록한다. (롤백된 변경은 남기지 않는다)
+     */
+    public void recordAfterCommit(AuditEventType type, String actor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(type, actor);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(type, actor);
+            }
+        });
+    }
+
+    /**
+     * 한 트랜잭션에서 여러 행위자의 이벤트가 생길 때(대량 등록 등) 커밋 뒤에 한꺼번에 기록한다.
+     */
+    public void recordAllAfterCommit(AuditEventType type, List<String> actors) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            actors.forEach(actor -> record(type, actor));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                actors.forEach(actor -> record(type, actor));
+            }
+        });
+    }
+
+    List<AuditSegmentLog.SeqAndEvent> read(long afterSeq, int max) throws IOException {
+        return segmentLog.read(afterSeq, max);
+    }
+
+    void deleteSegmentsUpTo(long seq) throws IOException {
+        segmentLog.deleteSegmentsUpTo(seq);
+    }
+
+    public long getDurableSeq() {
+        return segmentLog.getDurableSeq();
+    }
+
+    public long getDropped() {
+        return ringBuffer.getDropped();
+    }
+
+    public long getPending() {
+        return ringBuffer.size();
+    }
+
+    public int getBufferCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    public long getWriteFailures() {
+        return writeFailures;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            segmentLog.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log", e);
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || ringBuffer.size() > 0) {
+            if (batch.isEmpty() && ringBuffer.drainTo(batch, batchSize) == 0) {
+                if (!running) {
+                    break; // 종료 중이고 더 꺼낼 것이 없다. (선점만 되고 쓰이지 않은 슬롯은 기다리지 않는다)
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                segmentLog.append(batch);
+                batch.clear();
+                flushLatency.recordSince(start);
+            } catch (IOException e) {
+                // 실패한 배치는 들고 있다가 다시 쓴다. (쓰다 만 바이트는 append 가 잘라낸다) 그동안 버퍼가 차면 새 이벤트는 버려지고 dropped 로 집계된다.
+                writeFailures++;
+                log.error("Failed to write {} audit events, retrying", batch.size(), e);
+                LockSupport.parkNanos(RETRY_PARK_NANOS);
+            }
+        }
+    }
+}
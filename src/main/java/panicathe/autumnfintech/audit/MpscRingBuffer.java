@@ -0,0 +1,92 @@
+package panicathe.autumnfintech.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 여러 생산자, 단일 소비자용 고정 크기 링 버퍼. (Disruptor 의 다중 생산자 시퀀서와 같은 방식)
+ * <p>
+ * 생산자는 tail 을 CAS 로 한 칸 선점하고 슬롯에 값을 쓴 뒤 그 슬롯의 발행 순번을 기록한다. 락이 없고,
+ * 버퍼가 가득 차 있으면 기다리지 않고 false 를 반환한다. (버린 개수는 getDropped 로 확인)
+ * 소비자는 head 부터 발행 순번이 일치하는 슬롯까지만 순서대로 꺼내므로 쓰는 중인 슬롯을 건너뛰지 않는다.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    // 슬롯에 마지막으로 발행된 순번. 소비자는 (순번 == 기대 순번)일 때만 읽는다.
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 값을 넣는다. 가득 차 있으면 버리고 false 를 반환한다.
+     */
+    public boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        slots.lazySet(index, element);
+        published.set(index, sequence); // 값을 쓴 뒤에 발행 (volatile write)
+        return true;
+    }
+
+    /**
+     * 발행된 값을 순서대로 최대 max 개 꺼내 target 에 담는다. 소비자 스레드 하나에서만 호출해야 한다.
+     *
+     * @return 꺼낸 개수
+     */
+    public int drainTo(List<? super E> target, int max) {
+        long sequence = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                break;
+            }
+            target.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequence++;
+            drained++;
+        }
+        if (drained > 0) {
+            head.set(sequence); // 슬롯을 비운 뒤에 생산자에게 공간을 돌려준다.
+        }
+        return drained;
+    }
+
+    /**
+     * 아직 꺼내지 않은 개수 (선점되었지만 쓰는 중인 슬롯 포함).
+     */
+    public long size() {
+        return Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,29 @@
+package panicathe.autumnfintech.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+import panicathe.autumnfintech.id.SnowflakeIdentifierGenerator;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    // 노드 ID 는 인스턴스마다 달라야 한다 (0 ~ 1023)
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${spring.id.node-id:0}") long nodeId) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(nodeId);
+        SnowflakeIdentifierGenerator.use(generator);
+        return generator;
+    }
+
+    // EntityManagerFactory 가 만들어지기 전에 ID 생성기가 준비되도록 한다.
+    @Configuration
+    static class IdGeneratorEntityManagerFactoryDependsOn extends EntityManagerFactoryDependsOnPostProcessor {
+
+        IdGeneratorEntityManagerFactoryDependsOn() {
+            super("snowflakeIdGenerator");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package panicathe.autumnfintech.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import panicathe.autumnfintech.id.SnowflakeIdentifierGenerator;
+
+import java.util.List;
+
+/**
+ * AOT 처리(빌드 시 빈 정의 생성)가 찾지 못하는 리플렉션/리소스 사용을 등록한다.
+ * JVM 의 AOT 모드에서는 쓰이지 않고, native image 빌드 시 reachability metadata 로 들어간다.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.AutumnFintechRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class AutumnFintechRuntimeHints implements RuntimeHintsRegistrar {
+
+        // jjwt-api 가 구현 클래스를 이름으로 찾아 생성한다. (jjwt-impl 은 runtime 의존성)
+        private static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_REFLECTIVE_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            // JSON 직렬화기는 ServiceLoader 로 찾는다.
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+            // @SnowflakeId (@IdGeneratorType) 생성기는 Hibernate 가 생성자를 리플렉션으로 호출한다.
+            hints.reflection().registerType(SnowflakeIdentifierGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
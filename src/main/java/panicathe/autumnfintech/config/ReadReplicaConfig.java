@@ -0,0 +1,79 @@
+package panicathe.autumnfintech.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import panicathe.autumnfintech.datasource.ReadYourWritesInterceptor;
+import panicathe.autumnfintech.datasource.ReadYourWritesTracker;
+import panicathe.autumnfintech.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * spring.datasource.replica-urls 가 설정되어 있으면 readOnly 트랜잭션을 replica 로 보낸다.
+ * replica 는 primary 와 같은 계정/드라이버 설정을 사용한다. 설정이 없으면 Spring Boot 기본 DataSource 하나만 사용한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.datasource.replica-urls")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+    private final long readYourWritesMillis;
+
+    public ReadReplicaConfig(ObjectProvider<ReplicaRoutingDataSource> routingDataSource,
+                             @Value("${spring.datasource.read-your-writes-ms:5000}") long readYourWritesMillis) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(readYourWritesMillis);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             @Value("${spring.datasource.replica-urls}") List<String> replicaUrls,
+                                                             ReadYourWritesTracker readYourWritesTracker) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        List<DataSource> replicas = replicaUrls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> {
+                    HikariDataSource replica = properties.initializeDataSourceBuilder().url(url).type(HikariDataSource.class).build();
+                    replica.setPoolName("replica-" + url.hashCode());
+                    return (DataSource) replica;
+                })
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    // 트랜잭션의 readOnly 여부가 정해진 뒤(첫 쿼리 시점)에 연결을 고르도록 지연 프록시로 감싼다.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker()));
+    }
+
+    @Scheduled(fixedDelayString = "${spring.datasource.replica-health-check-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.getObject().checkReplicas();
+        readYourWritesTracker().purge(System.currentTimeMillis());
+    }
+}
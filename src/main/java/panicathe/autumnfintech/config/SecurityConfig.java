@@ -3,6 +3,7 @@ package panicathe.autumnfintech.config;
 import java.io.IOException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,6 +15,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -23,7 +25,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import panicathe.autumnfintech.idempotency.IdempotencyFilter;
 import panicathe.autumnfintech.jwt.JwtAuthenticationFilter;
+import panicathe.autumnfintech.ratelimit.PrincipalRateLimitFilter;
+import panicathe.autumnfintech.ratelimit.RateLimitFilter;
 
 @Configurable
 @Configuration
@@ -32,6 +37,9 @@ import panicathe.autumnfintech.jwt.JwtAuthenticationFilter;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // JWT 인증 필터를 주입받습니다.
+    private final IdempotencyFilter idempotencyFilter; // Idempotency-Key 재시도 중복 실행 방지 필터
+    private final RateLimitFilter rateLimitFilter; // IP 단위 요청 한도
+    private final PrincipalRateLimitFilter principalRateLimitFilter; // 인증된 사용자 단위 요청 한도
 
     @Bean
     protected SecurityFilterChain configure(HttpSecurity httpSecurity) throws Exception {
@@ -49,13 +57,17 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request
                         .requestMatchers("/", "/swagger-ui/**", "/v3/api-docs/**", "/auth/**").permitAll()
                         .requestMatchers("/partner/**").hasAuthority("ROLE_PARTNER")
+                        .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/user/**").hasAuthority("ROLE_USER")
                         .anyRequest().authenticated())
 
                 .exceptionHandling(exceptionHandling -> exceptionHandling
                         .authenticationEntryPoint(new FailedAuthenticationEntryPoint())) // 인증 실패 시 처리할 엔트리 포인트를 설정
 
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class); // 커스텀 JWT 인증 필터
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // 커스텀 JWT 인증 필터
+                .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class) // 토큰 검증 전에 IP 한도 초과 요청을 거절
+                .addFilterAfter(principalRateLimitFilter, JwtAuthenticationFilter.class) // 인증된 사용자 한도
+                .addFilterAfter(idempotencyFilter, AuthorizationFilter.class); // 권한 검사를 통과한 요청만 키를 선점
 
         return httpSecurity.build();
     }
@@ -75,8 +87,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${spring.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
 
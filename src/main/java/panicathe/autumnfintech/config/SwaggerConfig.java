@@ -5,10 +5,18 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.security.SecurityRequirement;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+/**
+ * API 문서 설정. 요청 처리 경로와 관계없으므로 처음 필요할 때 만들고,
+ * springdoc 을 끈 프로필(fast-start)에서는 등록하지 않는다.
+ */
 @Configuration
+@Lazy
+@ConditionalOnProperty(name = "springdoc.api-docs.enabled", matchIfMissing = true)
 @SecurityScheme(
         name = "Bearer Authentication",
         type = SecuritySchemeType.HTTP,
@@ -0,0 +1,148 @@
+package panicathe.autumnfintech.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import panicathe.autumnfintech.dto.ApiResponse;
+import panicathe.autumnfintech.dto.account.AccountDto;
+import panicathe.autumnfintech.dto.account.AccountLimitRequestDto;
+import panicathe.autumnfintech.dto.account.AccountLookupDto;
+import panicathe.autumnfintech.dto.account.AmountRequestDto;
+import panicathe.autumnfintech.dto.account.BalanceAsOfDto;
+import panicathe.autumnfintech.dto.account.StatementDto;
+import panicathe.autumnfintech.dto.account.TransactionPageDto;
+import panicathe.autumnfintech.dto.account.TransactionResultDto;
+import panicathe.autumnfintech.export.ExportFormat;
+import panicathe.autumnfintech.service.AccountService;
+import panicathe.autumnfintech.service.StatementService;
+import panicathe.autumnfintech.service.TransactionExportService;
+import panicathe.autumnfintech.service.TransactionHistoryService;
+import panicathe.autumnfintech.service.TransactionService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/user/accounts")
+@RequiredArgsConstructor
+@Validated
+public class AccountController {
+
+    private final AccountService accountService;
+    private final TransactionService transactionService;
+    private final TransactionHistoryService transactionHistoryService;
+    private final StatementService statementService;
+    private final TransactionExportService transactionExportService;
+
+    @Operation(summary = "Create account", description = "Creates a new account for the current user")
+    @PostMapping
+    public ResponseEntity<ApiResponse<AccountDto>> createAccount(@AuthenticationPrincipal String email) {
+        AccountDto account = accountService.createAccount(email);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Account created successfully", account));
+    }
+
+    @Operation(summary = "List accounts", description = "Returns the current user's accounts with balances")
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AccountDto>>> getAccounts(@AuthenticationPrincipal String email) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Accounts retrieved successfully", accountService.getAccounts(email)));
+    }
+
+    @Operation(summary = "Look up account", description = "Returns whether the account exists and the owner's name")
+    @GetMapping("/lookup/{accountNumber}")
+    public ResponseEntity<ApiResponse<AccountLookupDto>> lookup(@PathVariable String accountNumber) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Account looked up successfully", accountService.lookup(accountNumber)));
+    }
+
+    @Operation(summary = "Get balance", description = "Returns the balance of the given account")
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<ApiResponse<Long>> getBalance(@AuthenticationPrincipal String email,
+                                                        @PathVariable String accountNumber) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Balance retrieved successfully", accountService.getBalance(email, accountNumber)));
+    }
+
+    @Operation(summary = "Balance as of", description = "Returns the balance including transactions before the given time")
+    @GetMapping("/{accountNumber}/balance/as-of")
+    public ResponseEntity<ApiResponse<BalanceAsOfDto>> getBalanceAsOf(@AuthenticationPrincipal String email,
+                                                                      @PathVariable String accountNumber,
+                                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        BalanceAsOfDto balance = statementService.getBalanceAsOf(email, accountNumber, asOf);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Balance retrieved successfully", balance));
+    }
+
+    @Operation(summary = "Statement",
+            description = "Returns the opening and closing balances and the transactions with running balances for the period [from, to)")
+    @GetMapping("/{accountNumber}/statement")
+    public ResponseEntity<ApiResponse<StatementDto>> getStatement(@AuthenticationPrincipal String email,
+                                                                  @PathVariable String accountNumber,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StatementDto statement = statementService.getStatement(email, accountNumber, from, to);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Statement retrieved successfully", statement));
+    }
+
+    @Operation(summary = "Close account", description = "Closes an account with zero balance")
+    @DeleteMapping("/{accountNumber}")
+    public ResponseEntity<ApiResponse<String>> closeAccount(@AuthenticationPrincipal String email,
+                                                            @PathVariable String accountNumber) {
+        accountService.closeAccount(email, accountNumber);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Account closed successfully", null));
+    }
+
+    @Operation(summary = "Update limits", description = "Sets the per-transaction, per-minute, hourly and daily debit limits of the given account")
+    @PutMapping("/{accountNumber}/limits")
+    public ResponseEntity<ApiResponse<AccountDto>> updateLimits(@AuthenticationPrincipal String email,
+                                                                @PathVariable String accountNumber,
+                                                                @Valid @RequestBody AccountLimitRequestDto accountLimitRequestDto) {
+        AccountDto account = accountService.updateLimits(email, accountNumber, accountLimitRequestDto);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Limits updated successfully", account));
+    }
+
+    @Operation(summary = "Transaction history",
+            description = "Returns the account's transactions, newest first. Pass nextCursor as cursor for the following page; page is supported for the first pages only")
+    @GetMapping("/{accountNumber}/transactions")
+    public ResponseEntity<ApiResponse<TransactionPageDto>> getTransactions(@AuthenticationPrincipal String email,
+                                                                           @PathVariable String accountNumber,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "0") int page,
+                                                                           @RequestParam(defaultValue = "10") int size) {
+        TransactionPageDto history = transactionHistoryService.getHistory(email, accountNumber, cursor, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Transactions retrieved successfully", history));
+    }
+
+    @Operation(summary = "Export transactions",
+            description = "Streams the account's transactions for [from, to) (all if omitted), oldest first, as csv or ndjson, optionally gzip-compressed")
+    @GetMapping("/{accountNumber}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@AuthenticationPrincipal String email,
+                                                                    @PathVariable String accountNumber,
+                                                                    @RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        return transactionExportService.export(email, accountNumber, from, to, ExportFormat.parse(format), gzip).toResponseEntity();
+    }
+
+    @Operation(summary = "Deposit", description = "Deposits money into the given account")
+    @PostMapping("/{accountNumber}/deposits")
+    public ResponseEntity<ApiResponse<TransactionResultDto>> deposit(@AuthenticationPrincipal String email,
+                                                                     @PathVariable String accountNumber,
+                                                                     @Valid @RequestBody AmountRequestDto amountRequestDto) {
+        TransactionResultDto result = transactionService.deposit(email, accountNumber, amountRequestDto.getAmount());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Deposit successful", result));
+    }
+
+    @Operation(summary = "Withdraw", description = "Withdraws money from the given account")
+    @PostMapping("/{accountNumber}/withdrawals")
+    public ResponseEntity<ApiResponse<TransactionResultDto>> withdraw(@AuthenticationPrincipal String email,
+                                                                      @PathVariable String accountNumber,
+                                                                      @Valid @RequestBody AmountRequestDto amountRequestDto) {
+        TransactionResultDto result = transactionService.withdraw(email, accountNumber, amountRequestDto.getAmount());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Withdrawal successful", result));
+    }
+}
@@ -0,0 +1,91 @@
+package panicathe.autumnfintech.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import panicathe.autumnfintech.audit.AuditLoader;
+import panicathe.autumnfintech.dto.ApiResponse;
+import panicathe.autumnfintech.dto.account.AccountDto;
+import panicathe.autumnfintech.dto.account.AccountLimitRequestDto;
+import panicathe.autumnfintech.dto.account.AccountLookupStatsDto;
+import panicathe.autumnfintech.dto.audit.AuditStatsDto;
+import panicathe.autumnfintech.dto.metrics.MetricsSnapshotDto;
+import panicathe.autumnfintech.dto.snapshot.ReconciliationReportDto;
+import panicathe.autumnfintech.dto.snapshot.SnapshotRunDto;
+import panicathe.autumnfintech.export.ExportFormat;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+import panicathe.autumnfintech.service.AccountLookupService;
+import panicathe.autumnfintech.service.AccountService;
+import panicathe.autumnfintech.service.TransactionExportService;
+import panicathe.autumnfintech.snapshot.BalanceReconciler;
+import panicathe.autumnfintech.snapshot.BalanceSnapshotService;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Validated
+public class AdminController {
+
+    private final AccountService accountService;
+    private final AccountLookupService accountLookupService;
+    private final MetricsRegistry metricsRegistry;
+    private final AuditLoader auditLoader;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final BalanceReconciler balanceReconciler;
+    private final TransactionExportService transactionExportService;
+
+    @Operation(summary = "Update account limits", description = "Sets the debit limits of any account")
+    @PutMapping("/accounts/{accountNumber}/limits")
+    public ResponseEntity<ApiResponse<AccountDto>> updateLimits(@PathVariable String accountNumber,
+                                                                @Valid @RequestBody AccountLimitRequestDto accountLimitRequestDto) {
+        AccountDto account = accountService.updateLimits(null, accountNumber, accountLimitRequestDto);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Limits updated successfully", account));
+    }
+
+    @Operation(summary = "Export account transactions", description = "Streams any account's transactions for compliance review, as csv or ndjson, optionally gzip-compressed")
+    @GetMapping("/accounts/{accountNumber}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable String accountNumber,
+                                                                    @RequestParam(defaultValue = "csv") String format,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestParam(defaultValue = "false") boolean gzip) {
+        return transactionExportService.export(null, accountNumber, from, to, ExportFormat.parse(format), gzip).toResponseEntity();
+    }
+
+    @Operation(summary = "Account lookup cache stats", description = "Returns bloom filter and cache hit/miss/eviction counters of the account lookup")
+    @GetMapping("/account-lookup/stats")
+    public ResponseEntity<ApiResponse<AccountLookupStatsDto>> accountLookupStats() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stats retrieved successfully", accountLookupService.getStats()));
+    }
+
+    @Operation(summary = "Latency metrics", description = "Returns p50/p99/p999 latencies (µs) of token verification, password hashing, repository calls and endpoints, and exception counts")
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<MetricsSnapshotDto>> metrics() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Metrics retrieved successfully", metricsRegistry.snapshot()));
+    }
+
+    @Operation(summary = "Audit log stats", description = "Returns dropped events, buffered events and the file-to-DB load lag of the audit log")
+    @GetMapping("/audit/stats")
+    public ResponseEntity<ApiResponse<AuditStatsDto>> auditStats() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Stats retrieved successfully", auditLoader.getStats()));
+    }
+
+    @Operation(summary = "Take balance snapshot", description = "Writes balance snapshots for accounts with transactions since the last snapshot")
+    @PostMapping("/balance-snapshots")
+    public ResponseEntity<ApiResponse<SnapshotRunDto>> takeBalanceSnapshot() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Snapshot taken successfully", balanceSnapshotService.takeSnapshot()));
+    }
+
+    @Operation(summary = "Reconcile balances", description = "Checks the last snapshot plus later transactions against the balance of every account and reports mismatches")
+    @PostMapping("/reconciliation")
+    public ResponseEntity<ApiResponse<ReconciliationReportDto>> reconcile() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Reconciliation completed", balanceReconciler.reconcile()));
+    }
+}
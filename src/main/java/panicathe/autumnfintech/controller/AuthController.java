@@ -1,15 +1,20 @@
 package panicathe.autumnfintech.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.annotation.CurrentSecurityContext;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import panicathe.autumnfintech.dto.ApiResponse;
 import panicathe.autumnfintech.dto.user.UserDto;
 import panicathe.autumnfintech.dto.user.LoginRequestDto;
+import panicathe.autumnfintech.dto.user.RefreshTokenRequestDto;
+import panicathe.autumnfintech.dto.user.TokenResponseDto;
+import panicathe.autumnfintech.jwt.JwtClaims;
 import panicathe.autumnfintech.service.AuthService;
 
 @RestController
@@ -27,11 +32,30 @@ public class AuthController {
         return ResponseEntity.ok(new ApiResponse<>(true, "User registered successfully", null));
     }
 
-    @Operation(summary = "User login", description = "Authenticates a user and returns a JWT token")
+    @Operation(summary = "User login", description = "Authenticates a user and returns an access token and a refresh token")
     @PostMapping("/tokens")
-    public ResponseEntity<ApiResponse<String>> login(@Valid @RequestBody LoginRequestDto loginRequestDto) {
-        String token = authService.login(loginRequestDto);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", token));
+    public ResponseEntity<ApiResponse<TokenResponseDto>> login(@Valid @RequestBody LoginRequestDto loginRequestDto,
+                                                               HttpServletRequest request) {
+        TokenResponseDto tokens = authService.login(loginRequestDto, request.getRemoteAddr());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", tokens));
+    }
+
+    @Operation(summary = "Refresh tokens", description = "Rotates a refresh token and returns a new access token and refresh token")
+    @PostMapping("/tokens/refresh")
+    public ResponseEntity<ApiResponse<TokenResponseDto>> refresh(@Valid @RequestBody RefreshTokenRequestDto refreshTokenRequestDto) {
+        TokenResponseDto tokens = authService.refresh(refreshTokenRequestDto.getRefreshToken());
+        return ResponseEntity.ok(new ApiResponse<>(true, "Token refreshed", tokens));
+    }
+
+    @Operation(summary = "Logout", description = "Revokes the current access token and the given refresh token")
+    @DeleteMapping("/tokens")
+    public ResponseEntity<ApiResponse<String>> logout(@CurrentSecurityContext(expression = "authentication?.details") JwtClaims claims,
+                                                      @RequestBody(required = false) RefreshTokenRequestDto refreshTokenRequestDto) {
+        if (claims == null) {
+            throw new IllegalArgumentException("Access token is required");
+        }
+        authService.logout(claims, refreshTokenRequestDto != null ? refreshTokenRequestDto.getRefreshToken() : null);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Logout successful", null));
     }
 
     @Operation(summary = "Delete user", description = "Deletes a user account")
@@ -0,0 +1,45 @@
+package panicathe.autumnfintech.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import panicathe.autumnfintech.dto.ApiResponse;
+import panicathe.autumnfintech.dto.user.UserDto;
+import panicathe.autumnfintech.dto.user.UserImportJobDto;
+import panicathe.autumnfintech.service.UserImportService;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/partner")
+@RequiredArgsConstructor
+@Validated
+public class PartnerController {
+
+    private final UserImportService userImportService;
+
+    @Operation(summary = "Bulk register users",
+            description = "Accepts a bulk user import for partner onboarding and returns a job to poll for progress")
+    @PostMapping("/users")
+    public ResponseEntity<ApiResponse<UserImportJobDto>> registerUsers(
+            @AuthenticationPrincipal String partner,
+            @RequestBody @Size(min = 1, max = 100_000, message = "Between 1 and 100000 users per request") List<@Valid UserDto> userDtos) {
+        UserImportJobDto job = userImportService.submit(partner, userDtos);
+        return ResponseEntity.accepted()
+                .location(URI.create("/partner/users/imports/" + job.getJobId()))
+                .body(new ApiResponse<>(true, "User import accepted", job));
+    }
+
+    @Operation(summary = "Get user import status", description = "Returns the progress of a bulk user import")
+    @GetMapping("/users/imports/{jobId}")
+    public ResponseEntity<ApiResponse<UserImportJobDto>> getImport(@AuthenticationPrincipal String partner,
+                                                                   @PathVariable String jobId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "User import retrieved successfully", userImportService.getJob(partner, jobId)));
+    }
+}
@@ -0,0 +1,38 @@
+package panicathe.autumnfintech.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import panicathe.autumnfintech.dto.ApiResponse;
+import panicathe.autumnfintech.dto.account.TransactionResultDto;
+import panicathe.autumnfintech.dto.account.TransferRequestDto;
+import panicathe.autumnfintech.service.TransactionService;
+
+@RestController
+@RequestMapping("/user/transfers")
+@RequiredArgsConstructor
+@Validated
+public class TransferController {
+
+    private final TransactionService transactionService;
+
+    @Operation(summary = "Transfer", description = "Transfers money from the current user's account to another account")
+    @PostMapping
+    public ResponseEntity<ApiResponse<TransactionResultDto>> transfer(@AuthenticationPrincipal String email,
+                                                                      @Valid @RequestBody TransferRequestDto transferRequestDto) {
+        TransactionResultDto result = transactionService.transfer(email, transferRequestDto);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Transfer successful", result));
+    }
+
+    @Operation(summary = "Cancel transfer", description = "Cancels a transfer made within the last hour and returns the money to the sending account")
+    @PostMapping("/{transactionId}/cancel")
+    public ResponseEntity<ApiResponse<TransactionResultDto>> cancel(@AuthenticationPrincipal String email,
+                                                                    @PathVariable long transactionId) {
+        TransactionResultDto result = transactionService.cancelTransfer(email, transactionId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Transfer cancelled successfully", result));
+    }
+}
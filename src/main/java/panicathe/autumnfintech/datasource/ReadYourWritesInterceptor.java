@@ -0,0 +1,41 @@
+package panicathe.autumnfintech.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * 인증된 사용자의 변경 요청(POST/PUT/PATCH/DELETE)을 쓰기로 기록한다.
+ * 요청 처리 중과 끝난 직후 모두 창 안에 있도록 시작과 종료 시점에 각각 기록한다.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && MUTATING_METHODS.contains(request.getMethod())) {
+            tracker.recordWrite(principal.getName(), System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package panicathe.autumnfintech.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 사용자별 마지막 쓰기 요청 시각. 쓰기 직후 windowMillis 동안은 그 사용자의 읽기 트랜잭션도 primary 로 보내
+ * 복제 지연 때문에 방금 쓴 데이터가 안 보이는 일을 막는다.
+ */
+public class ReadYourWritesTracker {
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowMillis;
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(String user, long nowMillis) {
+        lastWrites.put(user, nowMillis);
+    }
+
+    public boolean isWithinWindow(String user, long nowMillis) {
+        Long lastWrite = lastWrites.get(user);
+        return lastWrite != null && nowMillis - lastWrite < windowMillis;
+    }
+
+    /**
+     * 창이 지난 항목을 정리한다.
+     */
+    public void purge(long nowMillis) {
+        lastWrites.values().removeIf(lastWrite -> nowMillis - lastWrite >= windowMillis);
+    }
+
+    int size() {
+        return lastWrites.size();
+    }
+}
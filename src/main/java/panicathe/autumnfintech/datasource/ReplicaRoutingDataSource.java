@@ -0,0 +1,149 @@
+package panicathe.autumnfintech.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * readOnly 트랜잭션은 replica 로, 나머지는 primary 로 보내는 DataSource.
+ * <p>
+ * replica 는 정상 상태인 것들 사이에서 round-robin 으로 고른다. 연결에 실패한 replica 는 즉시 제외하고 primary 로 대신 연결하며,
+ * checkReplicas 가 다시 연결되는 것을 확인하면 복귀시킨다. 정상 replica 가 없으면 모든 요청이 primary 로 간다.
+ * 쓰기 직후(ReadYourWritesTracker)의 사용자는 읽기도 primary 로 보낸다.
+ * <p>
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 설정되지 않으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ * 첫 쿼리 시점에 연결을 고르도록 해야 한다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private final DataSource primary;
+    private final Replica[] replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toArray(Replica[]::new);
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || recentlyWrote()) {
+            return PRIMARY;
+        }
+        int replica = pickReplica();
+        return replica < 0 ? PRIMARY : REPLICA_PREFIX + replica;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+        int replica = Integer.parseInt(((String) key).substring(REPLICA_PREFIX.length()));
+        try {
+            return replicas[replica].dataSource.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * 각 replica 에 연결해 상태를 갱신한다. 주기적으로 호출된다.
+     */
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.length; i++) {
+            boolean up;
+            try (Connection connection = replicas[i].dataSource.getConnection()) {
+                up = connection.isValid(1);
+            } catch (SQLException e) {
+                up = false;
+            }
+            if (up != replicas[i].healthy) {
+                log.info("Read replica {} is now {}", i, up ? "up" : "down");
+            }
+            replicas[i].healthy = up;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    public boolean isHealthy(int replica) {
+        return replicas[replica].healthy;
+    }
+
+    private int pickReplica() {
+        int size = replicas.length;
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, size));
+        for (int i = 0; i < size; i++) {
+            int candidate = (start + i) % size;
+            if (replicas[candidate].healthy) {
+                return candidate;
+            }
+        }
+        return -1;
+    }
+
+    private void markDown(int replica, SQLException cause) {
+        if (replicas[replica].healthy) {
+            log.warn("Read replica {} is unreachable, falling back to primary", replica, cause);
+        }
+        replicas[replica].healthy = false;
+    }
+
+    private boolean recentlyWrote() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && readYourWritesTracker.isWithinWindow(authentication.getName(), System.currentTimeMillis());
+    }
+
+    private static final class Replica {
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
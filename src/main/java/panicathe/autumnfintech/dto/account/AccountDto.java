@@ -0,0 +1,29 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountDto {
+
+    private String accountNumber;
+
+    private long balance;
+
+    private Long transactionLimit;
+
+    private Long minuteLimit;
+
+    private Long hourLimit;
+
+    private Long dailyLimit;
+
+    private LocalDateTime createdAt;
+}
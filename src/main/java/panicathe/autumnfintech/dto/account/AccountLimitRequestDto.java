@@ -0,0 +1,23 @@
+package panicathe.autumnfintech.dto.account;
+
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * 계좌 한도 변경 요청. 비워 둔 한도는 제한 없음으로 바뀐다.
+ */
+@Data
+public class AccountLimitRequestDto {
+
+    @Positive(message = "Transaction limit must be positive")
+    private Long transactionLimit;
+
+    @Positive(message = "Minute limit must be positive")
+    private Long minuteLimit;
+
+    @Positive(message = "Hour limit must be positive")
+    private Long hourLimit;
+
+    @Positive(message = "Daily limit must be positive")
+    private Long dailyLimit;
+}
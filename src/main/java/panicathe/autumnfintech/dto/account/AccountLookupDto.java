@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLookupDto {
+
+    private String accountNumber;
+
+    private boolean exists;
+
+    // 계좌주 이름 (계좌가 없으면 null)
+    private String ownerName;
+}
@@ -0,0 +1,28 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountLookupStatsDto {
+
+    // Bloom filter 로 DB 조회 없이 "없음" 처리한 건수 (형식이 맞지 않는 번호 포함)
+    private long bloomRejections;
+
+    private long cacheHits;
+
+    private long cacheMisses;
+
+    private double cacheHitRatio;
+
+    private long cacheEvictions;
+
+    private int cacheSize;
+
+    private long bloomInsertions;
+
+    private double bloomFalsePositiveRate;
+}
@@ -0,0 +1,14 @@
+package panicathe.autumnfintech.dto.account;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+
+@Data
+public class AmountRequestDto {
+
+    @NotNull(message = "Amount is mandatory")
+    @Positive(message = "Amount must be positive")
+    private Long amount;
+}
@@ -0,0 +1,20 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceAsOfDto {
+
+    private String accountNumber;
+
+    // 이 시각 이전(미포함)의 거래까지 반영한 잔액
+    private LocalDateTime asOf;
+
+    private long balance;
+}
@@ -0,0 +1,28 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementDto {
+
+    private String accountNumber;
+
+    // 조회 기간 [from, to)
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private long openingBalance;
+
+    private long closingBalance;
+
+    // 오래된 순
+    private List<StatementLineDto> lines;
+}
@@ -0,0 +1,32 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import panicathe.autumnfintech.entity.TransactionStatus;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementLineDto {
+
+    private Long transactionId;
+
+    private TransactionType type;
+
+    private TransactionStatus status;
+
+    // 상대 계좌 (입금/출금이면 null)
+    private String counterpartyAccountNumber;
+
+    // 입금은 양수, 출금은 음수
+    private long amount;
+
+    // 이 거래 반영 후 잔액
+    private long balance;
+
+    private LocalDateTime createdAt;
+}
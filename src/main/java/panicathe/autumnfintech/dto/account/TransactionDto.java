@@ -0,0 +1,47 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import panicathe.autumnfintech.entity.Transaction;
+import panicathe.autumnfintech.entity.TransactionStatus;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDto {
+
+    private Long transactionId;
+
+    private TransactionType type;
+
+    private String fromAccountNumber;
+
+    private String toAccountNumber;
+
+    private long amount;
+
+    private TransactionStatus status;
+
+    private Long originalTransactionId;
+
+    private LocalDateTime createdAt;
+
+    public static TransactionDto from(Transaction transaction) {
+        return TransactionDto.builder()
+                .transactionId(transaction.getId())
+                .type(transaction.getType())
+                .fromAccountNumber(transaction.getFromAccountNumber())
+                .toAccountNumber(transaction.getToAccountNumber())
+                .amount(transaction.getAmount())
+                .status(transaction.getStatus())
+                .originalTransactionId(transaction.getOriginalTransactionId())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPageDto {
+
+    private List<TransactionDto> content;
+
+    // 다음 페이지 조회용 커서 (마지막 페이지면 null). 다음 요청에 cursor 파라미터로 그대로 전달한다.
+    private String nextCursor;
+}
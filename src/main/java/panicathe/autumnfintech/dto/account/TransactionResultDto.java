@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.dto.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionResultDto {
+
+    private Long transactionId;
+
+    private String accountNumber;
+
+    // 거래 직후 잔액
+    private long balance;
+}
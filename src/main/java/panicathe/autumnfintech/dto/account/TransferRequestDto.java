@@ -0,0 +1,24 @@
+package panicathe.autumnfintech.dto.account;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+
+@Data
+public class TransferRequestDto {
+
+    @NotBlank(message = "From account number is mandatory")
+    @Pattern(regexp = "\\d{12}", message = "Account number must be 12 digits")
+    private String fromAccountNumber;
+
+    @NotBlank(message = "To account number is mandatory")
+    @Pattern(regexp = "\\d{12}", message = "Account number must be 12 digits")
+    private String toAccountNumber;
+
+    @NotNull(message = "Amount is mandatory")
+    @Positive(message = "Amount must be positive")
+    private Long amount;
+}
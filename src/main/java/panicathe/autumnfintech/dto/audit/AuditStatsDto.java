@@ -0,0 +1,30 @@
+package panicathe.autumnfintech.dto.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStatsDto {
+
+    // 링 버퍼가 가득 차 기록하지 못한 이벤트 수 (0 이 아니면 buffer-size 를 늘리거나 디스크를 확인해야 한다)
+    private long dropped;
+
+    // 버퍼에서 파일 기록을 기다리는 이벤트 수
+    private long pending;
+
+    private int bufferCapacity;
+
+    // 파일에 fsync 된 마지막 순번
+    private long durableSeq;
+
+    // DB 에 적재된 마지막 순번
+    private long loadedSeq;
+
+    // 파일에는 있지만 아직 DB 에 적재되지 않은 이벤트 수
+    private long loadLag;
+
+    private long writeFailures;
+}
@@ -0,0 +1,24 @@
+package panicathe.autumnfintech.dto.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 지연 시간 단위는 모두 마이크로초(µs)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyStatsDto {
+
+    private long count;
+
+    private double mean;
+
+    private double p50;
+
+    private double p99;
+
+    private double p999;
+
+    private double max;
+}
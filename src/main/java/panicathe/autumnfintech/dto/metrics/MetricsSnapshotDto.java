@@ -0,0 +1,19 @@
+package panicathe.autumnfintech.dto.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsSnapshotDto {
+
+    // 이름 -> 지연 시간 통계 (jwt.verify, password.matches, repository.*, http.* 등)
+    private Map<String, LatencyStatsDto> latencies;
+
+    // 예외 클래스 이름 -> GlobalExceptionHandler 가 처리한 횟수
+    private Map<String, Long> exceptions;
+}
@@ -0,0 +1,29 @@
+package panicathe.autumnfintech.dto.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceMismatchDto {
+
+    private String accountNumber;
+
+    // 기준 스냅샷 시점 (스냅샷이 없으면 null)
+    private LocalDateTime snapshotAsOf;
+
+    private long snapshotBalance;
+
+    // 스냅샷 이후 거래 합계
+    private long delta;
+
+    // snapshotBalance + delta
+    private long expectedBalance;
+
+    // account.balance
+    private long actualBalance;
+}
@@ -0,0 +1,26 @@
+package panicathe.autumnfintech.dto.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReportDto {
+
+    // 대조 기준이 된 마지막 스냅샷 시점
+    private LocalDateTime snapshotAsOf;
+
+    private long checkedAccounts;
+
+    private long mismatchCount;
+
+    // 불일치 계좌 (최대 max-reported-mismatches 건, 계좌번호 순)
+    private List<BalanceMismatchDto> mismatches;
+
+    private long elapsedMillis;
+}
@@ -0,0 +1,23 @@
+package panicathe.autumnfintech.dto.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SnapshotRunDto {
+
+    // 이전 스냅샷 시점 (이 시점부터의 거래를 읽었다)
+    private LocalDateTime fromAsOf;
+
+    private LocalDateTime asOf;
+
+    // 스냅샷을 기록한 계좌 수 (구간에 거래가 있던 계좌만)
+    private int accounts;
+
+    private long elapsedMillis;
+}
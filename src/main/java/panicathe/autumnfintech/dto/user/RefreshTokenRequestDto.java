@@ -0,0 +1,12 @@
+package panicathe.autumnfintech.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+
+@Data
+public class RefreshTokenRequestDto {
+
+    @NotBlank(message = "Refresh token is mandatory")
+    private String refreshToken;
+}
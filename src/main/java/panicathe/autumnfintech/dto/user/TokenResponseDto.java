@@ -0,0 +1,15 @@
+package panicathe.autumnfintech.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponseDto {
+
+    private String accessToken;
+
+    private String refreshToken;
+}
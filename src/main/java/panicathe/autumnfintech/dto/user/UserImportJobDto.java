@@ -0,0 +1,34 @@
+package panicathe.autumnfintech.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportJobDto {
+
+    private String jobId;
+
+    private UserImportStatus status;
+
+    private int requested;
+
+    // 처리가 끝난 건수. 청크 단위로 커밋되므로 실패해도 이만큼은 반영(또는 건너뜀)되어 있다.
+    private int processed;
+
+    private int registered;
+
+    // 요청 내 중복 또는 이미 존재하는 이메일/사용자명으로 건너뛴 건수
+    private int skipped;
+
+    // 실패한 경우의 원인
+    private String error;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,8 @@
+package panicathe.autumnfintech.dto.user;
+
+public enum UserImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,58 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import panicathe.autumnfintech.id.SnowflakeId;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_number", columnNames = "accountNumber"))
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class Account {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    @Column(nullable = false, length = 12)
+    private String accountNumber;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // 원 단위 잔액. BalanceEngine 이 WAL 을 반영하면서 갱신하므로 애플리케이션에서 직접 수정하지 않는다.
+    @Column(nullable = false)
+    private long balance;
+
+    // 1회 출금/송금 한도 (null 이면 제한 없음)
+    private Long transactionLimit;
+
+    // 최근 1분/1시간/24시간 누적 출금/송금 한도 (null 이면 제한 없음)
+    private Long minuteLimit;
+
+    private Long hourLimit;
+
+    private Long dailyLimit;
+
+    @Column(nullable = false)
+    private boolean closed;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
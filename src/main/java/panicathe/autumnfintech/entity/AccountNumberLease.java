@@ -0,0 +1,23 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 계좌번호 순번 카운터. 각 노드는 이 값을 블록 단위로 증가시켜 구간을 임대한다.
+ */
+@Entity
+@Table(name = "account_number_lease")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNumberLease {
+
+    @Id
+    private Integer id;
+
+    // 아직 임대되지 않은 다음 순번
+    @Column(nullable = false)
+    private long nextValue;
+}
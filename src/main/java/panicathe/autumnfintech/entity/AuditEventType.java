@@ -0,0 +1,13 @@
+package panicathe.autumnfintech.entity;
+
+// 감사 로그 파일에는 ordinal 이 기록되므로 새 값은 항상 마지막에 추가해야 한다.
+public enum AuditEventType {
+    LOGIN,
+    LOGIN_FAILED,
+    REGISTER,
+    USER_DELETED,
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    TRANSFER_CANCELLED
+}
@@ -0,0 +1,22 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 인스턴스(노드 ID)별로 DB 에 적재가 끝난 마지막 감사 로그 순번. audit_log INSERT 와 같은 트랜잭션에서 갱신된다.
+ */
+@Entity
+@Table(name = "audit_load_checkpoint")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLoadCheckpoint {
+
+    @Id
+    private Long nodeId;
+
+    @Column(nullable = false)
+    private long seq;
+}
@@ -0,0 +1,47 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 로그인/회원/거래 감사 기록. AuditLoader 가 로컬 감사 로그 파일에서 일괄 적재한다.
+ * id 는 이벤트 발생 시 만든 Snowflake ID 이므로 여러 인스턴스의 기록이 섞여도 겹치지 않는다.
+ */
+@Entity
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_actor", columnList = "actor, occurredAt"),
+        @Index(name = "idx_audit_log_occurred_at", columnList = "occurredAt")
+})
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLog {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 24)
+    private AuditEventType type;
+
+    // 요청한 사용자 이메일 (로그인 실패 시 입력된 이메일)
+    @Column(length = 255)
+    private String actor;
+
+    @Column(length = 12)
+    private String accountNumber;
+
+    @Column(length = 12)
+    private String counterpartyAccountNumber;
+
+    @Column(nullable = false)
+    private long amount;
+
+    private Long transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,33 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * asOf 시점(미포함)까지의 거래를 모두 반영한 계좌 잔액. BalanceSnapshotService 가 주기적으로 기록한다.
+ * 특정 시점의 잔액은 그 이전의 마지막 스냅샷에 이후 거래만 더해 구한다.
+ * 스냅샷 구간에 거래가 없던 계좌는 새 행을 만들지 않으므로 이전 스냅샷이 그대로 유효하다.
+ */
+@Entity
+@Table(name = "balance_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_snapshot_account_as_of", columnNames = {"accountNumber", "asOf"}))
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 12)
+    private String accountNumber;
+
+    @Column(nullable = false)
+    private LocalDateTime asOf;
+
+    @Column(nullable = false)
+    private long balance;
+}
@@ -0,0 +1,25 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 마지막 잔액 스냅샷 시점. balance_snapshot INSERT 와 같은 트랜잭션에서 갱신되며,
+ * 다음 스냅샷은 이 시점 이후의 거래만 읽는다.
+ */
+@Entity
+@Table(name = "balance_snapshot_checkpoint")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshotCheckpoint {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDateTime asOf;
+}
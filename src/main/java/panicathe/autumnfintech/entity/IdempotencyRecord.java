@@ -0,0 +1,54 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import panicathe.autumnfintech.id.SnowflakeId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key 로 처리한 요청의 응답. (사용자, 키) unique 인덱스가 인스턴스 간 중복 실행을 막는다.
+ * 처리 중에는 completed = false 로 먼저 INSERT 하고, 응답이 나오면 응답 내용과 함께 completed = true 로 갱신한다.
+ * 완료되지 않은 채 남은 기록은 결과를 알 수 없는 요청이므로 만료될 때까지 같은 키의 재실행을 막는다.
+ */
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_owner_key", columnNames = {"owner", "idempotencyKey"}),
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expiresAt"))
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    // 요청한 사용자 (이메일)
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false, length = 64)
+    private String idempotencyKey;
+
+    // 메서드 + URI + 본문의 SHA-256. 같은 키로 다른 요청을 보내면 거절한다.
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Integer responseStatus;
+
+    @Column(length = 100)
+    private String responseContentType;
+
+    @Lob
+    @Column(length = 16_777_215)
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
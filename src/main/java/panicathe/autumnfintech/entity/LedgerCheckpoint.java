@@ -0,0 +1,22 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * DB 에 반영이 끝난 마지막 WAL 순번. 거래 내역/잔액 반영과 같은 트랜잭션에서 갱신된다.
+ */
+@Entity
+@Table(name = "ledger_checkpoint")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerCheckpoint {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long lsn;
+}
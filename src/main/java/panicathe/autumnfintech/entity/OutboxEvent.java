@@ -0,0 +1,44 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 외부 소비자(명세서, 알림, 이상거래 탐지 등)에 전달할 원장 이벤트.
+ * LedgerPersister 가 거래 내역과 같은 트랜잭션에서 기록하고, OutboxDispatcher 가 읽어 전달한다.
+ * id 는 WAL 순번(LSN)이므로 기록 순서대로 증가한다.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionType type;
+
+    @Column(length = 12)
+    private String fromAccountNumber;
+
+    @Column(length = 12)
+    private String toAccountNumber;
+
+    @Column(nullable = false)
+    private long amount;
+
+    private Long originalTransactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
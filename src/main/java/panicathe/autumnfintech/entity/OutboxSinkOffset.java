@@ -0,0 +1,24 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * sink 별로 전달을 마친 마지막 outbox 이벤트 ID.
+ * 전달에 실패하면 갱신되지 않으므로 다음 시도에서 같은 위치부터 다시 전달한다.
+ */
+@Entity
+@Table(name = "outbox_sink_offset")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxSinkOffset {
+
+    @Id
+    @Column(length = 64)
+    private String sinkName;
+
+    @Column(nullable = false)
+    private long lastEventId;
+}
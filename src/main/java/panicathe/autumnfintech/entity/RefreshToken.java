@@ -0,0 +1,48 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import panicathe.autumnfintech.id.SnowflakeId;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "refresh_token",
+        indexes = @Index(name = "idx_refresh_token_family", columnList = "familyId"))
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class RefreshToken {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    // 토큰 원문은 저장하지 않고 SHA-256 해시만 저장 (unique 인덱스로 단건 조회)
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    // 최초 로그인에서 시작된 회전(rotation) 체인 식별자. 재사용 감지 시 체인 전체를 폐기한다.
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // 회전되었거나 폐기된 토큰
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
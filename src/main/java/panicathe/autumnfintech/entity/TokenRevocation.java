@@ -0,0 +1,39 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 액세스 토큰 폐기 기록. 탈퇴/권한 변경은 사용자 단위(tokenId 없음), 로그아웃은 토큰 단위(jti)로 남는다.
+ * id 는 auto-increment 로 발급되는 단조 증가 순번이며, 노드들은 마지막으로 읽은 id 이후만 가져와 동기화한다.
+ */
+@Entity
+@Table(name = "token_revocation",
+        indexes = @Index(name = "idx_token_revocation_expires_at", columnList = "expiresAt"))
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    // 로그아웃으로 폐기된 토큰의 jti. null 이면 revokedAt 이전에 발급된 해당 사용자의 토큰 전체가 무효다.
+    @Column(length = 36)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    // 이 시각이 지나면 폐기 대상 토큰이 모두 만료되므로 기록을 지운다.
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,61 @@
+package panicathe.autumnfintech.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 원장(ledger) 거래 내역. LedgerPersister 가 WAL 순서대로 JDBC batch 로 기록한다.
+ * id 는 BalanceEngine 이 거래 시점에 발급한 Snowflake ID 이다.
+ */
+@Entity
+@Table(name = "transactions",
+        indexes = {
+                // 계좌별 이력 커서 페이징 (created_at, id) 용 복합 인덱스
+                @Index(name = "idx_transactions_from_created", columnList = "fromAccountNumber, createdAt, id"),
+                @Index(name = "idx_transactions_to_created", columnList = "toAccountNumber, createdAt, id"),
+                // 기동 시 계좌별 최근 24시간 출금으로 한도 카운터를 채우는 조회용 (커버링 인덱스)
+                @Index(name = "idx_transactions_from_debits", columnList = "fromAccountNumber, createdAt, type, status, amount"),
+                // 잔액 스냅샷의 구간 집계용
+                @Index(name = "idx_transactions_created", columnList = "createdAt")
+        })
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Transaction {
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionType type;
+
+    // 출금 계좌 (입금이면 null)
+    @Column(length = 12)
+    private String fromAccountNumber;
+
+    // 입금 계좌 (출금이면 null)
+    @Column(length = 12)
+    private String toAccountNumber;
+
+    @Column(nullable = false)
+    private long amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TransactionStatus status;
+
+    // 취소 거래이면 취소된 원거래 ID
+    private Long originalTransactionId;
+
+    // WAL 순번
+    @Column(nullable = false)
+    private long lsn;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
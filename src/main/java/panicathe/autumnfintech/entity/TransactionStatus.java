@@ -0,0 +1,6 @@
+package panicathe.autumnfintech.entity;
+
+public enum TransactionStatus {
+    COMPLETED,
+    CANCELLED
+}
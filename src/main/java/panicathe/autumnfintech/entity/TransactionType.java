@@ -0,0 +1,9 @@
+package panicathe.autumnfintech.entity;
+
+// WAL 에는 ordinal 이 기록되므로 새 값은 항상 마지막에 추가해야 한다.
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER,
+    CANCEL
+}
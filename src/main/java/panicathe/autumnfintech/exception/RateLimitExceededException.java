@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.exception;
+
+import lombok.Getter;
+
+/**
+ * 요청 한도를 넘었을 때 사용하는 예외.
+ * GlobalExceptionHandler 에서 429 + Retry-After 로 응답한다.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
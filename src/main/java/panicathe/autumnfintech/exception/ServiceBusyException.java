@@ -0,0 +1,12 @@
+package panicathe.autumnfintech.exception;
+
+/**
+ * 처리 용량이 가득 차 요청을 즉시 거절할 때 사용하는 예외.
+ * GlobalExceptionHandler 에서 503 + Retry-After 로 응답한다.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package panicathe.autumnfintech.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 내려받을 파일 이름/형식과 본문을 쓰는 콜백. 본문은 컨트롤러가 반환한 뒤 비동기 스레드에서 쓰인다.
+ */
+public record TransactionExport(String fileName, MediaType contentType, StreamingResponseBody body) {
+
+    public static TransactionExport of(String accountNumber, ExportFormat format, boolean gzip, StreamingResponseBody body) {
+        String fileName = "transactions-" + accountNumber + "." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType());
+        return new TransactionExport(fileName, contentType, body);
+    }
+
+    public ResponseEntity<StreamingResponseBody> toResponseEntity() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(contentType)
+                .body(body);
+    }
+}
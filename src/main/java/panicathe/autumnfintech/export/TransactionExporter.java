@@ -0,0 +1,213 @@
+package panicathe.autumnfintech.export;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 계좌 거래 내역을 출금/입금 두 방향의 커서에서 읽어 (created_at, id) 순으로 합치며 바로 CSV/NDJSON 으로 쓴다.
+ * <p>
+ * 방향마다 (account, created_at, id) 인덱스를 그 순서대로 읽으므로 DB 는 정렬하지 않는다. (UNION ALL + ORDER BY 는 전체를 filesort 한다)
+ * MySQL 은 한 커넥션에서 스트리밍 결과 집합을 둘 동시에 열 수 없으므로, 각 커서는 마지막으로 읽은 (created_at, id) 다음부터
+ * fetchSize 행씩 keyset 으로 이어 읽는다. 메모리에는 방향마다 최대 fetchSize 행만 있으므로 행 수와 관계없이 일정하다.
+ * 호출자의 읽기 전용 트랜잭션 안에서 실행하면 모든 조각이 같은 스냅샷을 본다.
+ * 출력 스트림 쓰기는 클라이언트가 읽는 속도에 맞춰 블로킹되므로 DB 도 그 속도로만 읽힌다.
+ */
+@Component
+public class TransactionExporter {
+
+    static final String CSV_HEADER =
+            "transaction_id,type,status,from_account_number,to_account_number,amount,original_transaction_id,created_at\n";
+
+    private static final String COLUMNS =
+            "SELECT id, type, status, from_account_number, to_account_number, amount, original_transaction_id, created_at "
+                    + "FROM transactions ";
+    private static final String NEXT_CHUNK =
+            "AND created_at >= ? AND created_at < ? AND (created_at > ? OR id > ?) ORDER BY created_at, id LIMIT ?";
+    private static final String OUTGOING_SQL = COLUMNS + "WHERE from_account_number = ? " + NEXT_CHUNK;
+    private static final String INCOMING_SQL = COLUMNS + "WHERE to_account_number = ? " + NEXT_CHUNK;
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getLong(6),
+            rs.getObject(7, Long.class),
+            rs.getTimestamp(8).toLocalDateTime());
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final int flushRows;
+
+    public TransactionExporter(JdbcTemplate jdbcTemplate,
+                               @Value("${spring.export.fetch-size:1000}") int fetchSize,
+                               @Value("${spring.export.flush-rows:1000}") int flushRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * [from, to) 구간의 거래를 오래된 순으로 out 에 쓰고 행 수를 반환한다. out 은 닫지 않는다.
+     * flush-rows 마다 flush 해 클라이언트가 받은 만큼 진행되며, gzip 이면 sync flush 로 그때까지의 행을 압축해 내보낸다.
+     */
+    public long export(String accountNumber, LocalDateTime from, LocalDateTime to, ExportFormat format, boolean gzip,
+                       OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, BUFFER_SIZE, true) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        Cursor outgoing = new Cursor(OUTGOING_SQL, accountNumber, from, to);
+        Cursor incoming = new Cursor(INCOMING_SQL, accountNumber, from, to);
+        StringBuilder line = new StringBuilder(256);
+        long rows = 0;
+        while (true) {
+            Row debit = outgoing.peek();
+            Row credit = incoming.peek();
+            if (debit == null && credit == null) {
+                break;
+            }
+            Row next = credit == null || (debit != null && !isAfter(debit, credit)) ? outgoing.next() : incoming.next();
+
+            line.setLength(0);
+            if (format == ExportFormat.CSV) {
+                appendCsv(line, next);
+            } else {
+                appendJson(line, next);
+            }
+            // 클라이언트가 끊으면 여기서 IOException 이 나고, 열어 둔 결과 집합이 없으므로 그대로 끝난다.
+            writer.append(line);
+            if (++rows % flushRows == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+        return rows;
+    }
+
+    private static boolean isAfter(Row a, Row b) {
+        int byTime = a.createdAt().compareTo(b.createdAt());
+        return byTime > 0 || (byTime == 0 && a.id() > b.id());
+    }
+
+    // 계좌번호와 enum 값에는 구분자/따옴표가 없으므로 이스케이프하지 않는다.
+    private static void appendCsv(StringBuilder line, Row row) {
+        line.append(row.id()).append(',')
+                .append(row.type()).append(',')
+                .append(row.status()).append(',')
+                .append(nullToEmpty(row.fromAccountNumber())).append(',')
+                .append(nullToEmpty(row.toAccountNumber())).append(',')
+                .append(row.amount()).append(',');
+        if (row.originalTransactionId() != null) {
+            line.append(row.originalTransactionId());
+        }
+        line.append(',');
+        TIMESTAMP_FORMAT.formatTo(row.createdAt(), line);
+        line.append('\n');
+    }
+
+    // 필드 이름은 TransactionDto 와 같다.
+    private static void appendJson(StringBuilder line, Row row) {
+        line.append("{\"transactionId\":").append(row.id())
+                .append(",\"type\":\"").append(row.type())
+                .append("\",\"status\":\"").append(row.status())
+                .append("\",\"fromAccountNumber\":");
+        appendJsonString(line, row.fromAccountNumber());
+        line.append(",\"toAccountNumber\":");
+        appendJsonString(line, row.toAccountNumber());
+        line.append(",\"amount\":").append(row.amount())
+                .append(",\"originalTransactionId\":");
+        if (row.originalTransactionId() == null) {
+            line.append("null");
+        } else {
+            line.append(row.originalTransactionId());
+        }
+        line.append(",\"createdAt\":\"");
+        TIMESTAMP_FORMAT.formatTo(row.createdAt(), line);
+        line.append("\"}\n");
+    }
+
+    private static void appendJsonString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+        } else {
+            line.append('"').append(value).append('"');
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private record Row(long id, String type, String status, String fromAccountNumber, String toAccountNumber,
+                       long amount, Long originalTransactionId, LocalDateTime createdAt) {
+    }
+
+    // 한 방향의 거래를 (created_at, id) 순으로 fetchSize 행씩 읽어 오는 커서
+    private final class Cursor {
+        private final String sql;
+        private final String accountNumber;
+        private final Timestamp end;
+        private final Deque<Row> buffer = new ArrayDeque<>();
+        private Timestamp lastCreatedAt;
+        private long lastId = Long.MIN_VALUE;
+        private boolean exhausted;
+
+        Cursor(String sql, String accountNumber, LocalDateTime from, LocalDateTime to) {
+            this.sql = sql;
+            this.accountNumber = accountNumber;
+            this.lastCreatedAt = Timestamp.valueOf(from);
+            this.end = Timestamp.valueOf(to);
+        }
+
+        Row peek() {
+            if (buffer.isEmpty() && !exhausted) {
+                fetch();
+            }
+            return buffer.peekFirst();
+        }
+
+        Row next() {
+            Row row = buffer.removeFirst();
+            lastCreatedAt = Timestamp.valueOf(row.createdAt());
+            lastId = row.id();
+            return row;
+        }
+
+        // created_at >= last 로 인덱스 범위를 잡고, 같은 시각이면 id 로 이어서 읽는다.
+        private void fetch() {
+            List<Row> chunk = jdbcTemplate.query(sql, ROW_MAPPER,
+                    accountNumber, lastCreatedAt, end, lastCreatedAt, lastId, fetchSize);
+            buffer.addAll(chunk);
+            exhausted = chunk.size() < fetchSize;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package panicathe.autumnfintech.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * "1000" 으로 시작하는 12자리 계좌번호를 존재 여부 조회 없이 발급한다.
+ * <p>
+ * 전역 순번 카운터를 DB 에서 블록 단위로 임대하고(블록당 한 번의 왕복), 노드 안에서는 메모리에서 순번을 하나씩 꺼내
+ * AccountNumberPermutation 으로 섞는다. 순번이 중복되지 않고 순열이 전단사이므로 발급된 번호도 중복되지 않으며,
+ * 발급 비용은 이미 발급된 계좌 수와 관계없이 일정하다.
+ * 재시작 시 쓰지 않은 구간은 버려진다.
+ */
+@Component
+public class AccountNumberAllocator {
+
+    public static final String PREFIX = "1000";
+
+    private static final String INIT_SQL = "INSERT IGNORE INTO account_number_lease (id, next_value) VALUES (1, 0)";
+    private static final String LOCK_SQL = "SELECT next_value FROM account_number_lease WHERE id = 1 FOR UPDATE";
+    private static final String ADVANCE_SQL = "UPDATE account_number_lease SET next_value = ? WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate leaseTransaction;
+    private final AccountNumberPermutation permutation;
+    private final int leaseSize;
+
+    // 현재 임대 구간 [next, end)
+    private long next;
+    private long end;
+    private boolean initialized;
+
+    public AccountNumberAllocator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${spring.account-number.secret}") String secret,
+                                  @Value("${spring.account-number.lease-size:1000}") int leaseSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.permutation = new AccountNumberPermutation(secret);
+        this.leaseSize = leaseSize;
+    }
+
+    public synchronized String allocate() {
+        if (next >= end) {
+            lease();
+        }
+        return format(permutation.permute(next++));
+    }
+
+    static String format(long value) {
+        return PREFIX + String.format("%08d", value);
+    }
+
+    private void lease() {
+        if (!initialized) {
+            jdbcTemplate.update(INIT_SQL);
+            initialized = true;
+        }
+        long start = leaseTransaction.execute(status -> {
+            Long current = jdbcTemplate.queryForObject(LOCK_SQL, Long.class);
+            long from = current == null ? 0L : current;
+            if (from >= AccountNumberPermutation.DOMAIN) {
+                throw new IllegalStateException("Account number space is exhausted");
+            }
+            jdbcTemplate.update(ADVANCE_SQL, Math.min(from + leaseSize, AccountNumberPermutation.DOMAIN));
+            return from;
+        });
+        next = start;
+        end = Math.min(start + leaseSize, AccountNumberPermutation.DOMAIN);
+    }
+}
@@ -0,0 +1,81 @@
+package panicathe.autumnfintech.id;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * [0, 10^8) 범위의 순번을 같은 범위의 무작위처럼 보이는 값으로 1:1 대응시키는 키 기반 순열.
+ * <p>
+ * 28비트 균형 Feistel 네트워크(14비트 + 14비트)로 [0, 2^28) 위의 순열을 만들고,
+ * 결과가 10^8 이상이면 다시 적용하는 cycle-walking 으로 범위를 좁힌다 (평균 약 2.7회).
+ * Feistel 은 라운드 함수와 무관하게 항상 전단사이므로 서로 다른 순번은 반드시 서로 다른 값이 된다.
+ * <p>
+ * 키가 바뀌면 이미 발급된 번호와 충돌할 수 있으므로 운영 중에는 키를 바꾸면 안 된다.
+ * 암호학적 보안이 아니라 순번이 드러나지 않게 하는 것이 목적이다.
+ */
+public class AccountNumberPermutation {
+
+    public static final long DOMAIN = 100_000_000L;
+
+    private static final int HALF_BITS = 14;
+    private static final int ROUNDS = 6;
+
+    private final int halfBits;
+    private final long halfMask;
+    private final long domain;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public AccountNumberPermutation(String secret) {
+        this(secret, HALF_BITS, DOMAIN);
+    }
+
+    // 테스트에서 같은 구조를 좁은 범위로 만들어 전수 검사하기 위한 생성자
+    AccountNumberPermutation(String secret, int halfBits, long domain) {
+        if (domain <= 0 || domain > 1L << (2 * halfBits)) {
+            throw new IllegalArgumentException("Domain does not fit in " + (2 * halfBits) + " bits: " + domain);
+        }
+        this.halfBits = halfBits;
+        this.halfMask = (1L << halfBits) - 1;
+        this.domain = domain;
+        try {
+            byte[] seed = MessageDigest.getInstance("SHA-512").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(seed);
+            for (int i = 0; i < ROUNDS; i++) {
+                roundKeys[i] = buffer.getLong();
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        long result = value;
+        do {
+            result = feistel(result);
+        } while (result >= domain);
+        return result;
+    }
+
+    private long feistel(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ roundKeys[round]) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 엔티티 ID 를 SnowflakeIdGenerator 로 생성한다.
+ * IDENTITY 와 달리 INSERT 전에 ID 가 정해지므로 Hibernate JDBC batch INSERT 가 동작한다.
+ */
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SnowflakeId {
+}
@@ -0,0 +1,67 @@
+package panicathe.autumnfintech.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DB 왕복 없이 시간 순으로 증가하는 64비트 ID 를 만드는 Snowflake 방식 생성기.
+ * <pre>
+ * | 1bit 부호(0) | 41bit 기준 시각 이후 millis | 10bit 노드 ID | 12bit 시퀀스 |
+ * </pre>
+ * 같은 millisecond 에 4096개를 넘기면 다음 millisecond 를 미리 사용하고,
+ * 시계가 뒤로 가더라도 마지막으로 사용한 시각을 기준으로 계속 증가하므로 한 노드 안에서 중복이 생기지 않는다.
+ * (타임스탬프, 시퀀스)를 하나의 AtomicLong 에 담아 CAS 로 갱신하므로 락이 없다.
+ */
+public class SnowflakeIdGenerator {
+
+    // 2024-01-01T00:00:00Z
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (기준 시각 이후 millis << SEQUENCE_BITS) | sequence
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long previous = state.get();
+            long next = (previous >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * ID 에 담긴 생성 시각 (epoch millis).
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * 해당 시각에 생성될 수 있는 가장 작은 ID. ID 범위로 시간 구간을 조회할 때 사용한다.
+     */
+    public static long minIdAt(long epochMillis) {
+        return Math.max(0L, epochMillis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,32 @@
+package panicathe.autumnfintech.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate 에서 @SnowflakeId 필드의 값을 채우는 생성기.
+ * Hibernate 가 직접 생성하는 객체이므로 Spring 빈인 SnowflakeIdGenerator 는 IdGeneratorConfig 에서 등록해 둔 것을 사용한다.
+ */
+public class SnowflakeIdentifierGenerator implements IdentifierGenerator {
+
+    private static volatile SnowflakeIdGenerator delegate;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member idMember, CustomIdGeneratorCreationContext creationContext) {
+    }
+
+    public static void use(SnowflakeIdGenerator generator) {
+        delegate = generator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        SnowflakeIdGenerator generator = delegate;
+        if (generator == null) {
+            throw new IllegalStateException("SnowflakeIdGenerator is not initialized");
+        }
+        return generator.nextId();
+    }
+}
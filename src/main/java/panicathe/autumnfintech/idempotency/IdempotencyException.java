@@ -0,0 +1,20 @@
+package panicathe.autumnfintech.idempotency;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Idempotency-Key 를 처리할 수 없는 경우. (다른 요청에 재사용된 키, 다른 곳에서 처리 중인 키)
+ */
+public class IdempotencyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,239 @@
+package panicathe.autumnfintech.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import panicathe.autumnfintech.entity.IdempotencyRecord;
+import panicathe.autumnfintech.repository.IdempotencyRecordRepository;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key 저장소 (2단).
+ * <p>
+ * 1단: 메모리 맵. 처리 중이거나 최근에 끝난 키를 보관한다. 같은 인스턴스로 동시에 들어온 중복 요청은
+ * 먼저 온 요청의 future 를 기다렸다가 같은 응답을 받는다.
+ * 2단: idempotency_record 테이블. 메모리에 없는 키(재시작, 다른 인스턴스)를 조회하고, unique 인덱스로 선점한다.
+ * <p>
+ * 완료되지 않은 선점은 넘겨받지도 풀어 주지도 않는다. 처리하던 인스턴스가 죽었거나, 5xx/예외로 끝났거나, 응답 저장에 실패했어도
+ * 송금/입금이 이미 WAL 에 기록되었을 수 있으므로 다시 실행하면 두 번 처리된다.
+ * 이런 키의 재시도에는 만료(ttl)될 때까지 409 로 응답하고, 클라이언트는 거래 내역을 확인한 뒤 새 키로 시도한다.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long waitMillis;
+    private final int maxEntries;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${spring.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${spring.idempotency.wait-ms:30000}") long waitMillis,
+                            @Value("${spring.idempotency.cache-size:100000}") int maxEntries) {
+        this.repository = repository;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.waitMillis = waitMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 키를 선점한다. 이미 처리된 키이면 저장된 응답을, 같은 인스턴스에서 처리 중이면 끝날 때까지 기다린 뒤 그 응답을 반환한다.
+     * null 을 반환하면 호출자가 키를 선점한 것이므로 요청을 실행한 뒤 반드시 complete 또는 fail 을 호출해야 한다.
+     */
+    public StoredResponse claim(String owner, String key, String requestHash) {
+        String scopedKey = owner + '\n' + key;
+        long now = System.currentTimeMillis();
+        Entry mine = new Entry(requestHash);
+        Entry existing = entries.putIfAbsent(scopedKey, mine);
+        while (existing != null && existing.isExpired(now)) {
+            entries.remove(scopedKey, existing);
+            existing = entries.putIfAbsent(scopedKey, mine);
+        }
+        if (existing != null) {
+            checkSameRequest(existing.requestHash, requestHash);
+            return await(existing);
+        }
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+
+        try {
+            LocalDateTime createdAt = LocalDateTime.now();
+            Optional<IdempotencyRecord> stored = repository.findByOwnerAndIdempotencyKey(owner, key);
+            if (stored.isPresent() && stored.get().getExpiresAt().isAfter(createdAt)) {
+                IdempotencyRecord record = stored.get();
+                checkSameRequest(record.getRequestHash(), requestHash);
+                if (!record.isCompleted()) {
+                    // 처리 중이거나 결과를 알 수 없다. (다른 인스턴스가 처리 중, 또는 처리 도중 중단)
+                    throw outcomeUnknown();
+                }
+                StoredResponse response = new StoredResponse(record.getResponseStatus(), record.getResponseContentType(), record.getResponseBody());
+                mine.finish(response, now + ttlMillis);
+                return response;
+            }
+            stored.ifPresent(repository::delete); // 만료된 키는 새로 쓴다.
+
+            IdempotencyRecord record = repository.saveAndFlush(IdempotencyRecord.builder()
+                    .owner(owner)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .completed(false)
+                    .expiresAt(createdAt.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMillis)))
+                    .build());
+            mine.claim(record.getId());
+            return null;
+        } catch (DataIntegrityViolationException e) {
+            // 다른 인스턴스가 같은 키를 먼저 선점했다.
+            IdempotencyException conflict = outcomeUnknown();
+            abandon(scopedKey, mine, conflict);
+            throw conflict;
+        } catch (RuntimeException e) {
+            abandon(scopedKey, mine, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 선점한 키의 실행 결과를 저장하고, 기다리던 중복 요청에 같은 응답을 넘긴다.
+     * 5xx 응답은 요청이 어디까지 반영되었는지 알 수 없으므로 저장하지 않고, 저장에 실패한 응답과 마찬가지로 선점을 미완료로 남긴다.
+     * 이 경우 메모리에도 남기지 않으므로 이후 재시도는 DB 에서 미완료 선점을 보고 409 를 받는다. (기다리던 요청에는 응답을 넘긴다)
+     */
+    public void complete(String owner, String key, StoredResponse response) {
+        String scopedKey = owner + '\n' + key;
+        Entry entry = entries.get(scopedKey);
+        if (entry == null || entry.recordId == null) {
+            return;
+        }
+        if (response.status() >= 500) {
+            log.warn("Idempotency-Key request ended with status {}, leaving its claim incomplete", response.status());
+            entries.remove(scopedKey, entry);
+            entry.finish(response, 0L);
+            return;
+        }
+
+        boolean stored;
+        try {
+            stored = repository.complete(entry.recordId,
+                    response.status(), response.contentType(), response.body()) == 1;
+        } catch (RuntimeException e) {
+            log.error("Failed to store the response for an Idempotency-Key", e);
+            stored = false;
+        }
+        if (!stored) {
+            entries.remove(scopedKey, entry);
+            entry.finish(response, 0L);
+            return;
+        }
+        entry.finish(response, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * 실행 중 예외로 응답을 만들지 못했을 때 호출한다. 예외 전에 반영된 것이 있을 수 있으므로 선점은 미완료로 남긴다.
+     */
+    public void fail(String owner, String key, Throwable cause) {
+        String scopedKey = owner + '\n' + key;
+        Entry entry = entries.get(scopedKey);
+        if (entry == null || entry.recordId == null) {
+            return;
+        }
+        abandon(scopedKey, entry, outcomeUnknown());
+        log.warn("Idempotency-Key request failed, leaving its claim incomplete", cause);
+    }
+
+    /**
+     * 만료된 키를 메모리와 DB 에서 정리한다.
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void purgeExpired() {
+        evict(System.currentTimeMillis());
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private StoredResponse await(Entry entry) {
+        try {
+            return entry.response.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IdempotencyException idempotencyException) {
+                throw idempotencyException;
+            }
+            throw outcomeUnknown();
+        } catch (TimeoutException e) {
+            throw outcomeUnknown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw outcomeUnknown();
+        }
+    }
+
+    private static IdempotencyException outcomeUnknown() {
+        return new IdempotencyException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed "
+                + "or did not finish. Check the transaction history before retrying with a new key.");
+    }
+
+    private void abandon(String scopedKey, Entry entry, Throwable cause) {
+        entries.remove(scopedKey, entry);
+        entry.response.completeExceptionally(cause);
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request.");
+        }
+    }
+
+    /**
+     * 만료된 항목을 지우고, 그래도 가득 차 있으면 끝난 항목부터 지운다. (DB 에 남아 있으므로 다시 조회할 수 있다)
+     * 처리 중인 항목은 지우지 않는다.
+     */
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().isExpired(now));
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries * 9L / 10 && iterator.hasNext()) {
+            if (iterator.next().response.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String requestHash;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        volatile Long recordId;
+        volatile long expiresAtMillis = Long.MAX_VALUE;
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        void claim(Long recordId) {
+            this.recordId = recordId;
+        }
+
+        void finish(StoredResponse stored, long expiresAtMillis) {
+            this.expiresAtMillis = expiresAtMillis;
+            response.complete(stored);
+        }
+
+        boolean isExpired(long now) {
+            return response.isDone() && expiresAtMillis <= now;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package panicathe.autumnfintech.idempotency;
+
+/**
+ * 재전송 시 그대로 돌려줄 응답.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,57 +17,81 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import panicathe.autumnfintech.metrics.LatencyHistogram;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
 
 /**
  * 요청마다 한 번씩 실행되는 필터로, JWT를 검증하고 인증 정보를 SecurityContext에 설정한다.
  * 이 클래스는 Spring Security의 OncePerRequestFilter를 확장하여 구현되었다.
  */
+@Slf4j
 @Component
-@RequiredArgsConstructor // final이나 @NonNull인 필드에 대한 생성자를 자동으로 생성
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtProvider jwtProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final LatencyHistogram verifyLatency; // 토큰 검증(캐시 조회 포함) 시간
+
+    public JwtAuthenticationFilter(JwtProvider jwtProvider, TokenRevocationRegistry tokenRevocationRegistry, MetricsRegistry metricsRegistry) {
+        this.jwtProvider = jwtProvider;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.verifyLatency = metricsRegistry.histogram("jwt.verify");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        // 토큰 검증에서 난 예외만 잡는다. 다음 필터에서 난 예외는 그대로 전파되고, 체인은 한 번만 실행된다.
         try {
-            // 요청 헤더에서 JWT 토큰을 추출한다.
-            String token = parseBearerToken(request);
-
-            // 토큰이 없는 경우, 다음 필터로 요청을 넘긴다.
-            if (token == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            // 토큰에서 사용자 이메일을 검증하고 추출한다.
-            String userEmail = jwtProvider.getEmail(token);
-            String role = jwtProvider.getRole(token);
-
-            // 검증 실패 시, 다음 필터로 요청을 넘긴다.
-            if (userEmail == null || role == null) {
-                filterChain.doFilter(request, response);
-                return;
-            }
+            authenticate(request);
+        } catch (JwtException | IllegalArgumentException exception) {
+            // 만료되었거나 서명이 틀린 토큰은 인증 없이 진행되어 권한 검사에서 거절된다.
+            log.debug("Rejected JWT: {}", exception.getMessage());
+        } catch (RuntimeException exception) {
+            log.warn("Unexpected error while authenticating JWT", exception);
+        }
 
-            // 권한 설정
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority(role));
+        // 모든 검증을 마치면, 다음 필터로 요청을 넘겨 처리한다.
+        filterChain.doFilter(request, response);
+    }
 
-            // 인증 정보 생성
-            Authentication authentication = new UsernamePasswordAuthenticationToken(userEmail, null, authorities);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            System.out.println("Authentication: " + SecurityContextHolder.getContext().getAuthentication());
+    /**
+     * 유효하고 폐기되지 않은 토큰이면 인증 정보를 SecurityContext 에 설정한다.
+     * 토큰이 없거나 폐기된 경우에는 아무것도 하지 않아 인증 없이 진행된다.
+     */
+    private void authenticate(HttpServletRequest request) {
+        // 요청 헤더에서 JWT 토큰을 추출한다.
+        String token = parseBearerToken(request);
+        if (token == null) {
+            return;
+        }
 
+        // 토큰을 한 번만 검증하고 이메일과 권한을 함께 추출한다.
+        long start = System.nanoTime();
+        JwtClaims claims;
+        try {
+            claims = jwtProvider.verify(token);
+        } finally {
+            verifyLatency.recordSince(start);
+        }
+        String userEmail = claims.email();
+        String role = claims.role();
 
-        } catch (Exception exception) {
-            exception.printStackTrace();
+        // 검증 실패 또는 폐기된 토큰이면 인증 정보를 설정하지 않는다.
+        if (userEmail == null || role == null || tokenRevocationRegistry.isRevoked(claims)) {
+            return;
         }
 
-        // 모든 검증을 마치면, 다음 필터로 요청을 넘겨 처리한다.
-        filterChain.doFilter(request, response);
+        // 권한 설정
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority(role));
+
+        // 인증 정보 생성
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userEmail, null, authorities);
+        authentication.setDetails(claims); // 로그아웃 등에서 jti 를 사용할 수 있도록 클레임을 보관
+        SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
     /**
@@ -0,0 +1,18 @@
+package panicathe.autumnfintech.jwt;
+
+/**
+ * 서명 검증을 마친 JWT 에서 꺼낸 클레임 묶음.
+ * 한 번의 파싱 결과를 필터와 서비스가 함께 사용하기 위해 불변 객체로 둔다.
+ *
+ * @param tokenId         토큰 식별자 (jti)
+ * @param email           토큰 주체의 이메일
+ * @param role            권한 (ex. ROLE_USER)
+ * @param issuedAtMillis  발급 시각 (epoch millis, 초 단위로 절삭됨)
+ * @param expiresAtMillis 만료 시각 (epoch millis)
+ */
+public record JwtClaims(String tokenId, String email, String role, long issuedAtMillis, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
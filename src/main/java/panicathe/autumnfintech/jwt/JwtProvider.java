@@ -1,34 +1,44 @@
 package panicathe.autumnfintech.jwt;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 
 @Component
 public class JwtProvider {
 
+    public static final Duration ACCESS_TOKEN_TTL = Duration.ofHours(1);
 
     private final SecretKey secretKey;
+    private final JwtParser jwtParser; // JwtParser 는 thread-safe 하므로 한 번만 생성해 재사용
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtProvider(@Value("${spring.jwt.secret}")String secret) {
+    public JwtProvider(@Value("${spring.jwt.secret}") String secret,
+                       @Value("${spring.jwt.cache-size:10000}") int cacheSize) {
 
 
         secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        jwtParser = Jwts.parser().verifyWith(secretKey).build();
+        tokenCache = new VerifiedTokenCache(cacheSize);
     }
 
     public String create(String email, String role){
 
-        Date expiredDate = Date.from(Instant.now().plus(1, ChronoUnit.HOURS));
+        Date expiredDate = Date.from(Instant.now().plus(ACCESS_TOKEN_TTL));
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .claim("email", email)
                 .claim("role", role)
                 .issuedAt(new Date(System.currentTimeMillis()))
@@ -37,17 +47,56 @@ public class JwtProvider {
                 .compact();
     }
 
+    /**
+     * 토큰의 서명과 만료를 한 번만 검증하고 모든 클레임을 반환한다.
+     * 최근 검증된 토큰은 exp 전까지 캐시에서 바로 반환되어 HMAC 검증을 건너뛴다.
+     *
+     * @throws io.jsonwebtoken.JwtException 서명이 올바르지 않거나 만료된 경우
+     */
+    public JwtClaims verify(String token) {
+        if (!tokenCache.isEnabled()) {
+            return parse(token);
+        }
+
+        long now = System.currentTimeMillis();
+        String key = tokenCache.keyOf(token);
+        JwtClaims cached = tokenCache.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtClaims claims = parse(token);
+        tokenCache.put(key, claims, now);
+        return claims;
+    }
+
+    private JwtClaims parse(String token) {
+        Claims payload = jwtParser.parseSignedClaims(token).getPayload();
+        Date issuedAt = payload.getIssuedAt();
+        Date expiration = payload.getExpiration();
+        return new JwtClaims(
+                payload.getId(),
+                payload.get("email", String.class),
+                payload.get("role", String.class),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : 0L); // exp 가 없으면 캐시에 남지 않도록 즉시 만료 처리
+    }
+
     public String getEmail(String token) {
 
-        return Jwts.parser()
-                .verifyWith(secretKey).build()
-                .parseSignedClaims(token).getPayload().get("email", String.class);
+        return verify(token).email();
     }
 
     public String getRole(String token) {
 
-        return Jwts.parser()
-                .verifyWith(secretKey).build()
-                .parseSignedClaims(token).getPayload().get("role", String.class);
+        return verify(token).role();
+    }
+
+    public long getCacheHits() {
+        return tokenCache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return tokenCache.getMisses();
     }
 }
@@ -0,0 +1,167 @@
+package panicathe.autumnfintech.jwt;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import panicathe.autumnfintech.entity.TokenRevocation;
+import panicathe.autumnfintech.repository.TokenRevocationRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 경로에서 DB 를 조회하지 않고 액세스 토큰 폐기 여부를 판단하는 메모리 테이블.
+ * <ul>
+ *     <li>사용자별 "이 시각 이전에 발급된 토큰은 무효" 시각 (탈퇴/권한 변경)</li>
+ *     <li>개별 폐기된 토큰 ID(jti) 집합 (로그아웃)</li>
+ * </ul>
+ * 두 테이블 모두 액세스 토큰 유효기간이 지나면 의미가 없으므로 주기적으로 정리되어 작게 유지된다.
+ * 폐기는 모두 token_revocation 테이블에도 기록되며, 시작 시 적재 후 주기적으로 마지막으로 읽은 순번(id) 이후만 가져와
+ * 다른 노드의 변경도 반영한다. 순번은 DB 가 발급하므로 노드 간 시계 차이와 무관하다.
+ * <p>
+ * auto-increment 순번은 커밋 순서가 아니라 INSERT 순서로 발급되므로, 작은 순번이 늦게 커밋되면 중간이 잠시 비어 보인다.
+ * 빈틈이 있으면 그 앞까지만 동기화 지점을 옮겨 다음 주기에 다시 읽고, GAP_TIMEOUT 동안 채워지지 않는 빈틈은
+ * 롤백 등으로 영영 비어 있는 것으로 보고 건너뛴다. 다시 읽은 기록은 같은 값으로 덮어쓰므로 무해하다.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final long TOKEN_TTL_MILLIS = JwtProvider.ACCESS_TOKEN_TTL.toMillis();
+    static final Duration GAP_TIMEOUT = Duration.ofMinutes(1);
+
+    private final TokenRevocationRepository revocationRepository;
+
+    // email -> 폐기 기준 시각 (epoch millis)
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+    // jti -> 토큰 만료 시각 (epoch millis)
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    // 빈틈 없이 반영한 마지막 순번. 0 이면 아직 아무것도 읽지 않았다.
+    private long syncedUpTo;
+    // syncedUpTo 바로 다음 순번이 비어 있는 것을 처음 본 시각. 빈틈이 없으면 0
+    private long gapSeenAtMillis;
+
+    public TokenRevocationRegistry(TokenRevocationRepository revocationRepository) {
+        this.revocationRepository = revocationRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        sync();
+    }
+
+    /**
+     * 토큰이 폐기되었는지 확인한다. 객체 할당 없이 맵 조회 두 번으로 끝난다.
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        Long before = revokedBefore.get(claims.email());
+        if (before != null && claims.issuedAtMillis() <= before) {
+            return true;
+        }
+        return claims.tokenId() != null && !revokedTokenIds.isEmpty() && revokedTokenIds.containsKey(claims.tokenId());
+    }
+
+    /**
+     * revokedAt 이전(같은 초 포함)에 발급된 해당 사용자의 토큰을 모두 무효화하고, 다른 노드도 알 수 있도록 기록한다.
+     * 호출자의 트랜잭션에서 기록되므로 탈퇴가 롤백되면 기록도 남지 않는다.
+     */
+    public void revokeUser(String email, LocalDateTime revokedAt) {
+        applyUser(email, toMillis(revokedAt));
+        revocationRepository.save(TokenRevocation.builder()
+                .email(email)
+                .revokedAt(revokedAt)
+                .expiresAt(revokedAt.plus(JwtProvider.ACCESS_TOKEN_TTL))
+                .build());
+    }
+
+    /**
+     * 로그아웃한 토큰 하나를 무효화하고, 다른 노드도 알 수 있도록 기록한다.
+     */
+    public void revokeToken(JwtClaims claims) {
+        if (claims.tokenId() == null) {
+            return;
+        }
+        revokedTokenIds.put(claims.tokenId(), claims.expiresAtMillis());
+        revocationRepository.save(TokenRevocation.builder()
+                .email(claims.email())
+                .tokenId(claims.tokenId())
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(toDateTime(claims.expiresAtMillis()))
+                .build());
+    }
+
+    /**
+     * 다른 노드에서 기록된 폐기를 가져와 반영한다. 다른 노드에서 발생한 탈퇴/로그아웃도 이 주기 내에 반영된다.
+     */
+    @Scheduled(fixedDelayString = "${spring.jwt.revocation-sync-ms:30000}")
+    public void syncFromDatabase() {
+        sync();
+    }
+
+    /**
+     * 유효기간이 지난 항목을 정리한다. 기준 시각 이전에 발급된 토큰은 이미 만료되었으므로 더 이상 보관할 필요가 없다.
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedBefore.values().removeIf(before -> before + TOKEN_TTL_MILLIS < now);
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt < now);
+        revocationRepository.deleteExpired(toDateTime(now));
+    }
+
+    private synchronized void sync() {
+        long contiguous = syncedUpTo;
+        long latest = syncedUpTo;
+        boolean gap = false;
+        for (TokenRevocation revocation : revocationRepository.findByIdGreaterThanOrderByIdAsc(syncedUpTo)) {
+            apply(revocation);
+            long id = revocation.getId();
+            // 처음 적재할 때는 만료되어 지워진 앞 순번이 없으므로 첫 기록부터 이어진 것으로 본다.
+            if (!gap && (id == contiguous + 1 || contiguous == 0)) {
+                contiguous = id;
+            } else {
+                gap = true;
+            }
+            latest = id;
+        }
+
+        long now = System.currentTimeMillis();
+        if (!gap) {
+            gapSeenAtMillis = 0;
+        } else if (gapSeenAtMillis == 0 || contiguous != syncedUpTo) {
+            gapSeenAtMillis = now;
+        } else if (now - gapSeenAtMillis >= GAP_TIMEOUT.toMillis()) {
+            contiguous = latest;
+            gapSeenAtMillis = 0;
+        }
+        syncedUpTo = contiguous;
+    }
+
+    private void apply(TokenRevocation revocation) {
+        if (revocation.getTokenId() == null) {
+            applyUser(revocation.getEmail(), toMillis(revocation.getRevokedAt()));
+        } else {
+            revokedTokenIds.put(revocation.getTokenId(), toMillis(revocation.getExpiresAt()));
+        }
+    }
+
+    private void applyUser(String email, long revokedAtMillis) {
+        revokedBefore.merge(email, revokedAtMillis, Math::max);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    int size() {
+        return revokedBefore.size() + revokedTokenIds.size();
+    }
+}
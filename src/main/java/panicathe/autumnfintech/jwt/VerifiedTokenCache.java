@@ -0,0 +1,107 @@
+package panicathe.autumnfintech.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 최근에 검증된 토큰의 클레임을 보관하는 크기 제한 캐시.
+ * 키는 토큰 원문이 아닌 SHA-256 다이제스트이며, 토큰의 exp 가 지나면 캐시 적중으로 인정하지 않는다.
+ * maxSize 가 0 이면 캐시를 사용하지 않는다.
+ */
+class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final int maxSize;
+    private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    String keyOf(String token) {
+        MessageDigest digest = SHA_256.get();
+        byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /**
+     * 캐시된 클레임을 반환한다. 없거나 이미 만료된 경우 null.
+     */
+    JwtClaims get(String key, long nowMillis) {
+        JwtClaims claims = entries.get(key);
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+        if (claims.isExpired(nowMillis)) {
+            entries.remove(key, claims);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    void put(String key, JwtClaims claims, long nowMillis) {
+        if (entries.size() >= maxSize) {
+            evict(nowMillis);
+        }
+        entries.put(key, claims);
+    }
+
+    /**
+     * 만료된 항목을 먼저 정리하고, 그래도 가득 차 있으면 임의의 항목을 제거해 여유 공간(10%)을 만든다.
+     * 동시에 한 스레드만 정리를 수행하며, 나머지 스레드는 기다리지 않고 그대로 삽입한다.
+     */
+    private void evict(long nowMillis) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(claims -> claims.isExpired(nowMillis));
+
+            int target = maxSize - Math.max(1, maxSize / 10);
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    long getHits() {
+        return hits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,14 @@
+package panicathe.autumnfintech.ledger;
+
+/**
+ * 계좌의 출금/송금 한도. null 이면 해당 한도는 없음.
+ *
+ * @param transactionLimit 1회 한도
+ * @param minuteLimit      최근 1분 누적 한도
+ * @param hourLimit        최근 1시간 누적 한도
+ * @param dailyLimit       최근 24시간 누적 한도
+ */
+public record AccountLimits(Long transactionLimit, Long minuteLimit, Long hourLimit, Long dailyLimit) {
+
+    public static final AccountLimits NONE = new AccountLimits(null, null, null, null);
+}
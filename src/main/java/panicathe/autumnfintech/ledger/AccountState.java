@@ -0,0 +1,78 @@
+package panicathe.autumnfintech.ledger;
+
+/**
+ * 엔진이 메모리에 보관하는 계좌 상태. 소속 샤드의 락을 잡은 상태에서만 읽고 쓴다.
+ * 한도 값은 Long.MAX_VALUE 이면 제한 없음.
+ */
+class AccountState {
+
+    // 1분: 5초 x 12, 1시간: 1분 x 60, 24시간: 15분 x 96
+    private static final long MINUTE_BUCKET_MILLIS = 5_000L;
+    private static final long HOUR_BUCKET_MILLIS = 60_000L;
+    private static final long DAY_BUCKET_MILLIS = 900_000L;
+
+    final String accountNumber;
+    final String ownerEmail;
+    long balance;
+    long transactionLimit;
+    long minuteLimit;
+    long hourLimit;
+    long dailyLimit;
+    // 해지가 시작되어 DB 커밋을 기다리는 중. 이 상태의 계좌로는 거래를 받지 않는다.
+    boolean closing;
+
+    // 최근 24시간 안에 출금이 있었던 계좌에만 만든다.
+    private SlidingWindowCounter minuteDebits;
+    private SlidingWindowCounter hourDebits;
+    private SlidingWindowCounter dailyDebits;
+
+    AccountState(String accountNumber, String ownerEmail, long balance, AccountLimits limits) {
+        this.accountNumber = accountNumber;
+        this.ownerEmail = ownerEmail;
+        this.balance = balance;
+        setLimits(limits);
+    }
+
+    void setLimits(AccountLimits limits) {
+        transactionLimit = orUnlimited(limits.transactionLimit());
+        minuteLimit = orUnlimited(limits.minuteLimit());
+        hourLimit = orUnlimited(limits.hourLimit());
+        dailyLimit = orUnlimited(limits.dailyLimit());
+    }
+
+    /**
+     * amount 를 출금했을 때 넘게 되는 한도의 이름을 반환한다. 넘지 않으면 null.
+     * limit - used 형태로 비교하여 Long.MAX_VALUE 한도에서도 넘침이 없다.
+     */
+    String exceededLimit(long nowMillis, long amount) {
+        if (amount > transactionLimit) {
+            return "transaction";
+        }
+        boolean debited = minuteDebits != null;
+        if (amount > minuteLimit - (debited ? minuteDebits.sum(nowMillis) : 0L)) {
+            return "per-minute";
+        }
+        if (amount > hourLimit - (debited ? hourDebits.sum(nowMillis) : 0L)) {
+            return "hourly";
+        }
+        if (amount > dailyLimit - (debited ? dailyDebits.sum(nowMillis) : 0L)) {
+            return "daily";
+        }
+        return null;
+    }
+
+    void recordDebit(long atMillis, long amount) {
+        if (minuteDebits == null) {
+            minuteDebits = new SlidingWindowCounter(12, MINUTE_BUCKET_MILLIS);
+            hourDebits = new SlidingWindowCounter(60, HOUR_BUCKET_MILLIS);
+            dailyDebits = new SlidingWindowCounter(96, DAY_BUCKET_MILLIS);
+        }
+        minuteDebits.add(atMillis, amount);
+        hourDebits.add(atMillis, amount);
+        dailyDebits.add(atMillis, amount);
+    }
+
+    private static long orUnlimited(Long limit) {
+        return limit == null ? Long.MAX_VALUE : limit;
+    }
+}
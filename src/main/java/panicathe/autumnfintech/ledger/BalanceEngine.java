@@ -0,0 +1,508 @@
+package panicathe.autumnfintech.ledger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.entity.TransactionType;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌 잔액을 메모리에 두고 입금/출금/송금을 처리하는 원장 엔진.
+ * <p>
+ * 계좌는 계좌번호 해시로 샤드에 나뉘고, 각 샤드는 하나의 락으로 보호된다 (lock striping).
+ * 두 계좌에 걸친 송금은 항상 샤드 번호가 작은 쪽부터 락을 잡으므로 교착 상태가 생기지 않는다.
+ * <p>
+ * 검증과 잔액 변경은 락 안에서, WAL 큐 삽입도 락 안에서 하여 같은 계좌의 기록 순서를 보장한다.
+ * fsync 완료 대기는 락을 놓은 뒤에 하므로 다른 거래가 그룹 커밋에 함께 실릴 수 있고,
+ * 호출자에게는 WAL 이 디스크에 기록된 뒤에만 성공을 반환한다.
+ * <p>
+ * 시작 시 MySQL 의 계좌 잔액(체크포인트 시점)을 읽고, 체크포인트 이후의 WAL 을 다시 적용해 상태를 복원한다.
+ * 1분/1시간/24시간 누적 출금 한도용 카운터와 취소 가능 송금 목록(최근 1시간)도 같은 방식으로 원장에서 다시 채운다.
+ * 엔진은 담당 계좌에 대해 유일한 writer 여야 한다.
+ */
+@Slf4j
+@Component
+public class BalanceEngine {
+
+    private static final String SELECT_ACCOUNTS_SQL =
+            "SELECT a.account_number, u.email, a.balance, a.transaction_limit, a.minute_limit, a.hour_limit, a.daily_limit "
+                    + "FROM account a JOIN user u ON u.id = a.user_id WHERE a.closed = false";
+
+    // 열린 계좌마다 idx_transactions_from_debits 의 (계좌, created_at) 구간만 읽고 테이블 행은 읽지 않는다.
+    private static final String SELECT_RECENT_DEBITS_SQL =
+            "SELECT t.from_account_number, t.amount, t.created_at FROM account a "
+                    + "JOIN transactions t ON t.from_account_number = a.account_number "
+                    + "WHERE a.closed = false AND t.created_at >= ? "
+                    + "AND t.type IN ('WITHDRAW', 'TRANSFER') AND t.status = 'COMPLETED'";
+
+    private static final String SELECT_CANCELLABLE_TRANSFERS_SQL =
+            "SELECT id, from_account_number, to_account_number, amount, created_at FROM transactions "
+                    + "WHERE type = 'TRANSFER' AND status = 'COMPLETED' AND created_at >= ?";
+
+    private static final long DEBIT_WINDOW_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final LedgerPersister ledgerPersister;
+    private final SnowflakeIdGenerator idGenerator;
+    private final WriteAheadLog wal;
+    private final CancellableTransfers cancellable;
+    private final Shard[] shards;
+    private final int shardMask;
+
+    public BalanceEngine(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         LedgerPersister ledgerPersister,
+                         SnowflakeIdGenerator idGenerator,
+                         @Value("${spring.ledger.shards:64}") int shardCount,
+                         @Value("${spring.ledger.wal-dir:data/wal}") String walDir,
+                         @Value("${spring.ledger.wal-segment-bytes:67108864}") long walSegmentBytes,
+                         @Value("${spring.ledger.wal-batch-size:512}") int walBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // replica 라우팅 대상이 되지 않도록 readOnly 로 두지 않는다. 복제 지연이 있는 잔액으로 시작하면 안 된다.
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.ledgerPersister = ledgerPersister;
+        this.idGenerator = idGenerator;
+        this.wal = new WriteAheadLog(Path.of(walDir), walSegmentBytes, walBatchSize);
+
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1; // 2의 거듭제곱으로 올림
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = size - 1;
+        this.cancellable = new CancellableTransfers(size, System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        ledgerPersister.initCheckpoint();
+
+        // 잔액, 최근 출금 내역, 체크포인트를 같은 스냅샷에서 읽는다.
+        long checkpointLsn = snapshotTransaction.execute(status -> {
+            long lsn = ledgerPersister.loadCheckpoint();
+            jdbcTemplate.query(SELECT_ACCOUNTS_SQL, rs -> {
+                register(new AccountState(rs.getString("account_number"), rs.getString("email"), rs.getLong("balance"),
+                        new AccountLimits(rs.getObject("transaction_limit", Long.class), rs.getObject("minute_limit", Long.class),
+                                rs.getObject("hour_limit", Long.class), rs.getObject("daily_limit", Long.class))));
+            });
+            jdbcTemplate.query(SELECT_RECENT_DEBITS_SQL, rs -> {
+                AccountState from = shardOf(rs.getString("from_account_number")).accounts.get(rs.getString("from_account_number"));
+                if (from != null) {
+                    from.recordDebit(rs.getTimestamp("created_at").getTime(), rs.getLong("amount"));
+                }
+            }, new Timestamp(System.currentTimeMillis() - DEBIT_WINDOW_MILLIS));
+            long now = System.currentTimeMillis();
+            jdbcTemplate.query(SELECT_CANCELLABLE_TRANSFERS_SQL, rs -> {
+                cancellable.track(new LedgerRecord(rs.getLong("id"), TransactionType.TRANSFER,
+                        rs.getString("from_account_number"), rs.getString("to_account_number"),
+                        rs.getLong("amount"), rs.getTimestamp("created_at").getTime()), now);
+            }, new Timestamp(now - CancellableTransfers.WINDOW_MILLIS));
+            return lsn;
+        });
+
+        List<WalEntry> pending = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (WalEntry entry : wal.recover()) {
+            if (entry.lsn() > checkpointLsn) {
+                replay(entry.record(), now);
+                pending.add(entry);
+            }
+        }
+
+        ledgerPersister.start(checkpointLsn, pending);
+        wal.start(checkpointLsn, ledgerPersister::enqueue);
+        log.info("Balance engine started: checkpoint lsn={}, replayed {} WAL records", checkpointLsn, pending.size());
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        wal.close();
+    }
+
+    /**
+     * 취소 기간이 지난 송금을 목록에서 뺀다. 조회 시에도 기한을 확인하므로 메모리 정리 용도다.
+     */
+    @Scheduled(fixedDelay = 1_000L)
+    public void expireCancellations() {
+        cancellable.expire(System.currentTimeMillis());
+    }
+
+    /**
+     * DB 반영이 끝난 WAL 세그먼트를 정리한다.
+     */
+    @Scheduled(fixedDelay = 10_000L)
+    public void truncateWal() throws IOException {
+        wal.deleteSegmentsUpTo(ledgerPersister.getPersistedLsn());
+    }
+
+    /**
+     * 새로 만든 계좌를 엔진에 등록한다. DB 에 계좌가 커밋된 뒤 호출해야 한다.
+     */
+    public void open(String accountNumber, String ownerEmail, AccountLimits limits) {
+        register(new AccountState(accountNumber, ownerEmail, 0L, limits));
+    }
+
+    /**
+     * 잔액이 0 인 계좌를 해지한다. 확인과 함께 해지 중으로 표시하므로 이후 이 계좌로의 거래는 모두 거절된다.
+     * DB 트랜잭션 안에서 호출되면 커밋된 뒤에 엔진에서 제거하고, 롤백되면 표시를 되돌린다.
+     */
+    public void close(String ownerEmail, String accountNumber) {
+        Shard shard = shardOf(accountNumber);
+        shard.lock.lock();
+        try {
+            AccountState account = ownedAccount(shard, ownerEmail, accountNumber);
+            if (account.balance != 0) {
+                throw new IllegalArgumentException("Cannot close an account with remaining balance.");
+            }
+            account.closing = true;
+        } finally {
+            shard.lock.unlock();
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            finishClose(accountNumber, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finishClose(accountNumber, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    public long balance(String ownerEmail, String accountNumber) {
+        Shard shard = shardOf(accountNumber);
+        shard.lock.lock();
+        try {
+            return ownedAccount(shard, ownerEmail, accountNumber).balance;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * 한도를 바꾼다. 누적 카운터는 그대로 두므로 새 한도는 이미 출금한 금액을 포함해 적용된다.
+     */
+    public void updateLimits(String accountNumber, AccountLimits limits) {
+        Shard shard = shardOf(accountNumber);
+        shard.lock.lock();
+        try {
+            account(shard, accountNumber).setLimits(limits);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public LedgerReceipt deposit(String ownerEmail, String accountNumber, long amount) {
+        requirePositive(amount);
+        Shard shard = shardOf(accountNumber);
+        CompletableFuture<WalEntry> durable;
+        LedgerReceipt receipt;
+
+        shard.lock.lock();
+        try {
+            AccountState account = ownedAccount(shard, ownerEmail, accountNumber);
+            long balance = credit(account.balance, amount);
+
+            LedgerRecord record = newRecord(TransactionType.DEPOSIT, null, accountNumber, amount, System.currentTimeMillis());
+            durable = wal.append(record);
+            account.balance = balance;
+            receipt = new LedgerReceipt(record.transactionId(), accountNumber, null, amount, balance);
+        } finally {
+            shard.lock.unlock();
+        }
+
+        awaitDurable(durable);
+        return receipt;
+    }
+
+    public LedgerReceipt withdraw(String ownerEmail, String accountNumber, long amount) {
+        requirePositive(amount);
+        Shard shard = shardOf(accountNumber);
+        CompletableFuture<WalEntry> durable;
+        LedgerReceipt receipt;
+
+        shard.lock.lock();
+        try {
+            AccountState account = ownedAccount(shard, ownerEmail, accountNumber);
+            long now = System.currentTimeMillis();
+            checkDebit(account, amount, now);
+
+            LedgerRecord record = newRecord(TransactionType.WITHDRAW, accountNumber, null, amount, now);
+            durable = wal.append(record);
+            account.balance -= amount;
+            account.recordDebit(now, amount);
+            receipt = new LedgerReceipt(record.transactionId(), accountNumber, null, amount, account.balance);
+        } finally {
+            shard.lock.unlock();
+        }
+
+        awaitDurable(durable);
+        return receipt;
+    }
+
+    public LedgerReceipt transfer(String ownerEmail, String fromAccountNumber, String toAccountNumber, long amount) {
+        requirePositive(amount);
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account.");
+        }
+
+        int fromIndex = shardIndex(fromAccountNumber);
+        int toIndex = shardIndex(toAccountNumber);
+        // 항상 작은 샤드 번호부터 락을 잡는다.
+        Shard first = shards[Math.min(fromIndex, toIndex)];
+        Shard second = shards[Math.max(fromIndex, toIndex)];
+        CompletableFuture<WalEntry> durable;
+        LedgerReceipt receipt;
+
+        first.lock.lock();
+        try {
+            if (second != first) {
+                second.lock.lock();
+            }
+            try {
+                AccountState from = ownedAccount(shards[fromIndex], ownerEmail, fromAccountNumber);
+                AccountState to = account(shards[toIndex], toAccountNumber);
+                long now = System.currentTimeMillis();
+                checkDebit(from, amount, now);
+                long toBalance = credit(to.balance, amount);
+
+                LedgerRecord record = newRecord(TransactionType.TRANSFER, fromAccountNumber, toAccountNumber, amount, now);
+                durable = wal.append(record);
+                from.balance -= amount;
+                from.recordDebit(now, amount);
+                to.balance = toBalance;
+                cancellable.track(record, now);
+                receipt = new LedgerReceipt(record.transactionId(), fromAccountNumber, toAccountNumber, amount, from.balance);
+            } finally {
+                if (second != first) {
+                    second.lock.unlock();
+                }
+            }
+        } finally {
+            first.lock.unlock();
+        }
+
+        awaitDurable(durable);
+        return receipt;
+    }
+
+    /**
+     * 1시간 이내의 송금을 취소한다. 받은 계좌에서 보낸 계좌로 같은 금액을 되돌리는 CANCEL 기록을 남긴다.
+     * 기한 판정은 CancellableTransfers.claim 에서 한 번만 하고, 그 결과가 WAL 기록으로 DB 와 재시작 후 상태에 그대로 반영된다.
+     */
+    public LedgerReceipt cancel(String ownerEmail, long transactionId) {
+        CancellableTransfers.Transfer transfer = cancellable.find(transactionId, System.currentTimeMillis());
+        if (transfer == null) {
+            throw new IllegalArgumentException("Transfer cannot be cancelled.");
+        }
+
+        int fromIndex = shardIndex(transfer.fromAccountNumber);
+        int toIndex = shardIndex(transfer.toAccountNumber);
+        Shard first = shards[Math.min(fromIndex, toIndex)];
+        Shard second = shards[Math.max(fromIndex, toIndex)];
+        CompletableFuture<WalEntry> durable;
+        LedgerReceipt receipt;
+
+        first.lock.lock();
+        try {
+            if (second != first) {
+                second.lock.lock();
+            }
+            try {
+                AccountState sender = ownedAccount(shards[fromIndex], ownerEmail, transfer.fromAccountNumber);
+                AccountState recipient = shards[toIndex].accounts.get(transfer.toAccountNumber);
+                if (recipient == null || recipient.closing || recipient.balance < transfer.amount) {
+                    throw new IllegalArgumentException("Recipient account can no longer return the transfer.");
+                }
+                long senderBalance = credit(sender.balance, transfer.amount);
+
+                long now = System.currentTimeMillis();
+                if (!cancellable.claim(transactionId, now)) {
+                    throw new IllegalArgumentException("Transfer cannot be cancelled.");
+                }
+                LedgerRecord record = new LedgerRecord(nextTransactionId(), TransactionType.CANCEL,
+                        transfer.toAccountNumber, transfer.fromAccountNumber, transfer.amount, now, transactionId);
+                durable = wal.append(record);
+                recipient.balance -= transfer.amount;
+                sender.balance = senderBalance;
+                sender.recordDebit(transfer.timestampMillis, -transfer.amount); // 취소된 송금은 누적 한도에서 뺀다.
+                receipt = new LedgerReceipt(record.transactionId(), transfer.fromAccountNumber,
+                        transfer.toAccountNumber, transfer.amount, senderBalance);
+            } finally {
+                if (second != first) {
+                    second.lock.unlock();
+                }
+            }
+        } finally {
+            first.lock.unlock();
+        }
+
+        awaitDurable(durable);
+        return receipt;
+    }
+
+    public long getDurableBacklog() {
+        return wal.getQueueSize();
+    }
+
+    private void checkDebit(AccountState account, long amount, long now) {
+        String exceeded = account.exceededLimit(now, amount);
+        if (exceeded != null) {
+            throw new IllegalArgumentException("Amount exceeds the account's " + exceeded + " limit.");
+        }
+        if (amount > account.balance) {
+            throw new IllegalArgumentException("Insufficient balance.");
+        }
+    }
+
+    private long credit(long balance, long amount) {
+        try {
+            return Math.addExact(balance, amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Balance limit exceeded.");
+        }
+    }
+
+    private LedgerRecord newRecord(TransactionType type, String from, String to, long amount, long now) {
+        return new LedgerRecord(nextTransactionId(), type, from, to, amount, now);
+    }
+
+    private long nextTransactionId() {
+        if (wal.isFailed()) {
+            throw new IllegalStateException("Ledger is unavailable.");
+        }
+        return idGenerator.nextId();
+    }
+
+    /**
+     * WAL 기록이 디스크에 남을 때까지 기다린다. 실패하면 메모리 상태가 앞서 있으므로 엔진은 더 이상 거래를 받지 않고,
+     * 재시작 시 DB + WAL 로 복원된다.
+     */
+    private void awaitDurable(CompletableFuture<WalEntry> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            log.error("Ledger WAL write failed, rejecting further transactions", e.getCause());
+            throw new IllegalStateException("Ledger is unavailable.", e.getCause());
+        }
+    }
+
+    private void replay(LedgerRecord record, long now) {
+        if (record.type() == TransactionType.TRANSFER) {
+            cancellable.track(record, now);
+        } else if (record.type() == TransactionType.CANCEL) {
+            cancellable.remove(record.referenceTransactionId());
+            // 취소된 송금은 보낸 계좌(취소 기록의 입금 계좌)의 누적 한도에서 뺀다. 원거래 시각은 Snowflake ID 에서 얻는다.
+            AccountState sender = shardOf(record.toAccountNumber()).accounts.get(record.toAccountNumber());
+            if (sender != null) {
+                sender.recordDebit(SnowflakeIdGenerator.timestampOf(record.referenceTransactionId()), -record.amount());
+            }
+        }
+
+        if (record.fromAccountNumber() != null) {
+            AccountState from = shardOf(record.fromAccountNumber()).accounts.get(record.fromAccountNumber());
+            if (from != null) {
+                from.balance -= record.amount();
+                if (record.type() != TransactionType.CANCEL) {
+                    from.recordDebit(record.timestampMillis(), record.amount());
+                }
+            }
+        }
+        if (record.toAccountNumber() != null) {
+            AccountState to = shardOf(record.toAccountNumber()).accounts.get(record.toAccountNumber());
+            if (to != null) {
+                to.balance += record.amount();
+            }
+        }
+    }
+
+    private void finishClose(String accountNumber, boolean committed) {
+        Shard shard = shardOf(accountNumber);
+        shard.lock.lock();
+        try {
+            AccountState account = shard.accounts.get(accountNumber);
+            if (account == null || !account.closing) {
+                return;
+            }
+            if (committed) {
+                shard.accounts.remove(accountNumber);
+            } else {
+                account.closing = false;
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private void register(AccountState account) {
+        Shard shard = shardOf(account.accountNumber);
+        shard.lock.lock();
+        try {
+            shard.accounts.put(account.accountNumber, account);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private AccountState account(Shard shard, String accountNumber) {
+        AccountState account = shard.accounts.get(accountNumber);
+        if (account == null || account.closing) {
+            throw new EntityNotFoundException("Account not found");
+        }
+        return account;
+    }
+
+    // 다른 사용자의 계좌는 존재 여부를 드러내지 않도록 없는 계좌와 같게 처리한다.
+    private AccountState ownedAccount(Shard shard, String ownerEmail, String accountNumber) {
+        AccountState account = account(shard, accountNumber);
+        if (!account.ownerEmail.equals(ownerEmail)) {
+            throw new EntityNotFoundException("Account not found");
+        }
+        return account;
+    }
+
+    private void requirePositive(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+    }
+
+    private Shard shardOf(String accountNumber) {
+        return shards[shardIndex(accountNumber)];
+    }
+
+    private int shardIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & shardMask;
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, AccountState> accounts = new HashMap<>();
+    }
+}
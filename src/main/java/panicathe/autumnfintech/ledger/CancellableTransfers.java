@@ -0,0 +1,158 @@
+package panicathe.autumnfintech.ledger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 취소 가능 기간(1시간) 안에 있는 송금 목록.
+ * <p>
+ * 거래 ID 해시로 나눈 스트라이프마다 ID 색인(HashMap)과 만료용 타이밍 휠을 둔다.
+ * 추가/조회/취소는 O(1) 이고, 기간이 지난 송금은 휠이 지나가며 빼내므로 DB 나 전체 목록을 훑지 않는다.
+ * <p>
+ * 락 순서: 엔진은 계좌 샤드 락을 잡은 뒤에 스트라이프 락을 잡는다. 스트라이프 락만 잡고 샤드 락을 잡는 일은 없다.
+ */
+final class CancellableTransfers {
+
+    static final long WINDOW_MILLIS = 60 * 60 * 1000L;
+    private static final long TICK_MILLIS = 1_000L;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    CancellableTransfers(int stripeCount, long nowMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(nowMillis);
+        }
+        this.stripeMask = size - 1;
+    }
+
+    /**
+     * 송금을 취소 가능 목록에 넣는다. 이미 기간이 지났으면 넣지 않는다.
+     */
+    void track(LedgerRecord transfer, long nowMillis) {
+        Transfer entry = new Transfer(transfer);
+        Stripe stripe = stripeOf(transfer.transactionId());
+        stripe.lock.lock();
+        try {
+            stripe.wheel.advance(nowMillis, stripe.onExpire);
+            if (stripe.wheel.add(entry)) {
+                stripe.transfers.put(entry.transactionId, entry);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 아직 취소 가능한 송금을 찾는다. 없거나 기간이 지났으면 null.
+     */
+    Transfer find(long transactionId, long nowMillis) {
+        Stripe stripe = stripeOf(transactionId);
+        stripe.lock.lock();
+        try {
+            stripe.wheel.advance(nowMillis, stripe.onExpire);
+            Transfer entry = stripe.transfers.get(transactionId);
+            return entry != null && nowMillis < entry.deadlineMillis ? entry : null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 취소를 확정한다. nowMillis 가 기한 전이고 아직 목록에 있을 때만 빼내고 true 를 반환한다.
+     * 같은 송금에 대한 취소와 만료는 이 판정 한 번으로 갈리고, 그 결과(취소 기록)가 WAL 을 통해 DB 에 그대로 반영된다.
+     */
+    boolean claim(long transactionId, long nowMillis) {
+        Stripe stripe = stripeOf(transactionId);
+        stripe.lock.lock();
+        try {
+            stripe.wheel.advance(nowMillis, stripe.onExpire);
+            Transfer entry = stripe.transfers.get(transactionId);
+            if (entry == null || nowMillis >= entry.deadlineMillis) {
+                return false;
+            }
+            stripe.transfers.remove(transactionId);
+            stripe.wheel.remove(entry);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * WAL 재적용 시 취소 기록을 반영한다. 목록에 있던 원거래를 반환한다.
+     */
+    Transfer remove(long transactionId) {
+        Stripe stripe = stripeOf(transactionId);
+        stripe.lock.lock();
+        try {
+            Transfer entry = stripe.transfers.remove(transactionId);
+            if (entry != null) {
+                stripe.wheel.remove(entry);
+            }
+            return entry;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void expire(long nowMillis) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.wheel.advance(nowMillis, stripe.onExpire);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.transfers.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(long transactionId) {
+        return stripes[Long.hashCode(transactionId * 0x9E3779B97F4A7C15L) & stripeMask];
+    }
+
+    static final class Transfer extends TimingWheel.Node {
+        final long transactionId;
+        final String fromAccountNumber;
+        final String toAccountNumber;
+        final long amount;
+        final long timestampMillis;
+
+        Transfer(LedgerRecord transfer) {
+            super(transfer.timestampMillis() + WINDOW_MILLIS);
+            this.transactionId = transfer.transactionId();
+            this.fromAccountNumber = transfer.fromAccountNumber();
+            this.toAccountNumber = transfer.toAccountNumber();
+            this.amount = transfer.amount();
+            this.timestampMillis = transfer.timestampMillis();
+        }
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<Long, Transfer> transfers = new HashMap<>();
+        final TimingWheel wheel;
+        final Consumer<TimingWheel.Node> onExpire = node -> transfers.remove(((Transfer) node).transactionId);
+
+        Stripe(long nowMillis) {
+            this.wheel = new TimingWheel(TICK_MILLIS, nowMillis);
+        }
+    }
+}
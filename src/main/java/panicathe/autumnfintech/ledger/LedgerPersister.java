@@ -0,0 +1,247 @@
+package panicathe.autumnfintech.ledger;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.entity.TransactionStatus;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * fsync 가 끝난 WAL 기록을 LSN 순서대로 MySQL 에 반영한다.
+ * 거래 내역 INSERT, 계좌 잔액 UPDATE, 체크포인트 갱신을 한 트랜잭션으로 묶으므로
+ * DB 의 잔액은 항상 "체크포인트 LSN 까지 반영된 상태"이며, 재시작 시 체크포인트 이후 WAL 만 다시 적용하면 된다.
+ * 취소(CANCEL) 기록은 원거래의 상태를 CANCELLED 로 바꾸는 UPDATE 도 같은 트랜잭션에 포함한다.
+ * 외부 소비자용 outbox 이벤트도 같은 트랜잭션에서 기록하므로 거래 내역과 이벤트가 어긋나지 않는다.
+ * 커밋은 됐지만 응답을 받지 못해 실패로 보인 배치를 재시도할 때는, 체크포인트를 잠그고 읽어
+ * 이미 반영된 LSN 을 건너뛴다. 잔액 UPDATE 는 멱등이 아니므로 INSERT 만 무시하는 방식으로는 막을 수 없다.
+ */
+@Slf4j
+@Component
+public class LedgerPersister {
+
+    private static final String INIT_CHECKPOINT_SQL = "INSERT IGNORE INTO ledger_checkpoint (id, lsn) VALUES (1, 0)";
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT lsn FROM ledger_checkpoint WHERE id = 1";
+    private static final String LOCK_CHECKPOINT_SQL = SELECT_CHECKPOINT_SQL + " FOR UPDATE";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE ledger_checkpoint SET lsn = ? WHERE id = 1 AND lsn < ?";
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (id, type, from_account_number, to_account_number, amount, status, "
+                    + "original_transaction_id, lsn, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OUTBOX_EVENT_SQL =
+            "INSERT INTO outbox_event (id, transaction_id, type, from_account_number, to_account_number, amount, "
+                    + "original_transaction_id, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CANCEL_TRANSACTION_SQL =
+            "UPDATE transactions SET status = 'CANCELLED' WHERE id = ? AND status = 'COMPLETED'";
+    private static final String UPDATE_BALANCE_SQL =
+            "UPDATE account SET balance = balance + ?, updated_at = ? WHERE account_number = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BlockingQueue<WalEntry> queue = new LinkedBlockingQueue<>();
+
+    private volatile long persistedLsn;
+    private volatile long durableLsn;
+    private volatile long persistedTimestampMillis;
+    private volatile boolean running;
+    private Thread worker;
+
+    public LedgerPersister(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           @Value("${spring.ledger.persist-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 체크포인트 행을 준비한다. 최초 실행 시 0 으로 생성된다.
+     */
+    public void initCheckpoint() {
+        jdbcTemplate.update(INIT_CHECKPOINT_SQL);
+    }
+
+    /**
+     * 현재 트랜잭션에서 체크포인트 LSN 을 읽는다. 계좌 잔액과 같은 스냅샷에서 읽어야 한다.
+     */
+    public long loadCheckpoint() {
+        Long lsn = jdbcTemplate.queryForObject(SELECT_CHECKPOINT_SQL, Long.class);
+        return lsn == null ? 0L : lsn;
+    }
+
+    /**
+     * 반영 스레드를 시작한다. 복구 과정에서 다시 적용할 WAL 기록이 있으면 먼저 큐에 넣는다.
+     */
+    public void start(long checkpointLsn, List<WalEntry> recovered) {
+        persistedLsn = checkpointLsn;
+        durableLsn = recovered.isEmpty() ? checkpointLsn : recovered.get(recovered.size() - 1).lsn();
+        queue.addAll(recovered);
+
+        running = true;
+        worker = new Thread(this::persistLoop, "ledger-persister");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * WAL writer 스레드에서 호출된다. 큐에 넣기만 하고 바로 반환한다.
+     */
+    public void enqueue(List<WalEntry> entries) {
+        queue.addAll(entries);
+        if (!entries.isEmpty()) {
+            durableLsn = entries.get(entries.size() - 1).lsn();
+        }
+    }
+
+    public long getPersistedLsn() {
+        return persistedLsn;
+    }
+
+    /**
+     * WAL 에 fsync 되어 넘겨받은 마지막 LSN. 큐에 있거나 반영 중인 배치도 포함하므로
+     * getPersistedLsn() 이 이 값에 도달하면 그때까지 기록된 거래는 모두 DB 에 있다.
+     */
+    public long getDurableLsn() {
+        return durableLsn;
+    }
+
+    /**
+     * DB 에 반영된 마지막 기록의 거래 시각. 반영 대기 중인 기록이 없으면 이 시각 이전의 거래는 모두 DB 에 있다.
+     */
+    public long getPersistedTimestampMillis() {
+        return persistedTimestampMillis;
+    }
+
+    private void persistLoop() {
+        List<WalEntry> batch = new ArrayList<>(batchSize);
+        long backoffMillis = 100;
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    WalEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+
+                persist(batch);
+                WalEntry last = batch.get(batch.size() - 1);
+                persistedLsn = last.lsn();
+                persistedTimestampMillis = last.record().timestampMillis();
+                batch.clear();
+                backoffMillis = 100;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // 순서를 지켜야 하므로 같은 배치를 성공할 때까지 재시도한다. WAL 에 남아 있으므로 유실되지 않으며,
+                // 실제로는 커밋된 배치였다면 다음 시도에서 체크포인트를 보고 건너뛴다.
+                log.error("Failed to persist ledger batch up to lsn {}, retrying in {} ms",
+                        batch.get(batch.size() - 1).lsn(), backoffMillis, e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, 10_000);
+            }
+        }
+    }
+
+    private void persist(List<WalEntry> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // 체크포인트 행을 잠가 두고, 이전 시도에서 이미 커밋된 기록은 다시 적용하지 않는다.
+            Long checkpoint = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, Long.class);
+            long appliedLsn = checkpoint == null ? 0L : checkpoint;
+            List<WalEntry> pending = batch.stream().filter(entry -> entry.lsn() > appliedLsn).toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (pending.size() < batch.size()) {
+                log.warn("Skipping ledger records up to lsn {} that were already persisted", appliedLsn);
+            }
+            apply(pending);
+        });
+    }
+
+    private void apply(List<WalEntry> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> transactions = new ArrayList<>(batch.size());
+        // 계좌번호 순으로 정렬해 UPDATE 의 행 잠금 순서를 고정한다.
+        Map<String, Long> deltas = new TreeMap<>();
+        List<Object[]> cancellations = new ArrayList<>();
+        List<Object[]> events = new ArrayList<>(batch.size());
+
+        for (WalEntry entry : batch) {
+            LedgerRecord record = entry.record();
+            transactions.add(new Object[]{
+                    record.transactionId(),
+                    record.type().name(),
+                    record.fromAccountNumber(),
+                    record.toAccountNumber(),
+                    record.amount(),
+                    TransactionStatus.COMPLETED.name(),
+                    record.type() == TransactionType.CANCEL ? record.referenceTransactionId() : null,
+                    entry.lsn(),
+                    new Timestamp(record.timestampMillis())
+            });
+            events.add(new Object[]{
+                    entry.lsn(),
+                    record.transactionId(),
+                    record.type().name(),
+                    record.fromAccountNumber(),
+                    record.toAccountNumber(),
+                    record.amount(),
+                    record.type() == TransactionType.CANCEL ? record.referenceTransactionId() : null,
+                    new Timestamp(record.timestampMillis())
+            });
+            if (record.type() == TransactionType.CANCEL) {
+                cancellations.add(new Object[]{record.referenceTransactionId()});
+            }
+            if (record.fromAccountNumber() != null) {
+                deltas.merge(record.fromAccountNumber(), -record.amount(), Long::sum);
+            }
+            if (record.toAccountNumber() != null) {
+                deltas.merge(record.toAccountNumber(), record.amount(), Long::sum);
+            }
+        }
+
+        List<Object[]> balances = new ArrayList<>(deltas.size());
+        deltas.forEach((accountNumber, delta) -> balances.add(new Object[]{delta, now, accountNumber}));
+        long lastLsn = batch.get(batch.size() - 1).lsn();
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions);
+        if (!cancellations.isEmpty()) {
+            jdbcTemplate.batchUpdate(CANCEL_TRANSACTION_SQL, cancellations);
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, balances);
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_EVENT_SQL, events);
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, lastLsn, lastLsn);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
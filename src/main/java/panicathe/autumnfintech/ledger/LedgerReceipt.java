@@ -0,0 +1,14 @@
+package panicathe.autumnfintech.ledger;
+
+/**
+ * 엔진이 거래를 WAL 에 기록한 뒤 돌려주는 결과.
+ *
+ * @param transactionId             거래 ID
+ * @param accountNumber             잔액 기준 계좌 (출금/송금은 출금 계좌, 입금은 입금 계좌, 취소는 원래 보낸 계좌)
+ * @param counterpartyAccountNumber 상대 계좌 (송금은 받는 계좌, 취소는 원래 받은 계좌, 입금/출금은 null)
+ * @param amount                    거래 금액
+ * @param balance                   거래 직후 기준 계좌 잔액
+ */
+public record LedgerReceipt(long transactionId, String accountNumber, String counterpartyAccountNumber, long amount,
+                            long balance) {
+}
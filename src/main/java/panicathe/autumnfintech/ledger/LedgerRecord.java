@@ -0,0 +1,23 @@
+package panicathe.autumnfintech.ledger;
+
+import panicathe.autumnfintech.entity.TransactionType;
+
+/**
+ * WAL 에 기록되는 거래 한 건.
+ *
+ * @param transactionId          Snowflake 거래 ID
+ * @param type                   거래 종류
+ * @param fromAccountNumber      출금 계좌 (없으면 null)
+ * @param toAccountNumber        입금 계좌 (없으면 null)
+ * @param amount                 금액 (원)
+ * @param timestampMillis        거래 시각 (epoch millis)
+ * @param referenceTransactionId 취소 기록이면 취소된 원거래 ID, 아니면 0
+ */
+public record LedgerRecord(long transactionId, TransactionType type, String fromAccountNumber,
+                           String toAccountNumber, long amount, long timestampMillis, long referenceTransactionId) {
+
+    public LedgerRecord(long transactionId, TransactionType type, String fromAccountNumber,
+                        String toAccountNumber, long amount, long timestampMillis) {
+        this(transactionId, type, fromAccountNumber, toAccountNumber, amount, timestampMillis, 0L);
+    }
+}
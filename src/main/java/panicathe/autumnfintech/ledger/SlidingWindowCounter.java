@@ -0,0 +1,59 @@
+package panicathe.autumnfintech.ledger;
+
+import java.util.Arrays;
+
+/**
+ * 고정 크기 버킷을 원형 배열로 돌려 쓰는 슬라이딩 윈도우 합계.
+ * <p>
+ * 윈도우는 현재 버킷과 직전 (bucketCount - 1) 개 버킷을 합한 구간이다.
+ * 합계(total)를 따로 유지하고 시간이 지나 밀려난 버킷만 빼 주므로, 조회와 누적은 상환 O(1) 이고 객체를 만들지 않는다.
+ * 동기화는 하지 않는다. 엔진은 계좌가 속한 샤드의 락을 잡은 상태에서만 호출한다.
+ */
+final class SlidingWindowCounter {
+
+    private final long[] buckets;
+    private final long bucketMillis;
+    private long head; // 마지막으로 본 버킷 번호 (epochMillis / bucketMillis)
+    private long total;
+
+    SlidingWindowCounter(int bucketCount, long bucketMillis) {
+        this.buckets = new long[bucketCount];
+        this.bucketMillis = bucketMillis;
+    }
+
+    long sum(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        return total;
+    }
+
+    /**
+     * atMillis 시점의 금액을 더한다. 재적재 시처럼 이미 지난 시점도 윈도우 안이면 해당 버킷에 반영한다.
+     */
+    void add(long atMillis, long amount) {
+        long bucket = atMillis / bucketMillis;
+        if (bucket > head) {
+            advance(bucket);
+        } else if (bucket <= head - buckets.length) {
+            return; // 이미 윈도우 밖
+        }
+        buckets[(int) (bucket % buckets.length)] += amount;
+        total += amount;
+    }
+
+    private void advance(long bucket) {
+        if (bucket <= head) {
+            return;
+        }
+        if (bucket - head >= buckets.length) {
+            Arrays.fill(buckets, 0L);
+            total = 0L;
+        } else {
+            for (long b = head + 1; b <= bucket; b++) {
+                int index = (int) (b % buckets.length);
+                total -= buckets[index];
+                buckets[index] = 0L;
+            }
+        }
+        head = bucket;
+    }
+}
@@ -0,0 +1,138 @@
+package panicathe.autumnfintech.ledger;
+
+import java.util.function.Consumer;
+
+/**
+ * 2단 계층형 타이밍 휠.
+ * <p>
+ * 0단은 tick 하나짜리 슬롯 64개, 1단은 64 tick 짜리 슬롯 64개로 최대 4096 tick 앞까지 담는다.
+ * 만료 시각이 가까운 항목은 0단에, 먼 항목은 1단에 넣고, 시간이 1단 슬롯 경계를 지날 때 해당 슬롯을 0단으로 내린다(cascade).
+ * 슬롯은 이중 연결 리스트이므로 추가/삭제가 O(1) 이고, 만료 처리는 지나간 슬롯만 보므로 전체를 훑지 않는다.
+ * 동기화는 하지 않는다.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    static final long MAX_TICKS = (long) SLOTS * SLOTS;
+
+    private final long tickMillis;
+    private final Node[] level0 = new Node[SLOTS];
+    private final Node[] level1 = new Node[SLOTS];
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * 노드를 넣는다. 이미 만료 시각이 지났으면 넣지 않고 false 를 반환한다.
+     */
+    boolean add(Node node) {
+        // 올림으로 tick 을 잡아 만료 시각 전에 먼저 빠지는 일이 없게 한다.
+        long tick = (node.deadlineMillis + tickMillis - 1) / tickMillis;
+        long delta = tick - currentTick;
+        if (delta <= 0) {
+            return false;
+        }
+        if (delta >= MAX_TICKS) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel range.");
+        }
+        if (delta < SLOTS) {
+            link(level0, (int) (tick & MASK), node);
+        } else {
+            link(level1, (int) ((tick >>> SLOT_BITS) & MASK), node);
+        }
+        return true;
+    }
+
+    void remove(Node node) {
+        if (node.slots == null) {
+            return;
+        }
+        if (node.prev == null) {
+            node.slots[node.slot] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.slots = null;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * nowMillis 까지 시간을 진행하며 만료된 노드를 빼서 넘겨준다.
+     */
+    void advance(long nowMillis, Consumer<Node> expired) {
+        long target = nowMillis / tickMillis;
+        if (target - currentTick >= MAX_TICKS) {
+            // 휠 전체 범위보다 오래 멈춰 있었으면 남은 항목은 모두 만료
+            for (int i = 0; i < SLOTS; i++) {
+                drain(level0, i, expired);
+                drain(level1, i, expired);
+            }
+            currentTick = target;
+            return;
+        }
+        while (currentTick < target) {
+            currentTick++;
+            if ((currentTick & MASK) == 0) {
+                Node node = level1[(int) ((currentTick >>> SLOT_BITS) & MASK)];
+                level1[(int) ((currentTick >>> SLOT_BITS) & MASK)] = null;
+                while (node != null) {
+                    Node next = node.next;
+                    node.slots = null;
+                    node.prev = null;
+                    node.next = null;
+                    if (!add(node)) {
+                        expired.accept(node);
+                    }
+                    node = next;
+                }
+            }
+            drain(level0, (int) (currentTick & MASK), expired);
+        }
+    }
+
+    private void drain(Node[] slots, int slot, Consumer<Node> expired) {
+        Node node = slots[slot];
+        slots[slot] = null;
+        while (node != null) {
+            Node next = node.next;
+            node.slots = null;
+            node.prev = null;
+            node.next = null;
+            expired.accept(node);
+            node = next;
+        }
+    }
+
+    private void link(Node[] slots, int slot, Node node) {
+        Node head = slots[slot];
+        node.slots = slots;
+        node.slot = slot;
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        slots[slot] = node;
+    }
+
+    static class Node {
+        final long deadlineMillis;
+        private Node[] slots;
+        private int slot;
+        private Node prev;
+        private Node next;
+
+        Node(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package panicathe.autumnfintech.ledger;
+
+/**
+ * 디스크에 기록이 끝난 WAL 항목.
+ *
+ * @param lsn    WAL 순번 (1부터 단조 증가)
+ * @param record 거래 내용
+ */
+public record WalEntry(long lsn, LedgerRecord record) {
+}
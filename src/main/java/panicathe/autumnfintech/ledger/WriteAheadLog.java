@@ -0,0 +1,367 @@
+package panicathe.autumnfintech.ledger;
+
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 그룹 커밋 방식의 원장 WAL(write-ahead log).
+ * <p>
+ * 호출자는 append 로 기록을 큐에 넣고 반환된 future 를 기다린다. 단일 writer 스레드가 큐에 쌓인 기록을 한 번에 모아
+ * 파일에 쓰고 fsync 를 한 번만 수행하므로, 동시 요청이 많을수록 fsync 비용이 여러 거래에 나뉜다.
+ * LSN 은 큐에 들어온 순서대로 writer 가 부여한다.
+ * <p>
+ * 파일 형식: 세그먼트 파일(wal-{첫 LSN}.log)은 헤더로 시작하고 그 뒤에 고정 길이 레코드를 이어 쓴다.
+ * <pre>
+ * 헤더:   | int magic ("AWAL") | int version |
+ * 레코드: | int length | int crc32c | long lsn | long txId | byte type | long from | long to | long amount | long timestamp | long refTxId |
+ * </pre>
+ * 헤더가 없거나 알 수 없는 버전의 세그먼트가 있으면 잘라내지 않고 시작을 거부한다.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    static final int MAGIC = 0x4157414C; // "AWAL"
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 4 + 4;
+    static final int PAYLOAD_SIZE = 8 + 8 + 1 + 8 + 8 + 8 + 8 + 8;
+    static final int RECORD_SIZE = 4 + 4 + PAYLOAD_SIZE;
+
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxBatch;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+
+    private Consumer<List<WalEntry>> durableListener;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile IOException failure;
+
+    // writer 스레드 전용
+    private FileChannel channel;
+    private long nextLsn = 1;
+    private volatile long activeSegmentFirstLsn;
+    private ByteBuffer buffer;
+
+    public WriteAheadLog(Path directory, long segmentBytes, int maxBatch) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * 모든 세그먼트를 순서대로 읽어 유효한 기록을 반환한다.
+     * 마지막 세그먼트 끝의 잘린/손상된 기록(쓰기 도중 종료)은 잘라낸다.
+     *
+     * @throws IOException 중간 세그먼트가 손상되었거나 지원하지 않는 형식인 경우
+     */
+    public List<WalEntry> recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        List<WalEntry> entries = new ArrayList<>();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path segment = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            try (FileChannel file = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                checkHeader(file, segment, last);
+                long position = Math.min(SEGMENT_HEADER_SIZE, file.size());
+                long size = file.size();
+                while (position + RECORD_SIZE <= size) {
+                    record.clear();
+                    while (record.hasRemaining() && file.read(record, position + record.position()) > 0) {
+                        // 레코드 한 개를 끝까지 읽는다.
+                    }
+                    record.flip();
+                    WalEntry entry = decode(record, crc);
+                    if (entry == null) {
+                        break;
+                    }
+                    entries.add(entry);
+                    position += RECORD_SIZE;
+                }
+                if (position < size) {
+                    if (!last) {
+                        throw new IOException("Corrupted WAL segment: " + segment + " at " + position);
+                    }
+                    file.truncate(position);
+                    file.force(true);
+                }
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            nextLsn = entries.get(entries.size() - 1).lsn() + 1;
+        }
+        return entries;
+    }
+
+    /**
+     * writer 스레드를 시작한다. 다음 LSN 은 복구된 마지막 LSN 과 DB 체크포인트 중 큰 값 다음부터 이어진다.
+     *
+     * @param checkpointLsn   DB 에 반영이 끝난 마지막 LSN
+     * @param durableListener fsync 가 끝난 기록 묶음을 LSN 순서대로 받는 콜백 (writer 스레드에서 호출)
+     */
+    public void start(long checkpointLsn, Consumer<List<WalEntry>> durableListener) throws IOException {
+        this.durableListener = durableListener;
+        this.nextLsn = Math.max(nextLsn, checkpointLsn + 1);
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * maxBatch);
+        openSegment(nextLsn, true);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "ledger-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 기록을 큐에 넣는다. 반환된 future 는 fsync 가 끝나면 완료된다.
+     * 같은 계좌에 대한 기록의 순서를 보장하려면 계좌 락을 잡은 상태에서 호출해야 한다.
+     */
+    public CompletableFuture<WalEntry> append(LedgerRecord record) {
+        CompletableFuture<WalEntry> future = new CompletableFuture<>();
+        IOException error = failure;
+        if (error != null || !running) {
+            future.completeExceptionally(error != null ? error : new IOException("WAL is not running"));
+            return future;
+        }
+        queue.add(new PendingAppend(record, future));
+        return future;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 마지막 LSN 이 주어진 LSN 이하인 세그먼트(현재 쓰고 있는 세그먼트 제외)를 삭제한다.
+     */
+    public void deleteSegmentsUpTo(long lsn) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long firstLsn = firstLsnOf(segments.get(i));
+            long nextFirstLsn = firstLsnOf(segments.get(i + 1));
+            if (firstLsn >= activeSegmentFirstLsn || nextFirstLsn - 1 > lsn) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                if (failure != null) {
+                    batch.forEach(pending -> pending.future().completeExceptionally(failure));
+                } else {
+                    writeBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        List<WalEntry> entries = new ArrayList<>(batch.size());
+        try {
+            long batchBytes = (long) RECORD_SIZE * batch.size();
+            if (channel.size() > SEGMENT_HEADER_SIZE && channel.size() + batchBytes > segmentBytes) {
+                channel.force(false);
+                channel.close();
+                openSegment(nextLsn, false);
+            }
+
+            buffer.clear();
+            for (PendingAppend pending : batch) {
+                WalEntry entry = new WalEntry(nextLsn++, pending.record());
+                encode(entry, buffer);
+                entries.add(entry);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false); // 그룹 커밋: 배치당 fsync 1회
+        } catch (IOException e) {
+            // 디스크 기록에 실패하면 이후 모든 기록을 거절한다. (fail-stop)
+            failure = e;
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            return;
+        }
+
+        durableListener.accept(entries);
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(entries.get(i));
+        }
+    }
+
+    private void openSegment(long firstLsn, boolean reuseLast) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstLsn, SUFFIX));
+        List<Path> segments = segments();
+        if (reuseLast && !segments.isEmpty()
+                && Files.size(segments.get(segments.size() - 1)) < segmentBytes) {
+            path = segments.get(segments.size() - 1); // 재시작 시 마지막 세그먼트에 이어서 기록
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+        channel.position(channel.size());
+        activeSegmentFirstLsn = firstLsnOf(path);
+    }
+
+    /**
+     * 세그먼트 헤더를 확인한다.
+     * 마지막 세그먼트가 헤더를 다 쓰기 전에 끝났으면 비운다. (openSegment 가 헤더를 다시 쓴다)
+     */
+    private static void checkHeader(FileChannel file, Path segment, boolean last) throws IOException {
+        long size = file.size();
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        while (header.hasRemaining() && file.read(header, header.position()) > 0) {
+            // 헤더를 끝까지 읽는다.
+        }
+        header.flip();
+        int first = header.remaining() >= 4 ? header.getInt(0) : 0;
+        if (first == MAGIC && header.remaining() == SEGMENT_HEADER_SIZE) {
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported WAL format version " + version + " in " + segment
+                        + " (this build reads version " + VERSION + ")");
+            }
+            return;
+        }
+        if (last && size < SEGMENT_HEADER_SIZE && (first == MAGIC || size < 4)) {
+            file.truncate(0);
+            file.force(true);
+            return;
+        }
+        throw new IOException("Unrecognized WAL segment format: " + segment);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static void encode(WalEntry entry, ByteBuffer target) {
+        LedgerRecord record = entry.record();
+        int start = target.position();
+        target.putInt(PAYLOAD_SIZE);
+        target.putInt(0); // crc 자리
+        target.putLong(entry.lsn());
+        target.putLong(record.transactionId());
+        target.put((byte) record.type().ordinal());
+        target.putLong(toLong(record.fromAccountNumber()));
+        target.putLong(toLong(record.toAccountNumber()));
+        target.putLong(record.amount());
+        target.putLong(record.timestampMillis());
+        target.putLong(record.referenceTransactionId());
+
+        CRC32C crc = new CRC32C();
+        crc.update(target.duplicate().position(start + 8).limit(start + RECORD_SIZE));
+        target.putInt(start + 4, (int) crc.getValue());
+    }
+
+    static WalEntry decode(ByteBuffer source, CRC32C crc) {
+        int length = source.getInt(0);
+        int checksum = source.getInt(4);
+        if (length != PAYLOAD_SIZE) {
+            return null;
+        }
+        crc.reset();
+        crc.update(source.duplicate().position(8).limit(RECORD_SIZE));
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        source.position(8);
+        long lsn = source.getLong();
+        long transactionId = source.getLong();
+        int type = source.get();
+        String from = toAccountNumber(source.getLong());
+        String to = toAccountNumber(source.getLong());
+        long amount = source.getLong();
+        long timestamp = source.getLong();
+        long referenceTransactionId = source.getLong();
+        if (type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        return new WalEntry(lsn, new LedgerRecord(transactionId, TYPES[type], from, to, amount, timestamp, referenceTransactionId));
+    }
+
+    // 계좌번호는 12자리 숫자이므로 long 으로 저장한다. (0 = 없음)
+    private static long toLong(String accountNumber) {
+        return accountNumber == null ? 0L : Long.parseLong(accountNumber);
+    }
+
+    private static String toAccountNumber(long value) {
+        return value == 0L ? null : Long.toString(value);
+    }
+
+    private record PendingAppend(LedgerRecord record, CompletableFuture<WalEntry> future) {
+    }
+}
@@ -0,0 +1,78 @@
+package panicathe.autumnfintech.lookup;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 존재하는 계좌번호의 Bloom filter.
+ * mightContain 이 false 이면 그 번호의 계좌는 확실히 없으므로 DB 를 조회하지 않고 바로 응답할 수 있다.
+ * 비트 배열은 AtomicLongArray 이므로 add 와 mightContain 을 락 없이 동시에 호출할 수 있다.
+ * 삭제는 지원하지 않는다. 해지된 계좌는 오탐(false positive)으로 남아 캐시/DB 에서 걸러진다.
+ */
+public final class AccountNumberBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     * @param expectedInsertions 예상 계좌 수
+     * @param falsePositiveRate  목표 오탐률 (예: 0.01)
+     */
+    public AccountNumberBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(String accountNumber) {
+        long value = Long.parseLong(accountNumber);
+        long h1 = mix(value);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String accountNumber) {
+        long value = Long.parseLong(accountNumber);
+        long h1 = mix(value);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 넣은 건수 기준 예상 오탐률. 예상 계좌 수를 넘어서면 커지므로 설정값 조정의 근거로 쓴다.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.sum() / bitCount), hashCount);
+    }
+
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
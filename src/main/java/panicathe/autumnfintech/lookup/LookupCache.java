@@ -0,0 +1,158 @@
+package panicathe.autumnfintech.lookup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 크기 제한 LRU 캐시. 키 해시로 나눈 세그먼트마다 접근 순서 LinkedHashMap 과 락을 두어 경합을 줄인다.
+ * 세그먼트가 가득 차면 가장 오래 접근하지 않은 항목을 버린다. 항목마다 만료 시각을 둘 수 있다.
+ * <p>
+ * 세그먼트마다 무효화 세대(generation)를 두어, 원본을 읽기 전에 받은 세대가 그대로일 때만 값을 넣을 수 있다.
+ * 원본을 읽는 사이에 invalidate 가 지나가면 읽은 값이 이미 낡았을 수 있으므로 캐시하지 않는다.
+ * 세대는 세그먼트 단위라 같은 세그먼트의 다른 키가 무효화되어도 한 번 캐시를 건너뛸 뿐 결과는 틀리지 않는다.
+ */
+public final class LookupCache<V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public LookupCache(int maxSize) {
+        int segmentCapacity = Math.max(1, maxSize / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentCapacity, evictions);
+        }
+    }
+
+    /**
+     * 캐시된 값을 반환한다. 없거나 만료되었으면 null.
+     */
+    public V get(String key, long nowMillis) {
+        Segment<V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.entries.get(key);
+            if (entry == null || entry.expiresAtMillis() <= nowMillis) {
+                if (entry != null) {
+                    segment.entries.remove(key);
+                }
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void put(String key, V value, long expiresAtMillis) {
+        Segment<V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            segment.entries.put(key, new Entry<>(value, expiresAtMillis));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * key 의 현재 무효화 세대. 원본을 읽기 전에 받아 두었다가 putIfNotInvalidated 에 넘긴다.
+     */
+    public long generation(String key) {
+        Segment<V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            return segment.generation;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * generation 을 받은 뒤로 무효화가 없었을 때만 값을 넣는다. 넣었으면 true.
+     */
+    public boolean putIfNotInvalidated(String key, V value, long expiresAtMillis, long generation) {
+        Segment<V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            if (segment.generation != generation) {
+                return false;
+            }
+            segment.entries.put(key, new Entry<>(value, expiresAtMillis));
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(String key) {
+        Segment<V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key);
+            segment.generation++;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment<V> segmentOf(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+    }
+
+    private static final class Segment<V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Entry<V>> entries;
+        long generation; // lock 안에서만 접근한다.
+
+        Segment(int capacity, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package panicathe.autumnfintech.metrics;
+
+import org.springframework.stereotype.Component;
+import panicathe.autumnfintech.dto.metrics.LatencyStatsDto;
+import panicathe.autumnfintech.dto.metrics.MetricsSnapshotDto;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이름별 지연 시간 히스토그램과 예외 종류별 카운터 모음.
+ * <p>
+ * 호출 경로에서는 히스토그램을 필드에 미리 받아 두거나(histogram), 처음 한 번만 만들어지는 키로 조회하므로
+ * 기록할 때 문자열 조합이나 객체 할당이 없다. 모든 값은 프로세스 시작 이후 누적값이다.
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> exceptionCounts = new ConcurrentHashMap<>();
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    public void countException(Throwable exception) {
+        exceptionCounts.computeIfAbsent(exception.getClass(), key -> new LongAdder()).increment();
+    }
+
+    public MetricsSnapshotDto snapshot() {
+        Map<String, LatencyStatsDto> latencies = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            if (snapshot.count() > 0) {
+                latencies.put(name, new LatencyStatsDto(
+                        snapshot.count(),
+                        snapshot.meanNanos() / NANOS_PER_MICRO,
+                        snapshot.valueAtQuantile(0.50) / NANOS_PER_MICRO,
+                        snapshot.valueAtQuantile(0.99) / NANOS_PER_MICRO,
+                        snapshot.valueAtQuantile(0.999) / NANOS_PER_MICRO,
+                        snapshot.maxNanos() / NANOS_PER_MICRO));
+            }
+        });
+
+        Map<String, Long> exceptions = new TreeMap<>();
+        exceptionCounts.forEach((type, count) -> exceptions.put(type.getName(), count.sum()));
+        return new MetricsSnapshotDto(latencies, exceptions);
+    }
+}
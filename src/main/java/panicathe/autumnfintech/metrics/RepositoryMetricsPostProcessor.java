@@ -0,0 +1,59 @@
+package panicathe.autumnfintech.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 Spring Data 저장소 프록시에 호출 시간 측정 advice 를 추가한다. 히스토그램 이름은 repository.{저장소}.{메소드} 이다.
+ * 저장소 프록시 자체에 advice 를 넣으므로(RepositoryProxyPostProcessor) 프록시가 한 겹 더 생기지 않는다.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    // BeanPostProcessor 는 다른 빈보다 먼저 만들어지므로 레지스트리는 처음 사용할 때 가져온다.
+    private final ObjectProvider<MetricsRegistry> metricsRegistry;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MetricsRegistry> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                            new TimingInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private final class TimingInterceptor implements MethodInterceptor {
+
+        private final String repositoryName;
+        private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+        TimingInterceptor(String repositoryName) {
+            this.repositoryName = repositoryName;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                histograms.computeIfAbsent(invocation.getMethod(),
+                        method -> metricsRegistry.getObject().histogram("repository." + repositoryName + "." + method.getName()))
+                        .recordSince(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package panicathe.autumnfintech.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 컨트롤러 엔드포인트별 요청 처리 시간(보안 필터 포함)을 기록한다. 히스토그램 이름은 http.{컨트롤러}.{메소드} 이다.
+ * 컨트롤러까지 가지 못한 요청(인증 실패, 요청 한도 초과, 404 등)은 http.unmapped 에 기록한다.
+ * 보안 필터 체인보다 먼저 실행되도록 가장 높은 우선순위로 등록한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MetricsRegistry metricsRegistry;
+    private final LatencyHistogram unmapped;
+    private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public RequestMetricsFilter(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        this.unmapped = metricsRegistry.histogram("http.unmapped");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            histogramOf(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)).recordSince(start);
+        }
+    }
+
+    private LatencyHistogram histogramOf(Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return unmapped;
+        }
+        return histograms.computeIfAbsent(handlerMethod.getMethod(), method -> metricsRegistry.histogram(
+                "http." + method.getDeclaringClass().getSimpleName() + "." + method.getName()));
+    }
+}
@@ -0,0 +1,21 @@
+package panicathe.autumnfintech.outbox;
+
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * sink 에 전달되는 원장 이벤트.
+ *
+ * @param eventId               outbox 이벤트 ID (WAL 순번). 전달은 at-least-once 이므로 소비자는 이 값으로 중복을 거른다.
+ * @param transactionId         거래 ID
+ * @param type                  거래 종류
+ * @param fromAccountNumber     출금 계좌 (없으면 null)
+ * @param toAccountNumber       입금 계좌 (없으면 null)
+ * @param amount                금액 (원)
+ * @param originalTransactionId 취소 거래이면 원거래 ID, 아니면 null
+ * @param occurredAt            거래 시각
+ */
+public record LedgerEvent(long eventId, long transactionId, TransactionType type, String fromAccountNumber,
+                          String toAccountNumber, long amount, Long originalTransactionId, LocalDateTime occurredAt) {
+}
@@ -0,0 +1,190 @@
+package panicathe.autumnfintech.outbox;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * outbox 테이블의 이벤트를 등록된 sink 에 배치로 전달한다.
+ * <p>
+ * sink 마다 outbox_sink_offset 행을 두고, 한 배치를 다음 순서로 처리한다.
+ * offset 행을 FOR UPDATE SKIP LOCKED 로 잠그고(다른 인스턴스가 같은 sink 를 처리 중이면 건너뜀),
+ * offset 이후의 이벤트를 batchSize 만큼 읽어 전달한 뒤 offset 을 갱신하고 커밋한다.
+ * 전달이 실패하면 트랜잭션을 롤백하고 해당 sink 만 지수 백오프 후 같은 위치부터 재시도한다. (at-least-once)
+ * 한 번의 실행에서는 sink 마다 최대 maxBatchesPerRun 배치만 전달해, 밀린 이벤트가 많아도 스케줄러 스레드를 오래 잡지 않는다.
+ * <p>
+ * 모든 sink 가 전달을 마친 이벤트는 주기적으로 삭제한다.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final String INIT_OFFSET_SQL =
+            "INSERT IGNORE INTO outbox_sink_offset (sink_name, last_event_id) VALUES (?, 0)";
+    private static final String LOCK_OFFSET_SQL =
+            "SELECT last_event_id FROM outbox_sink_offset WHERE sink_name = ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_EVENTS_SQL =
+            "SELECT id, transaction_id, type, from_account_number, to_account_number, amount, original_transaction_id, occurred_at "
+                    + "FROM outbox_event WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_OFFSET_SQL =
+            "UPDATE outbox_sink_offset SET last_event_id = ? WHERE sink_name = ?";
+    private static final String SELECT_OFFSET_SQL = "SELECT last_event_id FROM outbox_sink_offset WHERE sink_name = ?";
+    private static final String SELECT_MIN_EVENT_ID_SQL = "SELECT MIN(id) FROM outbox_event";
+    private static final String SELECT_MAX_EVENT_ID_SQL = "SELECT MAX(id) FROM outbox_event";
+    private static final String DELETE_EVENTS_SQL = "DELETE FROM outbox_event WHERE id >= ? AND id <= ?";
+
+    private static final int PURGE_CHUNK = 10_000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000L;
+
+    private static final RowMapper<LedgerEvent> EVENT_MAPPER = (rs, rowNum) -> new LedgerEvent(
+            rs.getLong("id"),
+            rs.getLong("transaction_id"),
+            TransactionType.valueOf(rs.getString("type")),
+            rs.getString("from_account_number"),
+            rs.getString("to_account_number"),
+            rs.getLong("amount"),
+            rs.getObject("original_transaction_id", Long.class),
+            rs.getTimestamp("occurred_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, SinkState> sinks = new LinkedHashMap<>();
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retryBackoffMillis;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            List<OutboxSink> sinks,
+                            @Value("${spring.outbox.batch-size:1000}") int batchSize,
+                            @Value("${spring.outbox.max-batches-per-run:10}") int maxBatchesPerRun,
+                            @Value("${spring.outbox.retry-backoff-ms:1000}") long retryBackoffMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retryBackoffMillis = retryBackoffMillis;
+
+        Set<String> names = new HashSet<>();
+        for (OutboxSink sink : sinks) {
+            if (!names.add(sink.name())) {
+                throw new IllegalStateException("Duplicate outbox sink name: " + sink.name());
+            }
+            this.sinks.put(sink.name(), new SinkState(sink));
+        }
+    }
+
+    @PostConstruct
+    public void initOffsets() {
+        sinks.keySet().forEach(name -> jdbcTemplate.update(INIT_OFFSET_SQL, name));
+        log.info("Outbox dispatcher started with sinks {}", sinks.keySet());
+    }
+
+    /**
+     * 각 sink 에 대해 밀린 이벤트가 없거나 maxBatchesPerRun 배치를 채울 때까지 전달한다.
+     * 남은 이벤트는 다음 실행에서 이어서 처리한다.
+     */
+    @Scheduled(fixedDelayString = "${spring.outbox.poll-ms:200}")
+    public void dispatch() {
+        long now = System.currentTimeMillis();
+        for (SinkState state : sinks.values()) {
+            if (now < state.nextAttemptAt) {
+                continue;
+            }
+            try {
+                int batches = 0;
+                while (dispatchBatch(state.sink) == batchSize && ++batches < maxBatchesPerRun) {
+                    // 꽉 찬 배치였으면 더 남아 있을 수 있으므로 한도 안에서 바로 이어서 처리한다.
+                }
+                state.failures = 0;
+                state.nextAttemptAt = 0;
+            } catch (RuntimeException e) {
+                state.failures++;
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, retryBackoffMillis << Math.min(state.failures - 1, 16));
+                state.nextAttemptAt = now + backoff;
+                log.warn("Outbox sink '{}' failed {} time(s), retrying in {} ms", state.sink.name(), state.failures, backoff, e);
+            }
+        }
+    }
+
+    /**
+     * 모든 sink 가 전달을 마친 이벤트를 id 구간 단위로 나누어 삭제한다.
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void purgeDelivered() {
+        Long first = jdbcTemplate.queryForObject(SELECT_MIN_EVENT_ID_SQL, Long.class);
+        if (first == null) {
+            return;
+        }
+        long upTo = sinks.isEmpty() ? maxEventId() : Long.MAX_VALUE;
+        for (String name : sinks.keySet()) {
+            upTo = Math.min(upTo, getOffset(name));
+        }
+        for (long from = first; from <= upTo; from += PURGE_CHUNK) {
+            jdbcTemplate.update(DELETE_EVENTS_SQL, from, Math.min(upTo, from + PURGE_CHUNK - 1));
+        }
+    }
+
+    public long getOffset(String sinkName) {
+        Long offset = jdbcTemplate.queryForObject(SELECT_OFFSET_SQL, Long.class, sinkName);
+        return offset == null ? 0L : offset;
+    }
+
+    public int getFailures(String sinkName) {
+        SinkState state = sinks.get(sinkName);
+        return state == null ? 0 : state.failures;
+    }
+
+    private int dispatchBatch(OutboxSink sink) {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<Long> offset = jdbcTemplate.queryForList(LOCK_OFFSET_SQL, Long.class, sink.name());
+            if (offset.isEmpty()) {
+                return 0; // 다른 인스턴스가 처리 중
+            }
+            List<LedgerEvent> events = jdbcTemplate.query(SELECT_EVENTS_SQL, EVENT_MAPPER, offset.get(0), batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                sink.deliver(events);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink '" + sink.name() + "' failed", e);
+            }
+            jdbcTemplate.update(UPDATE_OFFSET_SQL, events.get(events.size() - 1).eventId(), sink.name());
+            return events.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    private long maxEventId() {
+        Long max = jdbcTemplate.queryForObject(SELECT_MAX_EVENT_ID_SQL, Long.class);
+        return max == null ? 0L : max;
+    }
+
+    // fixedDelay 라 dispatch() 는 한 번에 하나만 실행되지만, 스케줄러 풀의 어느 스레드에서 실행될지는 매번 다르고
+    // getFailures() 는 다른 스레드에서도 읽으므로 volatile 로 둔다.
+    private static final class SinkState {
+        final OutboxSink sink;
+        volatile int failures;
+        volatile long nextAttemptAt;
+
+        SinkState(OutboxSink sink) {
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package panicathe.autumnfintech.outbox;
+
+import java.util.List;
+
+/**
+ * outbox 이벤트를 받는 프로세스 내 소비자. 스프링 빈으로 등록하면 OutboxDispatcher 가 자동으로 전달한다.
+ * deliver 가 예외를 던지면 해당 배치는 나중에 처음부터 다시 전달된다.
+ */
+public interface OutboxSink {
+
+    /**
+     * offset 저장 키. 배포 간에 바뀌면 처음부터 다시 전달되므로 고정된 값이어야 한다.
+     */
+    String name();
+
+    /**
+     * 이벤트 ID 오름차순으로 정렬된 배치를 받는다.
+     */
+    void deliver(List<LedgerEvent> events) throws Exception;
+}
@@ -0,0 +1,41 @@
+package panicathe.autumnfintech.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 인증된 사용자 단위로 요청 한도를 검사한다. 여러 IP 에서 같은 토큰으로 보내는 요청도 함께 센다.
+ * 인증 정보가 필요하므로 SecurityConfig 에서 JwtAuthenticationFilter 바로 뒤에 등록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            long retryAfter = rateLimiter.checkPrincipal(request.getMethod(), request.getRequestURI(), authentication.getName());
+            if (retryAfter > 0) {
+                RateLimitFilter.writeTooManyRequests(response, objectMapper, retryAfter);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
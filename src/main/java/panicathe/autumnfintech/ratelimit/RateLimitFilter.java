@@ -0,0 +1,45 @@
+package panicathe.autumnfintech.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import panicathe.autumnfintech.dto.ApiResponse;
+
+import java.io.IOException;
+
+/**
+ * 클라이언트 IP 단위로 요청 한도를 검사한다.
+ * JWT 검증이나 로그인의 BCrypt 보다 먼저 거절할 수 있도록 SecurityConfig 에서 JwtAuthenticationFilter 앞에 등록한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long retryAfter = rateLimiter.checkIp(request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            writeTooManyRequests(response, objectMapper, retryAfter);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    static void writeTooManyRequests(HttpServletResponse response, ObjectMapper objectMapper, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpServletResponse.SC_TOO_MANY_REQUESTS);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse<>(false, "Too many requests. Please try again later.", null));
+    }
+}
@@ -0,0 +1,65 @@
+package panicathe.autumnfintech.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 경로별 요청 한도. "[METHOD] /path/pattern=횟수/기간" 형식으로 설정한다. (예: "POST /auth/tokens=10/1m")
+ * 기간 단위는 s, m, h 이다. 메소드를 생략하면 모든 메소드에 적용된다.
+ */
+public record RateLimitRule(String id, String method, PathPattern pattern, long limit, long periodNanos) {
+
+    public boolean matches(String requestMethod, PathContainer path) {
+        return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+    }
+
+    /**
+     * ';' 로 구분된 규칙 목록을 읽는다. 요청에는 처음 일치하는 규칙 하나만 적용되므로 구체적인 경로를 앞에 둔다.
+     */
+    public static List<RateLimitRule> parseList(String rules) {
+        List<RateLimitRule> parsed = new ArrayList<>();
+        for (String rule : rules.split(";")) {
+            if (!rule.isBlank()) {
+                parsed.add(parse(rule.trim()));
+            }
+        }
+        return List.copyOf(parsed);
+    }
+
+    public static RateLimitRule parse(String rule) {
+        int eq = rule.lastIndexOf('=');
+        if (eq < 0) {
+            throw new IllegalArgumentException("Rate limit rule must look like '[METHOD] /path=limit/period': " + rule);
+        }
+        String route = rule.substring(0, eq).trim();
+        int space = route.indexOf(' ');
+        String method = space < 0 ? null : route.substring(0, space).trim();
+        String path = space < 0 ? route : route.substring(space + 1).trim();
+
+        String[] quota = rule.substring(eq + 1).trim().split("/");
+        if (quota.length != 2) {
+            throw new IllegalArgumentException("Rate limit quota must look like 'limit/period': " + rule);
+        }
+        long limit = Long.parseLong(quota[0].trim());
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Rate limit must be positive: " + rule);
+        }
+        return new RateLimitRule(route, method, PathPatternParser.defaultInstance.parse(path), limit, parsePeriod(quota[1].trim()));
+    }
+
+    static long parsePeriod(String period) {
+        long amount = Long.parseLong(period.substring(0, period.length() - 1));
+        TimeUnit unit = switch (period.charAt(period.length() - 1)) {
+            case 's' -> TimeUnit.SECONDS;
+            case 'm' -> TimeUnit.MINUTES;
+            case 'h' -> TimeUnit.HOURS;
+            default -> throw new IllegalArgumentException("Rate limit period must end with s, m or h: " + period);
+        };
+        return unit.toNanos(amount);
+    }
+}
@@ -0,0 +1,197 @@
+package panicathe.autumnfintech.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import panicathe.autumnfintech.exception.RateLimitExceededException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 클라이언트 IP, 로그인 이메일, 인증된 사용자 단위의 요청 한도를 검사한다.
+ * <p>
+ * IP 와 사용자 한도는 경로별 규칙(spring.rate-limit.ip-routes, principal-routes)을 따르고, 규칙마다 버킷이 따로 있다.
+ * IPv6 는 한 가입자가 보통 /64 대역 전체를 받으므로 /64 단위로 센다. 표가 가득 차면 새 키는 더 넓은 대역
+ * (IPv4 /24, IPv6 /48)의 버킷을 함께 쓰므로, 주소를 바꿔 가며 표를 채워도 자기 대역만 막힌다.
+ * <p>
+ * 로그인 한도는 실패한 시도만 센다. 시도 전에 토큰을 꺼내고 로그인에 성공하면 돌려준다.
+ * (이메일, IP) 단위 한도(login-email)가 한 곳에서의 대입을 막고, 더 느슨한 이메일 전체 한도(login-email-total)가
+ * IP 를 바꿔 가며 한 계정을 대입하는 것을 막는다. 공격자가 남의 이메일로 실패를 쌓아도 그 사용자의 IP 버킷은 줄지 않는다.
+ * 모든 버킷은 하나의 TokenBucketTable 에 키 접두어로 구분해 저장한다.
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final List<RateLimitRule> ipRules;
+    private final List<RateLimitRule> principalRules;
+    private final RateLimitRule loginEmailRule;
+    private final RateLimitRule loginEmailTotalRule;
+    private final TokenBucketTable buckets;
+
+    public RateLimiter(@Value("${spring.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${spring.rate-limit.ip-routes:POST /auth/tokens=20/1m;POST /auth/users=10/1m;/**=300/1m}") String ipRoutes,
+                       @Value("${spring.rate-limit.principal-routes:/**=600/1m}") String principalRoutes,
+                       @Value("${spring.rate-limit.login-email:5/1m}") String loginEmail,
+                       @Value("${spring.rate-limit.login-email-total:50/1m}") String loginEmailTotal,
+                       @Value("${spring.rate-limit.max-keys:200000}") int maxKeys) {
+        this.enabled = enabled;
+        this.ipRules = RateLimitRule.parseList(ipRoutes);
+        this.principalRules = RateLimitRule.parseList(principalRoutes);
+        this.loginEmailRule = RateLimitRule.parse("POST /auth/tokens=" + loginEmail);
+        this.loginEmailTotalRule = RateLimitRule.parse("POST /auth/tokens=" + loginEmailTotal);
+        this.buckets = new TokenBucketTable(64, maxKeys);
+    }
+
+    /**
+     * @return 허용되면 0, 거절되면 Retry-After 로 보낼 초
+     */
+    public long checkIp(String method, String path, String remoteAddress) {
+        if (remoteAddress == null) {
+            return 0;
+        }
+        return check("ip", ipRules, method, path, clientKey(remoteAddress), "ip-overflow|" + networkKey(remoteAddress));
+    }
+
+    /**
+     * @return 허용되면 0, 거절되면 Retry-After 로 보낼 초
+     */
+    public long checkPrincipal(String method, String path, String principal) {
+        return check("user", principalRules, method, path, principal, null);
+    }
+
+    /**
+     * 로그인 시도 하나를 (이메일, IP) 와 이메일 전체 한도에서 꺼낸다. 비밀번호 검증(BCrypt) 전에 호출하고,
+     * 로그인에 성공하면 releaseLoginAttempt 로 돌려주어 실패한 시도만 남긴다.
+     */
+    public void acquireLoginAttempt(String email, String remoteAddress) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String account = email.toLowerCase(Locale.ROOT);
+        String overflowKey = "login-overflow|" + networkKey(remoteAddress);
+        long now = System.nanoTime();
+        long wait = buckets.tryAcquire("login|" + account + '|' + clientKey(remoteAddress), overflowKey,
+                loginEmailRule.limit(), loginEmailRule.periodNanos(), now);
+        if (wait == 0) {
+            wait = buckets.tryAcquire("login|" + account, overflowKey,
+                    loginEmailTotalRule.limit(), loginEmailTotalRule.periodNanos(), now);
+            if (wait > 0) {
+                buckets.release("login|" + account + '|' + clientKey(remoteAddress), overflowKey,
+                        loginEmailRule.limit(), loginEmailRule.periodNanos(), now);
+            }
+        }
+        if (wait > 0) {
+            throw new RateLimitExceededException("Too many login attempts. Please try again later.", toSeconds(wait));
+        }
+    }
+
+    /**
+     * 성공한 로그인의 시도를 돌려준다.
+     */
+    public void releaseLoginAttempt(String email, String remoteAddress) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String account = email.toLowerCase(Locale.ROOT);
+        String overflowKey = "login-overflow|" + networkKey(remoteAddress);
+        long now = System.nanoTime();
+        buckets.release("login|" + account + '|' + clientKey(remoteAddress), overflowKey,
+                loginEmailRule.limit(), loginEmailRule.periodNanos(), now);
+        buckets.release("login|" + account, overflowKey, loginEmailTotalRule.limit(), loginEmailTotalRule.periodNanos(), now);
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public void evictIdle() {
+        buckets.evictIdle(System.nanoTime());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // overflowKey 가 null 이면 표의 공용 버킷을 쓴다. 인증된 사용자는 수가 정해져 있어 표를 채울 수 없다.
+    private long check(String scope, List<RateLimitRule> rules, String method, String path, String client, String overflowKey) {
+        if (!enabled || client == null || rules.isEmpty()) {
+            return 0;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(method, pathContainer)) {
+                String key = scope + '|' + rule.id() + '|' + client;
+                long wait = overflowKey == null
+                        ? buckets.tryAcquire(key, rule.limit(), rule.periodNanos(), System.nanoTime())
+                        : buckets.tryAcquire(key, overflowKey + '|' + rule.id(), rule.limit(), rule.periodNanos(), System.nanoTime());
+                return wait > 0 ? toSeconds(wait) : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 한도를 셀 클라이언트 키. IPv4 는 주소 그대로, IPv6 는 /64 대역이다.
+     */
+    static String clientKey(String remoteAddress) {
+        return prefix(remoteAddress, 32, 64);
+    }
+
+    /**
+     * 표가 가득 찼을 때 함께 쓰는 대역 키. IPv4 는 /24, IPv6 는 /48 이다.
+     */
+    static String networkKey(String remoteAddress) {
+        return prefix(remoteAddress, 24, 48);
+    }
+
+    private static String prefix(String remoteAddress, int ipv4Bits, int ipv6Bits) {
+        if (remoteAddress == null) {
+            return "";
+        }
+        byte[] address = parseAddress(remoteAddress);
+        if (address == null) {
+            return remoteAddress;
+        }
+        int bits = address.length == 4 ? ipv4Bits : ipv6Bits;
+        StringBuilder key = new StringBuilder(bits / 4 + 4);
+        for (int i = 0; i < bits / 8; i++) {
+            int b = address[i] & 0xff;
+            key.append(Character.forDigit(b >>> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.append('/').append(bits).toString();
+    }
+
+    // 리터럴 주소만 읽고 DNS 는 조회하지 않는다. ':' 가 있으면 InetAddress 가 IPv6 리터럴로만 해석한다.
+    private static byte[] parseAddress(String remoteAddress) {
+        if (remoteAddress.indexOf(':') >= 0) {
+            try {
+                return InetAddress.getByName(remoteAddress).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+        String[] octets = remoteAddress.split("\\.", -1);
+        if (octets.length != 4) {
+            return null;
+        }
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            if (octets[i].isEmpty() || octets[i].length() > 3 || !octets[i].chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return null;
+            }
+            int octet = Integer.parseInt(octets[i]);
+            if (octet > 255) {
+                return null;
+            }
+            address[i] = (byte) octet;
+        }
+        return address;
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
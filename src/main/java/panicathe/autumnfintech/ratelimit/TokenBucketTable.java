@@ -0,0 +1,154 @@
+package panicathe.autumnfintech.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 키별 토큰 버킷을 GCRA(Generic Cell Rate Algorithm)로 관리하는 표.
+ * <p>
+ * 버킷 하나는 "다음 요청이 도착해야 할 이론적 시각(TAT)" 하나만 AtomicLong 으로 들고 CAS 로 갱신하므로 락이 없다.
+ * 초당 limit/period 의 속도로 채워지고 최대 limit 개까지 연달아 허용된다.
+ * TAT 가 현재 시각 이전인 버킷은 가득 찬 버킷과 같으므로 지워도 동작이 바뀌지 않는다. 이런 버킷을 유휴 키로 보고 제거한다.
+ * <p>
+ * 표는 샤드로 나뉘고 샤드마다 키 개수 상한이 있다. 상한에 닿으면 유휴 키를 정리하고,
+ * 그래도 자리가 없으면 새 키는 호출자가 준 대체 키(예: 클라이언트 IP 대역)의 버킷을 함께 쓴다.
+ * 대체 키는 상한과 관계없이 만들어지므로, 키를 바꿔 가며 표를 채운 클라이언트는 자기 대역의 버킷만 소진하고
+ * 다른 대역의 새 클라이언트는 영향을 받지 않는다. 대체 키를 주지 않으면 표 전체의 공용 버킷을 쓴다.
+ */
+public class TokenBucketTable {
+
+    // 같은 샤드를 상한 초과로 다시 정리하기까지의 최소 간격
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    // 대체 키가 없을 때 쓰는 공용 버킷의 키. 요청 키에는 NUL 이 들어가지 않으므로 겹치지 않는다.
+    private static final String OVERFLOW_KEY = "\0overflow";
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final Shard[] shards;
+    private final int mask;
+    private final int maxKeysPerShard;
+
+    public TokenBucketTable(int shardCount, int maxKeys) {
+        int shardsPowerOfTwo = shardCount <= 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+        this.shards = new Shard[shardsPowerOfTwo];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        this.mask = shardsPowerOfTwo - 1;
+        this.maxKeysPerShard = Math.max(1, maxKeys / shardsPowerOfTwo);
+    }
+
+    /**
+     * key 의 버킷에서 토큰 하나를 꺼낸다.
+     *
+     * @return 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 나노초
+     */
+    public long tryAcquire(String key, long limit, long periodNanos, long nowNanos) {
+        return tryAcquire(key, OVERFLOW_KEY, limit, periodNanos, nowNanos);
+    }
+
+    /**
+     * key 의 버킷에서 토큰 하나를 꺼낸다. 표에 key 를 둘 자리가 없으면 overflowKey 의 버킷에서 꺼낸다.
+     *
+     * @return 허용되면 0, 거절되면 다시 시도할 수 있을 때까지 남은 나노초
+     */
+    public long tryAcquire(String key, String overflowKey, long limit, long periodNanos, long nowNanos) {
+        Shard shard = shards[spread(key.hashCode()) & mask];
+        AtomicLong bucket = shard.bucket(key, nowNanos, maxKeysPerShard);
+        if (bucket == null) {
+            bucket = shards[spread(overflowKey.hashCode()) & mask].putIfAbsent(overflowKey, nowNanos);
+        }
+        return acquire(bucket, Math.max(1, periodNanos / limit), periodNanos, nowNanos);
+    }
+
+    /**
+     * tryAcquire 로 꺼낸 토큰 하나를 돌려준다. 성공한 시도는 세지 않고 실패한 시도만 셀 때 쓴다.
+     * 버킷이 이미 정리되었으면 가득 찬 상태이므로 아무것도 하지 않는다.
+     */
+    public void release(String key, String overflowKey, long limit, long periodNanos, long nowNanos) {
+        AtomicLong bucket = shards[spread(key.hashCode()) & mask].buckets.get(key);
+        if (bucket == null) {
+            bucket = shards[spread(overflowKey.hashCode()) & mask].buckets.get(overflowKey);
+        }
+        if (bucket == null) {
+            return;
+        }
+        long interval = Math.max(1, periodNanos / limit);
+        while (true) {
+            long current = bucket.get();
+            long previous = current - interval - nowNanos > 0 ? current - interval : nowNanos;
+            if (current - nowNanos <= 0 || bucket.compareAndSet(current, previous)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 유휴 키를 모두 제거한다.
+     */
+    public void evictIdle(long nowNanos) {
+        for (Shard shard : shards) {
+            shard.sweep(nowNanos);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.buckets.size();
+        }
+        return size;
+    }
+
+    private static long acquire(AtomicLong tat, long interval, long periodNanos, long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + interval;
+            long wait = next - nowNanos - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Shard {
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicLong lastSweep = new AtomicLong(NEVER);
+
+        // 자리가 없으면 null 을 반환한다.
+        AtomicLong bucket(String key, long nowNanos, int maxKeys) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeys) {
+                long last = lastSweep.get();
+                if ((last != NEVER && nowNanos - last < SWEEP_INTERVAL_NANOS) || !lastSweep.compareAndSet(last, nowNanos)) {
+                    return null;
+                }
+                sweep(nowNanos);
+                if (buckets.size() >= maxKeys) {
+                    return null;
+                }
+            }
+            return putIfAbsent(key, nowNanos);
+        }
+
+        // 대체 키의 버킷도 표 안에 두어 유휴 상태가 되면 다른 키처럼 정리된다. (상한 계산에서 자리를 차지할 수 있다)
+        AtomicLong putIfAbsent(String key, long nowNanos) {
+            AtomicLong created = new AtomicLong(nowNanos);
+            AtomicLong existing = buckets.putIfAbsent(key, created);
+            return existing != null ? existing : created;
+        }
+
+        void sweep(long nowNanos) {
+            buckets.values().removeIf(tat -> tat.get() - nowNanos <= 0);
+        }
+    }
+}
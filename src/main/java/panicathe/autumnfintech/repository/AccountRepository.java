@@ -0,0 +1,25 @@
+package panicathe.autumnfintech.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import panicathe.autumnfintech.entity.Account;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    Optional<Account> findByAccountNumber(String accountNumber);
+
+    boolean existsByAccountNumber(String accountNumber);
+
+    boolean existsByAccountNumberAndUserEmail(String accountNumber, String email);
+
+    List<Account> findByUserEmailAndClosedFalse(String email);
+
+    // 계좌번호 조회용. 해지된 계좌와 탈퇴한 사용자의 계좌는 없는 것으로 본다.
+    @Query("select u.username from Account a join a.user u "
+            + "where a.accountNumber = :accountNumber and a.closed = false and u.isActive = true")
+    Optional<String> findActiveOwnerName(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,31 @@
+package panicathe.autumnfintech.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.entity.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    // 다른 인스턴스가 방금 선점한 키도 보여야 하므로 replica 가 아닌 primary 에서 읽는다. (readOnly 아님)
+    @Transactional
+    Optional<IdempotencyRecord> findByOwnerAndIdempotencyKey(String owner, String idempotencyKey);
+
+    // 선점이 만료되어 지워졌으면 0 을 반환한다.
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.completed = true, r.responseStatus = :status, "
+            + "r.responseContentType = :contentType, r.responseBody = :body where r.id = :id and r.completed = false")
+    int complete(@Param("id") Long id, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package panicathe.autumnfintech.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.entity.TokenRevocation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // 복제 지연으로 나중 순번만 먼저 보이면 빈틈이 길어지므로 primary 에서 읽는다. (readOnly 아님)
+    @Transactional
+    List<TokenRevocation> findByIdGreaterThanOrderByIdAsc(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,45 @@
+package panicathe.autumnfintech.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import panicathe.autumnfintech.entity.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    // (createdAt, id) 가 커서보다 작은 출금 내역을 최신순으로. OFFSET 없이 인덱스 범위 탐색으로 시작 위치를 찾는다.
+    @Query("select t from Transaction t where t.fromAccountNumber = :accountNumber "
+            + "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) "
+            + "order by t.createdAt desc, t.id desc")
+    List<Transaction> findOutgoingBefore(@Param("accountNumber") String accountNumber,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") long id,
+                                         Limit limit);
+
+    @Query("select t from Transaction t where t.toAccountNumber = :accountNumber "
+            + "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) "
+            + "order by t.createdAt desc, t.id desc")
+    List<Transaction> findIncomingBefore(@Param("accountNumber") String accountNumber,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") long id,
+                                         Limit limit);
+
+    // [from, to) 구간의 출금 내역을 오래된 순으로. 거래 명세서용
+    @Query("select t from Transaction t where t.fromAccountNumber = :accountNumber "
+            + "and t.createdAt >= :from and t.createdAt < :to order by t.createdAt, t.id")
+    List<Transaction> findOutgoingBetween(@Param("accountNumber") String accountNumber,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Limit limit);
+
+    @Query("select t from Transaction t where t.toAccountNumber = :accountNumber "
+            + "and t.createdAt >= :from and t.createdAt < :to order by t.createdAt, t.id")
+    List<Transaction> findIncomingBetween(@Param("accountNumber") String accountNumber,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Limit limit);
+}
@@ -1,6 +1,7 @@
 package panicathe.autumnfintech.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import panicathe.autumnfintech.entity.User;
 
 import java.util.Optional;
@@ -10,6 +11,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     //int countAccountsById(Long id);
 
+    // 가입 직후 로그인처럼 방금 쓴 사용자를 읽을 수 있으므로 replica 가 아닌 primary 에서 읽는다. (readOnly 아님)
+    @Transactional
     Optional<User> findByEmail(String email);
 
     boolean existsByUsername(String username);
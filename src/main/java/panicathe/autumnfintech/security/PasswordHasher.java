@@ -0,0 +1,187 @@
+package panicathe.autumnfintech.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import panicathe.autumnfintech.exception.ServiceBusyException;
+import panicathe.autumnfintech.metrics.LatencyHistogram;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt 해싱/검증을 전용 스레드 풀에서 실행하는 컴포넌트.
+ * 풀 크기는 코어 수로, 대기 큐는 고정 크기로 제한하여 로그인 폭주 시에도 BCrypt 가 CPU 를 독점하지 못하게 한다.
+ * 큐가 가득 차면 기다리지 않고 ServiceBusyException(503)으로 즉시 거절한다.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    // 큐 대기 시간을 포함한 호출자 기준 시간
+    private final LatencyHistogram encodeLatency;
+    private final LatencyHistogram matchesLatency;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${spring.password.bcrypt-strength:10}") int strength,
+                          @Value("${spring.password.pool-size:0}") int poolSize,
+                          @Value("${spring.password.queue-capacity:64}") int queueCapacity,
+                          @Value("${spring.password.timeout-ms:5000}") long timeoutMillis,
+                          MetricsRegistry metricsRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.timeoutMillis = timeoutMillis;
+        this.encodeLatency = metricsRegistry.histogram("password.encode");
+        this.matchesLatency = metricsRegistry.histogram("password.matches");
+
+        this.threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword), encodeLatency);
+    }
+
+    /**
+     * 대량 등록용 일괄 해싱. 동시에 풀 스레드 수만큼만 작업을 넣어 큐를 점유하지 않으므로
+     * 대량 작업 중에도 로그인 요청이 큐에 들어갈 자리가 남는다. 결과는 입력 순서와 같다.
+     * 자리가 나기를 기다리는 시간과 각 해싱을 기다리는 시간은 단건 해싱과 같은 timeout 으로 제한한다.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        Semaphore inFlight = new Semaphore(threads);
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                if (!inFlight.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException();
+                }
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return passwordEncoder.encode(rawPassword);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    inFlight.release();
+                    throw new ServiceBusyException("Password hashing pool is saturated. Please retry the import later.");
+                }
+            }
+
+            List<String> encoded = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                encoded.add(future.get(timeoutMillis, TimeUnit.MILLISECONDS));
+            }
+            return encoded;
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new ServiceBusyException("Password hashing timed out. Please retry the import later.");
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password hashing was interrupted.");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchesLatency);
+    }
+
+    /**
+     * 저장된 해시의 cost 가 현재 설정된 cost 와 다르면 true.
+     * ($2a$10$... 형식에서 cost 두 자리를 읽는다.)
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return true;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 현재 설정된 BCrypt cost.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    private <T> T execute(Callable<T> task, LatencyHistogram latency) {
+        long start = System.nanoTime();
+        try {
+            return execute(task);
+        } finally {
+            latency.recordSince(start);
+        }
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many concurrent authentication requests. Please retry shortly.");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceBusyException("Password hashing timed out. Please retry shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password hashing was interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
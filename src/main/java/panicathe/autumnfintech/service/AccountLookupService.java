@@ -0,0 +1,120 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import panicathe.autumnfintech.dto.account.AccountLookupDto;
+import panicathe.autumnfintech.dto.account.AccountLookupStatsDto;
+import panicathe.autumnfintech.lookup.AccountNumberBloomFilter;
+import panicathe.autumnfintech.lookup.LookupCache;
+import panicathe.autumnfintech.repository.AccountRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * 계좌번호로 계좌 유무와 계좌주 이름을 조회한다. (송금 화면의 입력 중 조회용)
+ * <p>
+ * 1. 형식이 맞지 않거나 Bloom filter 에 없는 번호는 DB 를 조회하지 않고 "없음"으로 응답한다.
+ * 2. 그 외에는 LRU 캐시를 먼저 보고, 없으면 DB 를 조회해 결과를 캐시한다. 없는 계좌(오탐)도 짧게 캐시한다.
+ *    조회하는 사이에 무효화가 있었으면 읽은 값이 낡았을 수 있으므로 캐시하지 않는다.
+ * <p>
+ * 계좌 해지와 회원 탈퇴 시에는 커밋 후 해당 계좌의 캐시 항목을 지운다.
+ */
+@Slf4j
+@Service
+public class AccountLookupService {
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("1000\\d{8}");
+    private static final String SELECT_ACCOUNT_NUMBERS_SQL = "SELECT account_number FROM account WHERE closed = false";
+    private static final long FOUND_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final long NOT_FOUND_TTL_MILLIS = 30 * 1000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final AccountNumberBloomFilter bloomFilter;
+    private final LookupCache<AccountLookupDto> cache;
+    private final LongAdder bloomRejections = new LongAdder();
+
+    public AccountLookupService(JdbcTemplate jdbcTemplate,
+                                AccountRepository accountRepository,
+                                @Value("${spring.account-lookup.cache-size:100000}") int cacheSize,
+                                @Value("${spring.account-lookup.expected-accounts:1000000}") long expectedAccounts,
+                                @Value("${spring.account-lookup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountRepository = accountRepository;
+        this.bloomFilter = new AccountNumberBloomFilter(expectedAccounts, falsePositiveRate);
+        this.cache = new LookupCache<>(cacheSize);
+    }
+
+    @PostConstruct
+    public void loadBloomFilter() {
+        jdbcTemplate.query(SELECT_ACCOUNT_NUMBERS_SQL, rs -> {
+            bloomFilter.add(rs.getString(1));
+        });
+        log.info("Account lookup bloom filter loaded: {} accounts, expected false positive rate {}",
+                bloomFilter.getInsertions(), bloomFilter.expectedFalsePositiveRate());
+    }
+
+    public AccountLookupDto lookup(String accountNumber) {
+        if (!ACCOUNT_NUMBER.matcher(accountNumber).matches() || !bloomFilter.mightContain(accountNumber)) {
+            bloomRejections.increment();
+            return new AccountLookupDto(accountNumber, false, null);
+        }
+
+        long now = System.currentTimeMillis();
+        AccountLookupDto cached = cache.get(accountNumber, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = cache.generation(accountNumber);
+        AccountLookupDto result = accountRepository.findActiveOwnerName(accountNumber)
+                .map(ownerName -> new AccountLookupDto(accountNumber, true, ownerName))
+                .orElseGet(() -> new AccountLookupDto(accountNumber, false, null));
+        cache.putIfNotInvalidated(accountNumber, result,
+                now + (result.isExists() ? FOUND_TTL_MILLIS : NOT_FOUND_TTL_MILLIS), generation);
+        return result;
+    }
+
+    /**
+     * 새 계좌를 등록한다. 계좌가 DB 에 커밋된 뒤 호출해야 한다.
+     */
+    public void accountOpened(String accountNumber) {
+        bloomFilter.add(accountNumber);
+        cache.invalidate(accountNumber); // 오탐으로 캐시된 "없음" 제거
+    }
+
+    /**
+     * 계좌 해지, 회원 탈퇴 등으로 조회 결과가 바뀐 계좌의 캐시를 지운다.
+     * 트랜잭션 안에서 호출되면 커밋 후에 지운다. (커밋 전에 지우면 다른 요청이 이전 값을 다시 캐시할 수 있음)
+     */
+    public void invalidate(Collection<String> accountNumbers) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<String> numbers = List.copyOf(accountNumbers);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    numbers.forEach(cache::invalidate);
+                }
+            });
+        } else {
+            accountNumbers.forEach(cache::invalidate);
+        }
+    }
+
+    public AccountLookupStatsDto getStats() {
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        return new AccountLookupStatsDto(bloomRejections.sum(), hits, misses,
+                hits + misses == 0 ? 0.0 : (double) hits / (hits + misses),
+                cache.getEvictions(), cache.size(),
+                bloomFilter.getInsertions(), bloomFilter.expectedFalsePositiveRate());
+    }
+}
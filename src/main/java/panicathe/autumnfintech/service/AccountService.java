@@ -0,0 +1,122 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.dto.account.AccountDto;
+import panicathe.autumnfintech.dto.account.AccountLimitRequestDto;
+import panicathe.autumnfintech.dto.account.AccountLookupDto;
+import panicathe.autumnfintech.entity.Account;
+import panicathe.autumnfintech.entity.User;
+import panicathe.autumnfintech.id.AccountNumberAllocator;
+import panicathe.autumnfintech.ledger.AccountLimits;
+import panicathe.autumnfintech.ledger.BalanceEngine;
+import panicathe.autumnfintech.repository.AccountRepository;
+import panicathe.autumnfintech.repository.UserRepository;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AccountService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountRepository accountRepository;
+    private final UserRepository userRepository;
+    private final BalanceEngine balanceEngine;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountLookupService accountLookupService;
+
+    // 계좌는 DB 에 먼저 커밋한 뒤 엔진에 등록한다. (엔진이 아직 모르는 계좌로는 거래가 들어오지 않음)
+    public AccountDto createAccount(String email) {
+        User user = userRepository.findByEmail(email)
+                .filter(User::isActive)
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+
+        Account account = save(user);
+        balanceEngine.open(account.getAccountNumber(), email, AccountLimits.NONE);
+        accountLookupService.accountOpened(account.getAccountNumber());
+
+        return toDto(account, 0L);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountDto> getAccounts(String email) {
+        return accountRepository.findByUserEmailAndClosedFalse(email).stream()
+                .map(account -> toDto(account, balanceEngine.balance(email, account.getAccountNumber())))
+                .toList();
+    }
+
+    public AccountLookupDto lookup(String accountNumber) {
+        return accountLookupService.lookup(accountNumber);
+    }
+
+    public long getBalance(String email, String accountNumber) {
+        return balanceEngine.balance(email, accountNumber);
+    }
+
+    @Transactional
+    public void closeAccount(String email, String accountNumber) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .filter(found -> !found.isClosed())
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+
+        balanceEngine.close(email, accountNumber); // 소유자/잔액 확인, 엔진에서는 커밋 후 제거
+        account.setClosed(true);
+        accountLookupService.invalidate(List.of(accountNumber));
+    }
+
+    /**
+     * 계좌 한도를 바꾼다. email 이 null 이면 관리자 요청으로 보고 소유자 확인을 생략한다.
+     */
+    @Transactional
+    public AccountDto updateLimits(String email, String accountNumber, AccountLimitRequestDto request) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .filter(found -> !found.isClosed())
+                .filter(found -> email == null || found.getUser().getEmail().equals(email))
+                .orElseThrow(() -> new EntityNotFoundException("Account not found"));
+
+        account.setTransactionLimit(request.getTransactionLimit());
+        account.setMinuteLimit(request.getMinuteLimit());
+        account.setHourLimit(request.getHourLimit());
+        account.setDailyLimit(request.getDailyLimit());
+        balanceEngine.updateLimits(accountNumber, new AccountLimits(request.getTransactionLimit(),
+                request.getMinuteLimit(), request.getHourLimit(), request.getDailyLimit()));
+
+        return toDto(account, balanceEngine.balance(account.getUser().getEmail(), accountNumber));
+    }
+
+    // 발급기가 중복 없는 번호를 보장하므로 조회 없이 INSERT 한다.
+    // 발급기 도입 전 랜덤으로 만든 번호와 겹치는 경우에만 unique 제약조건에 걸려 다음 번호로 재시도한다.
+    private Account save(User user) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return accountRepository.save(Account.builder()
+                        .accountNumber(accountNumberAllocator.allocate())
+                        .user(user)
+                        .balance(0L)
+                        .closed(false)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private AccountDto toDto(Account account, long balance) {
+        return AccountDto.builder()
+                .accountNumber(account.getAccountNumber())
+                .balance(balance)
+                .transactionLimit(account.getTransactionLimit())
+                .minuteLimit(account.getMinuteLimit())
+                .hourLimit(account.getHourLimit())
+                .dailyLimit(account.getDailyLimit())
+                .createdAt(account.getCreatedAt())
+                .build();
+    }
+}
@@ -2,15 +2,29 @@ package panicathe.autumnfintech.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.audit.AuditTrail;
 import panicathe.autumnfintech.dto.user.LoginRequestDto;
+import panicathe.autumnfintech.dto.user.TokenResponseDto;
 import panicathe.autumnfintech.dto.user.UserDto;
+import panicathe.autumnfintech.entity.Account;
+import panicathe.autumnfintech.entity.AuditEventType;
 import panicathe.autumnfintech.entity.User;
+import panicathe.autumnfintech.exception.ServiceBusyException;
 
+import panicathe.autumnfintech.jwt.JwtClaims;
 import panicathe.autumnfintech.jwt.JwtProvider;
+import panicathe.autumnfintech.jwt.TokenRevocationRegistry;
+import panicathe.autumnfintech.ledger.BalanceEngine;
+import panicathe.autumnfintech.ratelimit.RateLimiter;
+import panicathe.autumnfintech.repository.AccountRepository;
 import panicathe.autumnfintech.repository.UserRepository;
+import panicathe.autumnfintech.security.PasswordHasher;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 @Service
@@ -18,39 +32,107 @@ import panicathe.autumnfintech.repository.UserRepository;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final AccountRepository accountRepository;
+    private final BalanceEngine balanceEngine;
+    private final PasswordHasher passwordHasher;
     private final JwtProvider jwtProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final AccountLookupService accountLookupService;
+    private final RateLimiter rateLimiter;
+    private final AuditTrail auditTrail;
 
+    // 사전 존재 여부 조회 없이 INSERT 한 번으로 처리하고, 중복은 unique 제약조건 위반으로 판별한다.
     @Transactional
     public void register(UserDto userDto) {
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            throw new IllegalArgumentException("Email already exists.");
-        }
-        if (userRepository.existsByUsername(userDto.getUsername())) {
-            throw new IllegalArgumentException("Username already exists.");
-        }
-
         User user = User.builder()
                 .username(userDto.getUsername())
-                .password(passwordEncoder.encode(userDto.getPassword()))
+                .password(passwordHasher.encode(userDto.getPassword()))
                 .email(userDto.getEmail())
                 .isActive(true)
                 .role("ROLE_USER")
                 .build();
 
-        userRepository.save(user); // 새로운 유저 저장, save() 호출 필요
+        try {
+            userRepository.saveAndFlush(user); // 제약조건 위반을 이 자리에서 받기 위해 즉시 flush
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(duplicateUserMessage(e, userDto));
+        }
+        auditTrail.recordAfterCommit(AuditEventType.REGISTER, user.getEmail());
+    }
+
+    /**
+     * 에러 메시지에 담긴 중복 값으로 중복 항목을 판별한다.
+     * unique 인덱스는 컬럼 단위로 매핑되어 이름이 스키마마다 다르므로(자동 생성 이름) 이름으로는 판별하지 않는다.
+     */
+    private String duplicateUserMessage(DataIntegrityViolationException e, UserDto userDto) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (detail.contains("'" + userDto.getEmail() + "'")) {
+            return "Email already exists.";
+        }
+        if (detail.contains("'" + userDto.getUsername() + "'")) {
+            return "Username already exists.";
+        }
+        throw e;
     }
 
     @Transactional
-    public String login(LoginRequestDto loginRequestDto) {
+    public TokenResponseDto login(LoginRequestDto loginRequestDto, String remoteAddress) {
+        // 비밀번호 대입 시도는 조회와 BCrypt 전에 거절. 성공하면 시도를 돌려주어 실패한 시도만 센다.
+        rateLimiter.acquireLoginAttempt(loginRequestDto.getEmail(), remoteAddress);
+
         User user = userRepository.findByEmail(loginRequestDto.getEmail())
-                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+                .filter(User::isActive) // 탈퇴한 사용자는 로그인 불가
+                .orElse(null);
+        if (user == null) {
+            auditTrail.record(AuditEventType.LOGIN_FAILED, loginRequestDto.getEmail());
+            throw new EntityNotFoundException("User not found");
+        }
 
-        if (!passwordEncoder.matches(loginRequestDto.getPassword(), user.getPassword())) {
+        boolean matches;
+        try {
+            matches = passwordHasher.matches(loginRequestDto.getPassword(), user.getPassword());
+        } catch (ServiceBusyException e) {
+            // 비밀번호를 확인하지 못한 시도는 실패로 세지 않는다.
+            rateLimiter.releaseLoginAttempt(loginRequestDto.getEmail(), remoteAddress);
+            throw e;
+        }
+        if (!matches) {
+            auditTrail.record(AuditEventType.LOGIN_FAILED, loginRequestDto.getEmail());
             throw new IllegalArgumentException("Invalid credentials");
         }
+        rateLimiter.releaseLoginAttempt(loginRequestDto.getEmail(), remoteAddress);
 
-        return jwtProvider.create(user.getEmail(), user.getRole());
+        // BCrypt cost 가 변경된 경우 로그인 성공 시점에 새 cost 로 다시 해싱 (dirty checking 으로 저장)
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            try {
+                user.setPassword(passwordHasher.encode(loginRequestDto.getPassword()));
+            } catch (ServiceBusyException e) {
+                // 해싱 풀이 바쁘면 이번 로그인은 그대로 진행하고 다음 로그인에서 다시 시도한다.
+            }
+        }
+
+        TokenResponseDto tokens = new TokenResponseDto(jwtProvider.create(user.getEmail(), user.getRole()), refreshTokenService.issue(user));
+        auditTrail.record(AuditEventType.LOGIN, user.getEmail());
+        return tokens;
+    }
+
+    // 비밀번호 검증 없이 리프레시 토큰 해시 조회만으로 토큰을 재발급
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public TokenResponseDto refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = rotation.user();
+
+        return new TokenResponseDto(jwtProvider.create(user.getEmail(), user.getRole()), rotation.refreshToken());
+    }
+
+    // 현재 액세스 토큰(jti)을 폐기하고, 전달된 리프레시 토큰이 있으면 함께 폐기
+    @Transactional
+    public void logout(JwtClaims claims, String refreshToken) {
+        tokenRevocationRegistry.revokeToken(claims);
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
 
     @Transactional
@@ -58,11 +140,25 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-//        if (userRepository.countAccountsById(user.getId()) > 0) {
-//            throw new IllegalArgumentException("Cannot delete user with active accounts.");
-//        }  Account 기능 생성후 수정.
+        // 잔액이 남은 계좌가 있으면 탈퇴 불가
+        List<Account> accounts = accountRepository.findByUserEmailAndClosedFalse(email);
+        boolean hasBalance = accounts.stream()
+                .anyMatch(account -> balanceEngine.balance(email, account.getAccountNumber()) > 0);
+        if (hasBalance) {
+            throw new IllegalArgumentException("Cannot delete user with remaining account balance.");
+        }
+
+        // 남은 계좌도 같은 트랜잭션에서 해지한다. (엔진에서는 커밋 후 제거, 확인 뒤 입금이 들어왔으면 close 가 거절해 전체 롤백)
+        for (Account account : accounts) {
+            balanceEngine.close(email, account.getAccountNumber());
+            account.setClosed(true);
+        }
 
         user.setActive(false); // Soft delete
+        refreshTokenService.revokeAll(user);
+        tokenRevocationRegistry.revokeUser(user.getEmail(), LocalDateTime.now()); // 이미 발급된 액세스 토큰 무효화
+        accountLookupService.invalidate(accounts.stream().map(Account::getAccountNumber).toList()); // 계좌번호 조회 결과에서 제외
+        auditTrail.recordAfterCommit(AuditEventType.USER_DELETED, email);
         // save() 호출 불필요 - JPA 변경 감지(dirty checking)가 자동으로 동작
     }
 }
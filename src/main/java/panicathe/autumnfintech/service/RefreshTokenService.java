@@ -0,0 +1,117 @@
+package panicathe.autumnfintech.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.entity.RefreshToken;
+import panicathe.autumnfintech.entity.User;
+import panicathe.autumnfintech.repository.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 리프레시 토큰 발급/회전 서비스.
+ * 토큰 원문은 클라이언트에게만 전달하고 DB 에는 SHA-256 해시만 저장하므로, 검증은 해시 조회 한 번으로 끝난다 (BCrypt 없음).
+ * 이미 회전된 토큰이 다시 제출되면 탈취로 간주하고 같은 체인(family)의 토큰을 모두 폐기한다.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long expirationDays;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${spring.jwt.refresh-expiration-days:14}") long expirationDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expirationDays = expirationDays;
+    }
+
+    /**
+     * 로그인 시 새 체인의 첫 리프레시 토큰을 발급한다.
+     */
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * 리프레시 토큰을 사용 처리하고 같은 체인의 새 토큰을 발급한다.
+     * 재사용 감지로 체인을 폐기한 경우에도 폐기 내용은 커밋되어야 하므로 IllegalArgumentException 에서 롤백하지 않는다.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        if (current.isRevoked()) {
+            // 이미 사용된 토큰의 재사용 -> 체인 전체 폐기
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Refresh token reuse detected");
+        }
+        // 만료된 토큰은 사용 처리하지 않는다. (사용 처리 후 거절하면 같은 토큰의 재시도가 재사용으로 보인다)
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Refresh token expired");
+        }
+        if (refreshTokenRepository.markUsed(current.getId()) == 0) {
+            // 동시에 같은 토큰으로 요청해 다른 쪽이 먼저 사용했다.
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Refresh token reuse detected");
+        }
+
+        User user = current.getUser();
+        if (!user.isActive()) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
+
+        return new Rotation(user, issue(user, current.getFamilyId()));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAll(User user) {
+        refreshTokenRepository.revokeAllByUserId(user.getId());
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plusDays(expirationDays))
+                .revoked(false)
+                .build());
+
+        return rawToken;
+    }
+
+    private String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
@@ -0,0 +1,85 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.dto.account.BalanceAsOfDto;
+import panicathe.autumnfintech.dto.account.StatementDto;
+import panicathe.autumnfintech.dto.account.StatementLineDto;
+import panicathe.autumnfintech.entity.Transaction;
+import panicathe.autumnfintech.repository.AccountRepository;
+import panicathe.autumnfintech.repository.TransactionRepository;
+import panicathe.autumnfintech.snapshot.BalanceSnapshotService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 거래 명세서와 특정 시점 잔액 조회.
+ * 기초 잔액은 잔액 스냅샷에 이후 거래만 더해 구하므로 전체 거래 이력을 합산하지 않는다.
+ * DB 반영이 비동기이므로 방금 처리된 거래는 잠시 뒤에 명세서에 나타날 수 있다.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementService {
+
+    static final long MAX_STATEMENT_DAYS = 366;
+    static final int MAX_STATEMENT_LINES = 10_000;
+
+    private static final Comparator<Transaction> OLDEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceSnapshotService balanceSnapshotService;
+
+    @Transactional(readOnly = true)
+    public BalanceAsOfDto getBalanceAsOf(String email, String accountNumber, LocalDateTime asOf) {
+        checkOwner(email, accountNumber);
+        return new BalanceAsOfDto(accountNumber, asOf, balanceSnapshotService.balanceAsOf(accountNumber, asOf));
+    }
+
+    @Transactional(readOnly = true)
+    public StatementDto getStatement(String email, String accountNumber, LocalDate from, LocalDate to) {
+        if (!to.isAfter(from) || ChronoUnit.DAYS.between(from, to) > MAX_STATEMENT_DAYS) {
+            throw new IllegalArgumentException("The statement period must be between 1 and " + MAX_STATEMENT_DAYS + " days.");
+        }
+        checkOwner(email, accountNumber);
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+        Limit limit = Limit.of(MAX_STATEMENT_LINES + 1);
+        List<Transaction> transactions = new ArrayList<>(transactionRepository.findOutgoingBetween(accountNumber, start, end, limit));
+        transactions.addAll(transactionRepository.findIncomingBetween(accountNumber, start, end, limit));
+        if (transactions.size() > MAX_STATEMENT_LINES) {
+            throw new IllegalArgumentException("The statement period has more than " + MAX_STATEMENT_LINES
+                    + " transactions. Use a shorter period.");
+        }
+        transactions.sort(OLDEST_FIRST);
+
+        long opening = balanceSnapshotService.balanceAsOf(accountNumber, start);
+        long balance = opening;
+        List<StatementLineDto> lines = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            boolean incoming = accountNumber.equals(transaction.getToAccountNumber());
+            long amount = incoming ? transaction.getAmount() : -transaction.getAmount();
+            balance += amount;
+            String counterparty = incoming ? transaction.getFromAccountNumber() : transaction.getToAccountNumber();
+            lines.add(new StatementLineDto(transaction.getId(), transaction.getType(), transaction.getStatus(),
+                    counterparty, amount, balance, transaction.getCreatedAt()));
+        }
+        return new StatementDto(accountNumber, from, to, opening, balance, lines);
+    }
+
+    private void checkOwner(String email, String accountNumber) {
+        if (!accountRepository.existsByAccountNumberAndUserEmail(accountNumber, email)) {
+            throw new EntityNotFoundException("Account not found");
+        }
+    }
+}
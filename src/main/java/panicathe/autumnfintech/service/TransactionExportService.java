@@ -0,0 +1,91 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.exception.RateLimitExceededException;
+import panicathe.autumnfintech.export.ExportFormat;
+import panicathe.autumnfintech.export.TransactionExport;
+import panicathe.autumnfintech.export.TransactionExporter;
+import panicathe.autumnfintech.repository.AccountRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 거래 내역 전체 내보내기.
+ * 소유자 확인과 파라미터 검증은 요청 스레드에서 끝내 일반 오류 응답(400/404)으로 돌려주고,
+ * 본문은 응답을 보내기 시작한 뒤 읽기 전용 트랜잭션(복제본이 있으면 복제본)에서 스트리밍한다.
+ * 내보내기 하나가 끝날 때까지 DB 커넥션과 비동기 스레드를 하나씩 잡으므로 동시에 진행할 수 있는 수를 제한하고,
+ * 넘으면 스트리밍을 시작하기 전에 429 로 거절한다.
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final LocalDateTime OLDEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // MySQL DATETIME 최댓값
+    private static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final AccountRepository accountRepository;
+    private final TransactionExporter transactionExporter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore permits;
+
+    public TransactionExportService(AccountRepository accountRepository, TransactionExporter transactionExporter,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${spring.export.max-concurrent:4}") int maxConcurrent) {
+        this.accountRepository = accountRepository;
+        this.transactionExporter = transactionExporter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * [from, to) 구간(생략하면 전체)의 거래를 내보낸다. email 이 null 이면 관리자 요청으로 보고 소유자 확인을 생략한다.
+     */
+    public TransactionExport export(String email, String accountNumber, LocalDate from, LocalDate to,
+                                    ExportFormat format, boolean gzip) {
+        LocalDateTime start = from == null ? OLDEST : from.atStartOfDay();
+        LocalDateTime end = to == null ? NEWEST : to.atStartOfDay();
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("'to' must be after 'from'.");
+        }
+        boolean found = email == null
+                ? accountRepository.existsByAccountNumber(accountNumber)
+                : accountRepository.existsByAccountNumberAndUserEmail(accountNumber, email);
+        if (!found) {
+            throw new EntityNotFoundException("Account not found");
+        }
+        if (!permits.tryAcquire()) {
+            throw new RateLimitExceededException("Too many exports in progress. Please retry later.", 1);
+        }
+
+        // 허가는 본문을 다 쓰거나 실패한 뒤 비동기 스레드에서 반납한다.
+        return TransactionExport.of(accountNumber, format, gzip, out -> {
+            try {
+                long rows = readOnlyTransaction.execute(status -> {
+                    try {
+                        return transactionExporter.export(accountNumber, start, end, format, gzip, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.debug("Exported {} transactions of account {}", rows, accountNumber);
+            } catch (UncheckedIOException e) {
+                // 응답 상태는 이미 나갔으므로 클라이언트는 잘린 파일을 받는다.
+                log.info("Transaction export of account {} aborted: {}", accountNumber, e.getCause().getMessage());
+                throw e.getCause();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.dto.account.TransactionDto;
+import panicathe.autumnfintech.dto.account.TransactionPageDto;
+import panicathe.autumnfintech.entity.Transaction;
+import panicathe.autumnfintech.repository.AccountRepository;
+import panicathe.autumnfintech.repository.TransactionRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 계좌 거래 이력 조회.
+ * 커서가 있으면 (createdAt, id) 기준 keyset 페이징으로 조회하므로 페이지 깊이와 관계없이 비용이 일정하다.
+ * 커서 없이 page 를 주면 앞쪽 페이지(MAX_OFFSET_PAGE 까지)에 한해 offset 페이징을 지원한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_OFFSET_PAGE = 100;
+
+    // 첫 페이지의 시작 커서 (MySQL DATETIME 최댓값)
+    private static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId).reversed();
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+
+    @Transactional(readOnly = true)
+    public TransactionPageDto getHistory(String email, String accountNumber, String cursor, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        if (!accountRepository.existsByAccountNumberAndUserEmail(accountNumber, email)) {
+            throw new EntityNotFoundException("Account not found");
+        }
+
+        if (cursor != null) {
+            Cursor position = Cursor.decode(cursor);
+            return page(accountNumber, position.createdAt(), position.id(), 0, size);
+        }
+        if (page < 0 || page > MAX_OFFSET_PAGE) {
+            throw new IllegalArgumentException("Page must be between 0 and " + MAX_OFFSET_PAGE + ". Use the cursor for deeper pages.");
+        }
+        return page(accountNumber, NEWEST, Long.MAX_VALUE, page * size, size);
+    }
+
+    /**
+     * 출금/입금 인덱스를 각각 범위 탐색해 최신순으로 합친다. 다음 페이지 존재 여부를 알기 위해 한 건 더 읽는다.
+     */
+    private TransactionPageDto page(String accountNumber, LocalDateTime createdAt, long id, int skip, int size) {
+        Limit limit = Limit.of(skip + size + 1);
+        List<Transaction> merged = new ArrayList<>(transactionRepository.findOutgoingBefore(accountNumber, createdAt, id, limit));
+        merged.addAll(transactionRepository.findIncomingBefore(accountNumber, createdAt, id, limit));
+        merged.sort(NEWEST_FIRST);
+
+        int from = Math.min(skip, merged.size());
+        int to = Math.min(skip + size, merged.size());
+        List<Transaction> window = merged.subList(from, to);
+
+        String nextCursor = null;
+        if (merged.size() > skip + size && !window.isEmpty()) {
+            Transaction last = window.get(window.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new TransactionPageDto(window.stream().map(TransactionDto::from).toList(), nextCursor);
+    }
+
+    // 클라이언트에게는 의미 없는 문자열로 보이도록 base64url 로 감싼다.
+    record Cursor(LocalDateTime createdAt, long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package panicathe.autumnfintech.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import panicathe.autumnfintech.audit.AuditTrail;
+import panicathe.autumnfintech.dto.account.TransactionResultDto;
+import panicathe.autumnfintech.dto.account.TransferRequestDto;
+import panicathe.autumnfintech.entity.AuditEventType;
+import panicathe.autumnfintech.ledger.BalanceEngine;
+import panicathe.autumnfintech.ledger.LedgerReceipt;
+
+/**
+ * 입금/출금/송금. 잔액 검증과 변경은 BalanceEngine 이 메모리에서 처리하고,
+ * DB 반영은 WAL 을 통해 비동기로 이루어지므로 이 서비스는 DB 트랜잭션을 열지 않는다.
+ * 성공한 거래는 감사 로그(AuditTrail)에 남긴다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionService {
+
+    private final BalanceEngine balanceEngine;
+    private final AuditTrail auditTrail;
+
+    public TransactionResultDto deposit(String email, String accountNumber, long amount) {
+        LedgerReceipt receipt = balanceEngine.deposit(email, accountNumber, amount);
+        auditTrail.record(AuditEventType.DEPOSIT, email, accountNumber, null, amount, receipt.transactionId());
+        return new TransactionResultDto(receipt.transactionId(), accountNumber, receipt.balance());
+    }
+
+    public TransactionResultDto withdraw(String email, String accountNumber, long amount) {
+        LedgerReceipt receipt = balanceEngine.withdraw(email, accountNumber, amount);
+        auditTrail.record(AuditEventType.WITHDRAW, email, accountNumber, null, amount, receipt.transactionId());
+        return new TransactionResultDto(receipt.transactionId(), accountNumber, receipt.balance());
+    }
+
+    public TransactionResultDto transfer(String email, TransferRequestDto transferRequestDto) {
+        LedgerReceipt receipt = balanceEngine.transfer(email, transferRequestDto.getFromAccountNumber(),
+                transferRequestDto.getToAccountNumber(), transferRequestDto.getAmount());
+        auditTrail.record(AuditEventType.TRANSFER, email, transferRequestDto.getFromAccountNumber(),
+                transferRequestDto.getToAccountNumber(), transferRequestDto.getAmount(), receipt.transactionId());
+        return new TransactionResultDto(receipt.transactionId(), transferRequestDto.getFromAccountNumber(), receipt.balance());
+    }
+
+    public TransactionResultDto cancelTransfer(String email, long transactionId) {
+        LedgerReceipt receipt = balanceEngine.cancel(email, transactionId);
+        auditTrail.record(AuditEventType.TRANSFER_CANCELLED, email, receipt.accountNumber(),
+                receipt.counterpartyAccountNumber(), receipt.amount(), receipt.transactionId());
+        return new TransactionResultDto(receipt.transactionId(), receipt.accountNumber(), receipt.balance());
+    }
+}
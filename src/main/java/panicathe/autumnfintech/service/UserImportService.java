@@ -0,0 +1,250 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.audit.AuditTrail;
+import panicathe.autumnfintech.dto.user.UserDto;
+import panicathe.autumnfintech.dto.user.UserImportJobDto;
+import panicathe.autumnfintech.dto.user.UserImportStatus;
+import panicathe.autumnfintech.entity.AuditEventType;
+import panicathe.autumnfintech.exception.ServiceBusyException;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+import panicathe.autumnfintech.security.PasswordHasher;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 제휴사 온보딩용 대량 회원 등록.
+ * 10만 건이면 BCrypt 해싱에만 수십 분이 걸리므로 요청에서는 작업을 접수만 하고, 전용 스레드 하나가 차례로 처리한다.
+ * 진행 상황은 작업 ID 로 조회한다. 작업 상태는 접수한 노드의 메모리에만 있고, 끝난 뒤 retention 시간이 지나면 지워진다.
+ * <p>
+ * JPA 를 거치지 않고 청크 단위 JDBC batch INSERT 로 저장한다 (rewriteBatchedStatements 로 청크당 한 번의 왕복).
+ * 이미 존재하는 이메일/사용자명은 청크당 한 번의 조회로 걸러내고, 동시 등록과의 경합은 ON DUPLICATE KEY UPDATE 로 건너뛴다.
+ * INSERT IGNORE 와 달리 중복 외의 오류(길이 초과 등)는 경고로 바뀌지 않고 그대로 실패한다.
+ * <p>
+ * 청크마다 한 트랜잭션으로 커밋하므로, 중간에 실패하면 앞선 청크는 반영된 채 작업이 FAILED 로 끝나고 processed 가 그 경계를 알려준다.
+ * 반영된 회원은 다음 제출에서 중복으로 건너뛰므로 같은 목록을 다시 제출하면 나머지만 등록된다.
+ * 단건 가입과 같이 실제로 추가된 회원마다 REGISTER 감사 이벤트를 청크 커밋 뒤에 남긴다.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String SELECT_EXISTING_SQL =
+            "SELECT email, username FROM user WHERE email IN (:emails) OR username IN (:usernames)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user (id, username, password, email, is_active, role, created_at, updated_at) "
+                    + "VALUES (:id, :username, :password, :email, :isActive, :role, :createdAt, :updatedAt) "
+                    + "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SELECT_INSERTED_SQL = "SELECT email FROM user WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHasher passwordHasher;
+    private final SnowflakeIdGenerator snowflakeIdGenerator;
+    private final AuditTrail auditTrail;
+    private final int chunkSize;
+    private final long retentionMillis;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(NamedParameterJdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             PasswordHasher passwordHasher,
+                             SnowflakeIdGenerator snowflakeIdGenerator,
+                             AuditTrail auditTrail,
+                             @Value("${spring.partner.import-chunk-size:1000}") int chunkSize,
+                             @Value("${spring.partner.import-queue-capacity:4}") int queueCapacity,
+                             @Value("${spring.partner.import-retention-hours:24}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordHasher = passwordHasher;
+        this.snowflakeIdGenerator = snowflakeIdGenerator;
+        this.auditTrail = auditTrail;
+        this.chunkSize = chunkSize;
+        this.retentionMillis = TimeUnit.HOURS.toMillis(retentionHours);
+        // 해싱 풀을 나눠 쓰므로 작업은 한 번에 하나만 실행하고, 대기 작업 수도 제한한다.
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 등록 작업을 접수하고 바로 반환한다. 대기 중인 작업이 가득 차면 ServiceBusyException(503)으로 거절한다.
+     */
+    public UserImportJobDto submit(String partner, List<UserDto> userDtos) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), partner, userDtos.size());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, userDtos));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceBusyException("Too many user imports are in progress. Try again later.");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * 작업 진행 상황을 조회한다. 다른 제휴사의 작업은 없는 것으로 본다.
+     */
+    public UserImportJobDto getJob(String partner, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.partner.equals(partner)) {
+            throw new EntityNotFoundException("Import job not found");
+        }
+        return job.toDto();
+    }
+
+    /**
+     * retention 시간이 지난 완료/실패 작업을 지운다.
+     */
+    @Scheduled(fixedDelay = 600_000L)
+    public void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.finishedAtMillis != 0 && job.finishedAtMillis < cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, List<UserDto> userDtos) {
+        job.status = UserImportStatus.RUNNING;
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        try {
+            for (int from = 0; from < userDtos.size(); from += chunkSize) {
+                List<UserDto> chunk = userDtos.subList(from, Math.min(from + chunkSize, userDtos.size()));
+                int registered = registerChunk(chunk, seenEmails, seenUsernames);
+                job.registered += registered;
+                job.skipped += chunk.size() - registered;
+                job.processed += chunk.size();
+            }
+            job.finish(UserImportStatus.COMPLETED, null);
+        } catch (RuntimeException e) {
+            log.error("User import {} failed after {} of {} users", job.id, job.processed, job.requested, e);
+            job.finish(UserImportStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private int registerChunk(List<UserDto> chunk, Set<String> seenEmails, Set<String> seenUsernames) {
+        excludeExisting(chunk, seenEmails, seenUsernames);
+
+        List<UserDto> accepted = new ArrayList<>(chunk.size());
+        for (UserDto userDto : chunk) {
+            // 요청 내 중복과 DB 에 이미 있는 항목은 seen 집합에 들어 있으므로 건너뛴다.
+            if (seenEmails.contains(userDto.getEmail()) || seenUsernames.contains(userDto.getUsername())) {
+                continue;
+            }
+            seenEmails.add(userDto.getEmail());
+            seenUsernames.add(userDto.getUsername());
+            accepted.add(userDto);
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        // 해싱은 트랜잭션 밖에서 끝내 커넥션을 오래 잡지 않는다.
+        List<String> passwords = passwordHasher.encodeAll(accepted.stream().map(UserDto::getPassword).toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        SqlParameterSource[] batch = new SqlParameterSource[accepted.size()];
+        List<Long> ids = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserDto userDto = accepted.get(i);
+            long id = snowflakeIdGenerator.nextId();
+            ids.add(id);
+            batch[i] = new MapSqlParameterSource()
+                    .addValue("id", id)
+                    .addValue("username", userDto.getUsername())
+                    .addValue("password", passwords.get(i))
+                    .addValue("email", userDto.getEmail())
+                    .addValue("isActive", true)
+                    .addValue("role", "ROLE_USER")
+                    .addValue("createdAt", now)
+                    .addValue("updatedAt", now);
+        }
+
+        List<String> inserted = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+            // rewrite 된 batch 는 건별 결과 대신 SUCCESS_NO_INFO(-2)를 반환하고, 중복 행도 found rows 로 1 이 될 수 있다.
+            // 새로 만든 ID 로 들어간 행만 읽으면 드라이버 설정과 관계없이 실제로 추가된 회원이 나온다.
+            List<String> emails = jdbcTemplate.queryForList(SELECT_INSERTED_SQL, new MapSqlParameterSource("ids", ids), String.class);
+            auditTrail.recordAllAfterCommit(AuditEventType.REGISTER, emails);
+            return emails;
+        });
+        return inserted == null ? 0 : inserted.size();
+    }
+
+    private void excludeExisting(List<UserDto> chunk, Set<String> seenEmails, Set<String> seenUsernames) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", chunk.stream().map(UserDto::getEmail).toList())
+                .addValue("usernames", chunk.stream().map(UserDto::getUsername).toList());
+
+        jdbcTemplate.query(SELECT_EXISTING_SQL, params, rs -> {
+            seenEmails.add(rs.getString("email"));
+            seenUsernames.add(rs.getString("username"));
+        });
+    }
+
+    // 작업 스레드 하나만 값을 바꾸고, 조회 스레드는 volatile 로 최신 값을 읽는다.
+    private static final class ImportJob {
+        final String id;
+        final String partner;
+        final int requested;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile UserImportStatus status = UserImportStatus.QUEUED;
+        volatile int processed;
+        volatile int registered;
+        volatile int skipped;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+        volatile long finishedAtMillis;
+
+        ImportJob(String id, String partner, int requested) {
+            this.id = id;
+            this.partner = partner;
+            this.requested = requested;
+        }
+
+        void finish(UserImportStatus finalStatus, String cause) {
+            error = cause;
+            finishedAt = LocalDateTime.now();
+            finishedAtMillis = System.currentTimeMillis();
+            status = finalStatus;
+        }
+
+        UserImportJobDto toDto() {
+            return new UserImportJobDto(id, status, requested, processed, registered, skipped, error, submittedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package panicathe.autumnfintech.snapshot;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.dto.snapshot.BalanceMismatchDto;
+import panicathe.autumnfintech.dto.snapshot.ReconciliationReportDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 모든 계좌에 대해 "마지막 스냅샷 + 이후 거래 합계" 가 account.balance 와 같은지 대조한다.
+ * 계좌번호 목록을 반씩 나누는 fork-join 작업으로 chunk-size 단위까지 쪼개고, 각 조각은 별도 트랜잭션에서
+ * 잔액/스냅샷/거래 합계를 IN 조회 세 번으로 읽는다. 조각마다 REPEATABLE_READ 스냅샷에서 읽으므로
+ * 대조 중에 LedgerPersister 가 잔액과 거래 내역을 반영해도 한 조각 안에서는 서로 어긋나지 않는다.
+ * 대조 대상은 메모리의 BalanceEngine 이 아니라 DB 에 반영된 잔액이다.
+ */
+@Slf4j
+@Component
+public class BalanceReconciler {
+
+    private static final String SELECT_ACCOUNT_NUMBERS_SQL = "SELECT account_number FROM account ORDER BY account_number";
+
+    private final BalanceSnapshotService snapshotService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int maxReportedMismatches;
+
+    public BalanceReconciler(BalanceSnapshotService snapshotService, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${spring.snapshot.reconcile-parallelism:4}") int parallelism,
+                             @Value("${spring.snapshot.chunk-size:1000}") int chunkSize,
+                             @Value("${spring.snapshot.max-reported-mismatches:1000}") int maxReportedMismatches) {
+        this.snapshotService = snapshotService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 읽기 전용이지만 복제본이 아닌 primary 에서 읽어야 하므로 readOnly 로 두지 않는다.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+        this.maxReportedMismatches = maxReportedMismatches;
+    }
+
+    public ReconciliationReportDto reconcile() {
+        long startNanos = System.nanoTime();
+        List<String> accountNumbers = jdbcTemplate.queryForList(SELECT_ACCOUNT_NUMBERS_SQL, String.class);
+        Result result = pool.invoke(new ReconcileTask(accountNumbers));
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (result.mismatchCount() > 0) {
+            log.warn("Balance reconciliation found {} mismatched accounts out of {}",
+                    result.mismatchCount(), result.checked());
+        }
+        return new ReconciliationReportDto(result.snapshotAsOf(), result.checked(), result.mismatchCount(),
+                result.mismatches(), elapsedMillis);
+    }
+
+    private Result reconcileChunk(List<String> accountNumbers) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime checkpoint = snapshotService.loadCheckpoint();
+            Map<String, Long> balances = balances(accountNumbers);
+            Map<String, BalanceSnapshotService.Snapshot> snapshots = snapshotService.latestSnapshots(accountNumbers, checkpoint);
+            Map<String, Long> deltas = snapshotService.deltasSince(accountNumbers, checkpoint);
+
+            List<BalanceMismatchDto> mismatches = new ArrayList<>();
+            long mismatchCount = 0;
+            for (String accountNumber : accountNumbers) {
+                Long actual = balances.get(accountNumber);
+                if (actual == null) {
+                    continue;
+                }
+                BalanceSnapshotService.Snapshot snapshot = snapshots.get(accountNumber);
+                long base = snapshot == null ? 0 : snapshot.balance();
+                long delta = deltas.getOrDefault(accountNumber, 0L);
+                if (base + delta != actual) {
+                    mismatchCount++;
+                    if (mismatches.size() < maxReportedMismatches) {
+                        mismatches.add(new BalanceMismatchDto(accountNumber, snapshot == null ? null : snapshot.asOf(),
+                                base, delta, base + delta, actual));
+                    }
+                }
+            }
+            return new Result(checkpoint, balances.size(), mismatchCount, mismatches);
+        });
+    }
+
+    private Map<String, Long> balances(List<String> accountNumbers) {
+        String sql = "SELECT account_number, balance FROM account WHERE account_number IN ("
+                + String.join(", ", Collections.nCopies(accountNumbers.size(), "?")) + ")";
+        Map<String, Long> balances = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            balances.put(rs.getString("account_number"), rs.getLong("balance"));
+        }, accountNumbers.toArray());
+        return balances;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    private final class ReconcileTask extends RecursiveTask<Result> {
+
+        private final List<String> accountNumbers;
+
+        ReconcileTask(List<String> accountNumbers) {
+            this.accountNumbers = accountNumbers;
+        }
+
+        @Override
+        protected Result compute() {
+            if (accountNumbers.size() <= chunkSize) {
+                return accountNumbers.isEmpty() ? Result.EMPTY : reconcileChunk(accountNumbers);
+            }
+            int middle = accountNumbers.size() / 2;
+            ReconcileTask left = new ReconcileTask(accountNumbers.subList(0, middle));
+            ReconcileTask right = new ReconcileTask(accountNumbers.subList(middle, accountNumbers.size()));
+            left.fork();
+            Result rightResult = right.compute();
+            return left.join().merge(rightResult, maxReportedMismatches);
+        }
+    }
+
+    // 조각별로 스냅샷 시점이 다를 수 있으면(대조 중 스냅샷 실행) 더 늦은 시점을 보고한다.
+    private record Result(LocalDateTime snapshotAsOf, long checked, long mismatchCount, List<BalanceMismatchDto> mismatches) {
+
+        static final Result EMPTY = new Result(null, 0, 0, List.of());
+
+        Result merge(Result other, int maxMismatches) {
+            LocalDateTime asOf = snapshotAsOf == null ? other.snapshotAsOf
+                    : other.snapshotAsOf == null || snapshotAsOf.isAfter(other.snapshotAsOf) ? snapshotAsOf : other.snapshotAsOf;
+            List<BalanceMismatchDto> merged = new ArrayList<>(mismatches);
+            for (BalanceMismatchDto mismatch : other.mismatches) {
+                if (merged.size() >= maxMismatches) {
+                    break;
+                }
+                merged.add(mismatch);
+            }
+            return new Result(asOf, checked + other.checked, mismatchCount + other.mismatchCount, merged);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package panicathe.autumnfintech.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.dto.snapshot.SnapshotRunDto;
+import panicathe.autumnfintech.exception.ServiceBusyException;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+import panicathe.autumnfintech.ledger.LedgerPersister;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 계좌별 잔액 스냅샷을 주기적으로 기록하고, 스냅샷을 기준으로 특정 시점의 잔액을 계산한다.
+ * 스냅샷은 이전 스냅샷 시점부터 이번 시점까지의 거래만 계좌별로 집계해 직전 스냅샷에 더하므로
+ * 실행 비용이 전체 거래 이력이 아니라 그 구간의 거래 수에 비례한다.
+ * 거래 내역은 LedgerPersister 가 비동기로 반영하므로 스냅샷 시점은 현재보다 safety-lag 만큼 이전으로 잡고,
+ * 그 시점 이전의 거래가 아직 반영 대기 중이면 실행하지 않는다.
+ */
+@Slf4j
+@Component
+public class BalanceSnapshotService {
+
+    // 첫 스냅샷은 이 시점부터의 모든 거래를 읽는다. (계좌는 잔액 0 으로 만들어지고 거래로만 바뀐다)
+    static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String INIT_CHECKPOINT_SQL =
+            "INSERT IGNORE INTO balance_snapshot_checkpoint (id, as_of) VALUES (1, ?)";
+    private static final String LOCK_CHECKPOINT_SQL = "SELECT as_of FROM balance_snapshot_checkpoint WHERE id = 1 FOR UPDATE";
+    private static final String SELECT_CHECKPOINT_SQL = "SELECT as_of FROM balance_snapshot_checkpoint WHERE id = 1";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE balance_snapshot_checkpoint SET as_of = ? WHERE id = 1";
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO balance_snapshot (id, account_number, as_of, balance) VALUES (?, ?, ?, ?)";
+    // 취소(CANCEL) 거래는 원거래를 되돌리는 반대 방향 기록이므로 상태와 관계없이 모든 거래를 더한다.
+    private static final String RANGE_DELTAS_SQL =
+            "SELECT account_number, SUM(delta) AS delta FROM ("
+                    + "SELECT to_account_number AS account_number, amount AS delta FROM transactions "
+                    + "WHERE created_at >= ? AND created_at < ? AND to_account_number IS NOT NULL "
+                    + "UNION ALL "
+                    + "SELECT from_account_number AS account_number, -amount AS delta FROM transactions "
+                    + "WHERE created_at >= ? AND created_at < ? AND from_account_number IS NOT NULL"
+                    + ") d GROUP BY account_number ORDER BY account_number";
+    private static final String ACCOUNT_DELTA_SQL =
+            "SELECT COALESCE((SELECT SUM(amount) FROM transactions "
+                    + "WHERE to_account_number = ? AND created_at >= ? AND created_at < ?), 0) "
+                    + "- COALESCE((SELECT SUM(amount) FROM transactions "
+                    + "WHERE from_account_number = ? AND created_at >= ? AND created_at < ?), 0)";
+    private static final String LATEST_ACCOUNT_SNAPSHOT_SQL =
+            "SELECT as_of, balance FROM balance_snapshot WHERE account_number = ? AND as_of <= ? "
+                    + "ORDER BY as_of DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerPersister ledgerPersister;
+    private final SnowflakeIdGenerator idGenerator;
+    private final long safetyLagSeconds;
+    private final int chunkSize;
+
+    public BalanceSnapshotService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                  LedgerPersister ledgerPersister, SnowflakeIdGenerator idGenerator,
+                                  @Value("${spring.snapshot.safety-lag-seconds:300}") long safetyLagSeconds,
+                                  @Value("${spring.snapshot.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledgerPersister = ledgerPersister;
+        this.idGenerator = idGenerator;
+        this.safetyLagSeconds = safetyLagSeconds;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${spring.snapshot.cron:0 10 0 * * *}")
+    public void scheduledSnapshot() {
+        try {
+            SnapshotRunDto run = takeSnapshot();
+            log.info("Balance snapshot as of {} written for {} accounts in {} ms",
+                    run.getAsOf(), run.getAccounts(), run.getElapsedMillis());
+        } catch (RuntimeException e) {
+            log.warn("Balance snapshot failed, will retry on the next schedule", e);
+        }
+    }
+
+    /**
+     * 현재 시각에서 safety-lag 를 뺀 시점(초 단위 절삭)으로 스냅샷을 기록한다.
+     */
+    public SnapshotRunDto takeSnapshot() {
+        LocalDateTime asOf = LocalDateTime.now().minusSeconds(safetyLagSeconds).truncatedTo(ChronoUnit.SECONDS);
+        return takeSnapshot(asOf);
+    }
+
+    /**
+     * asOf 이전(미포함)의 거래를 반영한 스냅샷을 기록한다. 이미 그 이후 시점까지 기록되어 있으면 아무것도 하지 않는다.
+     * 체크포인트 행을 잠그므로 여러 인스턴스가 동시에 실행해도 한 번씩 차례로 처리된다.
+     */
+    public SnapshotRunDto takeSnapshot(LocalDateTime asOf) {
+        if (!isPersistedUpTo(asOf)) {
+            throw new ServiceBusyException("Ledger persistence has not caught up with " + asOf + ". Try again later.");
+        }
+        jdbcTemplate.update(INIT_CHECKPOINT_SQL, Timestamp.valueOf(EPOCH));
+        long startNanos = System.nanoTime();
+        return transactionTemplate.execute(status -> {
+            LocalDateTime from = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, LocalDateTime.class);
+            if (from == null || !asOf.isAfter(from)) {
+                return new SnapshotRunDto(from, from, 0, 0);
+            }
+
+            List<AccountDelta> deltas = jdbcTemplate.query(RANGE_DELTAS_SQL,
+                    (rs, rowNum) -> new AccountDelta(rs.getString("account_number"), rs.getLong("delta")),
+                    Timestamp.valueOf(from), Timestamp.valueOf(asOf), Timestamp.valueOf(from), Timestamp.valueOf(asOf));
+
+            Timestamp asOfTimestamp = Timestamp.valueOf(asOf);
+            for (int start = 0; start < deltas.size(); start += chunkSize) {
+                List<AccountDelta> chunk = deltas.subList(start, Math.min(start + chunkSize, deltas.size()));
+                Map<String, Snapshot> previous = latestSnapshots(chunk.stream().map(AccountDelta::accountNumber).toList(), from);
+                List<Object[]> rows = new ArrayList<>(chunk.size());
+                for (AccountDelta delta : chunk) {
+                    Snapshot base = previous.get(delta.accountNumber());
+                    long balance = (base == null ? 0 : base.balance()) + delta.delta();
+                    rows.add(new Object[]{idGenerator.nextId(), delta.accountNumber(), asOfTimestamp, balance});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, rows);
+            }
+            jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, asOfTimestamp);
+            return new SnapshotRunDto(from, asOf, deltas.size(), (System.nanoTime() - startNanos) / 1_000_000);
+        });
+    }
+
+    /**
+     * asOf 이전(미포함)의 거래까지 반영한 잔액. 마지막 스냅샷 이후의 거래만 계좌 인덱스로 범위 탐색해 더한다.
+     * 호출하는 쪽의 트랜잭션에 참여하므로 같은 트랜잭션에서 읽은 거래 내역과 어긋나지 않는다.
+     */
+    public long balanceAsOf(String accountNumber, LocalDateTime asOf) {
+        List<Snapshot> latest = jdbcTemplate.query(LATEST_ACCOUNT_SNAPSHOT_SQL,
+                (rs, rowNum) -> new Snapshot(rs.getTimestamp("as_of").toLocalDateTime(), rs.getLong("balance")),
+                accountNumber, Timestamp.valueOf(asOf));
+        Snapshot base = latest.isEmpty() ? new Snapshot(EPOCH, 0) : latest.get(0);
+        Timestamp from = Timestamp.valueOf(base.asOf());
+        Timestamp to = Timestamp.valueOf(asOf);
+        Long delta = jdbcTemplate.queryForObject(ACCOUNT_DELTA_SQL, Long.class,
+                accountNumber, from, to, accountNumber, from, to);
+        return base.balance() + (delta == null ? 0 : delta);
+    }
+
+    /**
+     * 현재 트랜잭션에서 마지막 스냅샷 시점을 읽는다. 아직 스냅샷이 없으면 EPOCH.
+     */
+    LocalDateTime loadCheckpoint() {
+        List<LocalDateTime> asOf = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, LocalDateTime.class);
+        return asOf.isEmpty() || asOf.get(0) == null ? EPOCH : asOf.get(0);
+    }
+
+    /**
+     * 계좌별로 asOf 이전(포함)의 마지막 스냅샷. 스냅샷이 없는 계좌는 결과에 없다.
+     */
+    Map<String, Snapshot> latestSnapshots(List<String> accountNumbers, LocalDateTime asOf) {
+        if (accountNumbers.isEmpty()) {
+            return Map.of();
+        }
+        String in = placeholders(accountNumbers.size());
+        String sql = "SELECT s.account_number, s.as_of, s.balance FROM balance_snapshot s JOIN ("
+                + "SELECT account_number, MAX(as_of) AS as_of FROM balance_snapshot "
+                + "WHERE account_number IN (" + in + ") AND as_of <= ? GROUP BY account_number"
+                + ") l ON s.account_number = l.account_number AND s.as_of = l.as_of";
+        List<Object> args = new ArrayList<>(accountNumbers);
+        args.add(Timestamp.valueOf(asOf));
+
+        Map<String, Snapshot> snapshots = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            snapshots.put(rs.getString("account_number"),
+                    new Snapshot(rs.getTimestamp("as_of").toLocalDateTime(), rs.getLong("balance")));
+        }, args.toArray());
+        return snapshots;
+    }
+
+    /**
+     * 계좌별로 from 이후(포함) 거래의 합계. 거래가 없는 계좌는 결과에 없다.
+     */
+    Map<String, Long> deltasSince(List<String> accountNumbers, LocalDateTime from) {
+        if (accountNumbers.isEmpty()) {
+            return Map.of();
+        }
+        String in = placeholders(accountNumbers.size());
+        String sql = "SELECT account_number, SUM(delta) AS delta FROM ("
+                + "SELECT to_account_number AS account_number, amount AS delta FROM transactions "
+                + "WHERE to_account_number IN (" + in + ") AND created_at >= ? "
+                + "UNION ALL "
+                + "SELECT from_account_number AS account_number, -amount AS delta FROM transactions "
+                + "WHERE from_account_number IN (" + in + ") AND created_at >= ?"
+                + ") d GROUP BY account_number";
+        Timestamp since = Timestamp.valueOf(from);
+        List<Object> args = new ArrayList<>(accountNumbers.size() * 2 + 2);
+        args.addAll(accountNumbers);
+        args.add(since);
+        args.addAll(accountNumbers);
+        args.add(since);
+
+        Map<String, Long> deltas = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            deltas.put(rs.getString("account_number"), rs.getLong("delta"));
+        }, args.toArray());
+        return deltas;
+    }
+
+    // WAL 에 기록된 마지막 LSN 까지 반영되었거나, 반영된 마지막 기록이 asOf 이후이면 asOf 이전의 거래는 모두 DB 에 있다.
+    // 큐가 비어 있어도 반영 스레드가 꺼내 간 배치가 아직 커밋 전일 수 있으므로 큐 크기로는 판단하지 않는다.
+    // durable LSN 을 먼저 읽어야 그 사이에 반영이 진행되어도 잘못 통과하지 않는다.
+    private boolean isPersistedUpTo(LocalDateTime asOf) {
+        long asOfMillis = asOf.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long durableLsn = ledgerPersister.getDurableLsn();
+        return ledgerPersister.getPersistedLsn() >= durableLsn
+                || ledgerPersister.getPersistedTimestampMillis() >= asOfMillis;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    record Snapshot(LocalDateTime asOf, long balance) {
+    }
+
+    private record AccountDelta(String accountNumber, long delta) {
+    }
+}
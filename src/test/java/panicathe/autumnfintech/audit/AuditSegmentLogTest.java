@@ -0,0 +1,120 @@
+package panicathe.autumnfintech.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import panicathe.autumnfintech.entity.AuditEventType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsAndReadsBackInOrder() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 1 << 20)) {
+            assertThat(log.open()).isZero();
+            log.append(List.of(event(1, AuditEventType.LOGIN, "user@test.com", null, null, 0),
+                    event(2, AuditEventType.TRANSFER, "user@test.com", "100000000001", "100000000002", 5_000)));
+            log.append(List.of(event(3, AuditEventType.LOGIN_FAILED, null, null, null, 0)));
+
+            List<AuditSegmentLog.SeqAndEvent> all = log.read(0, 100);
+
+            assertThat(all).extracting(AuditSegmentLog.SeqAndEvent::seq).containsExactly(1L, 2L, 3L);
+            assertThat(all.get(1).event()).isEqualTo(event(2, AuditEventType.TRANSFER, "user@test.com", "100000000001", "100000000002", 5_000));
+            assertThat(all.get(2).event().actor()).isNull();
+            assertThat(log.read(2, 100)).extracting(AuditSegmentLog.SeqAndEvent::seq).containsExactly(3L);
+            assertThat(log.read(3, 100)).isEmpty();
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndDeletesLoadedOnes() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 200)) {
+            log.open();
+            for (int i = 1; i <= 10; i++) {
+                log.append(List.of(event(i, AuditEventType.DEPOSIT, "user@test.com", "100000000001", null, i)));
+            }
+            assertThat(segmentCount()).isGreaterThan(1);
+
+            List<Long> seqs = new ArrayList<>();
+            long after = 0;
+            List<AuditSegmentLog.SeqAndEvent> batch;
+            while (!(batch = log.read(after, 3)).isEmpty()) {
+                batch.forEach(entry -> seqs.add(entry.seq()));
+                after = batch.get(batch.size() - 1).seq();
+            }
+            assertThat(seqs).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+
+            log.deleteSegmentsUpTo(10);
+            assertThat(segmentCount()).isEqualTo(1); // 쓰고 있는 세그먼트는 남는다.
+            assertThat(log.read(9, 10)).extracting(AuditSegmentLog.SeqAndEvent::seq).containsExactly(10L);
+        }
+    }
+
+    @Test
+    void reopenTruncatesTornTailAndContinuesSequence() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 1 << 20)) {
+            log.open();
+            log.append(List.of(event(1, AuditEventType.REGISTER, "a@test.com", null, null, 0),
+                    event(2, AuditEventType.REGISTER, "b@test.com", null, null, 0)));
+        }
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        try (FileChannel file = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            file.truncate(intact - 5); // 마지막 레코드 일부만 남은 상태 (쓰기 도중 종료)
+        }
+
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 1 << 20)) {
+            assertThat(log.open()).isEqualTo(1);
+            log.append(List.of(event(3, AuditEventType.REGISTER, "c@test.com", null, null, 0)));
+
+            assertThat(log.read(0, 10)).extracting(entry -> entry.event().actor())
+                    .containsExactly("a@test.com", "c@test.com");
+            assertThat(log.read(0, 10)).extracting(AuditSegmentLog.SeqAndEvent::seq).containsExactly(1L, 2L);
+        }
+    }
+
+    @Test
+    void retriedAppendOverwritesBytesLeftByAFailedWrite() throws IOException {
+        try (AuditSegmentLog log = new AuditSegmentLog(directory, 1 << 20)) {
+            log.open();
+            log.append(List.of(event(1, AuditEventType.REGISTER, "a@test.com", null, null, 0)));
+            long intact = Files.size(segments().get(0));
+            try (FileChannel file = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+                file.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 42, 1, 2, 3}), intact); // 실패한 쓰기가 남긴 일부
+            }
+
+            log.append(List.of(event(2, AuditEventType.REGISTER, "b@test.com", null, null, 0)));
+
+            assertThat(log.read(0, 10)).extracting(AuditSegmentLog.SeqAndEvent::seq).containsExactly(1L, 2L);
+            assertThat(log.read(0, 10)).extracting(entry -> entry.event().actor())
+                    .containsExactly("a@test.com", "b@test.com");
+        }
+    }
+
+    private static AuditEvent event(long id, AuditEventType type, String actor, String account, String counterparty, long amount) {
+        return new AuditEvent(id, type, actor, account, counterparty, amount, 0, 1_700_000_000_000L + id);
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package panicathe.autumnfintech.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void dropsInsteadOfBlockingWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.getDropped()).isEqualTo(1);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(0, 1, 2, 3);
+        assertThat(buffer.offer(5)).isTrue();
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void drainRespectsMaxAndKeepsOrderAcrossWrapAround() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(8);
+        List<Integer> drained = new ArrayList<>();
+        int next = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 5; i++) {
+                buffer.offer(next++);
+            }
+            buffer.drainTo(drained, 3);
+            buffer.drainTo(drained, 3);
+        }
+
+        for (int i = 0; i < drained.size(); i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+        assertThat(drained).hasSize(50);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhenConsumerKeepsUp() throws InterruptedException {
+        MpscRingBuffer<Long> buffer = new MpscRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        List<Long> drained = new ArrayList<>();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drainTo(drained, 256);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(drained).hasSize(producers * perProducer).doesNotHaveDuplicates();
+        // 생산자별로는 넣은 순서대로 나온다.
+        long[] last = new long[producers];
+        java.util.Arrays.fill(last, -1);
+        for (long value : drained) {
+            int producer = (int) (value / perProducer);
+            assertThat(value).isGreaterThan(last[producer]);
+            last[producer] = value;
+        }
+    }
+}
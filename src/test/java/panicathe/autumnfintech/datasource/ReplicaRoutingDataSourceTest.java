@@ -0,0 +1,125 @@
+package panicathe.autumnfintech.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica0;
+    private DataSource replica1;
+    private ReadYourWritesTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica0 = database("replica-a");
+        replica1 = database("replica-b");
+        tracker = new ReadYourWritesTracker(5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplicaAndWritesGoToPrimary() {
+        Routing routing = routing(List.of(replica0));
+
+        assertThat(routing.readOnly()).isEqualTo("replica-a");
+        assertThat(routing.readWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsRoundRobinAcrossReplicas() {
+        Routing routing = routing(List.of(replica0, replica1));
+
+        assertThat(List.of(routing.readOnly(), routing.readOnly(), routing.readOnly(), routing.readOnly()))
+                .containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+    }
+
+    @Test
+    void recentWriterReadsFromPrimary() {
+        Routing routing = routing(List.of(replica0));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@test.com", null, List.of()));
+
+        assertThat(routing.readOnly()).isEqualTo("replica-a");
+
+        tracker.recordWrite("user@test.com", System.currentTimeMillis());
+        assertThat(routing.readOnly()).isEqualTo("primary");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("other@test.com", null, List.of()));
+        assertThat(routing.readOnly()).isEqualTo("replica-a");
+    }
+
+    @Test
+    void unreachableReplicaFailsOverToPrimaryAndIsSkipped() {
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:file:/nonexistent-dir/replica;IFEXISTS=TRUE", "sa", "");
+        Routing routing = routing(List.of(broken, replica1));
+
+        assertThat(routing.readOnly()).isEqualTo("primary");
+        assertThat(routing.dataSource.isHealthy(0)).isFalse();
+        assertThat(List.of(routing.readOnly(), routing.readOnly())).containsExactly("replica-b", "replica-b");
+
+        routing.dataSource.checkReplicas();
+        assertThat(routing.dataSource.isHealthy(0)).isFalse();
+        assertThat(routing.dataSource.isHealthy(1)).isTrue();
+    }
+
+    @Test
+    void allReplicasDownRoutesEverythingToPrimary() {
+        DataSource broken = new DriverManagerDataSource("jdbc:h2:file:/nonexistent-dir/replica;IFEXISTS=TRUE", "sa", "");
+        Routing routing = routing(List.of(broken));
+        routing.dataSource.checkReplicas();
+
+        assertThat(routing.readOnly()).isEqualTo("primary");
+    }
+
+    private Routing routing(List<DataSource> replicas) {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, tracker);
+        return new Routing(dataSource, new LazyConnectionDataSourceProxy(dataSource));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private record Routing(ReplicaRoutingDataSource dataSource, DataSource proxy) {
+
+        String readOnly() {
+            return query(true);
+        }
+
+        String readWrite() {
+            return query(false);
+        }
+
+        private String query(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> new JdbcTemplate(proxy).queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
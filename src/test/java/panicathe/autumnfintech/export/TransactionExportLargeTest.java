@@ -0,0 +1,95 @@
+package panicathe.autumnfintech.export;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 힙보다 큰 내보내기가 일정한 메모리로 끝나는지 확인한다. 기본 테스트에서는 제외되며
+ * ./gradlew largeExportTest 로 64MB 힙에서 실행한다. (행 수: -Pexport.rows=...)
+ * 파일 기반 H2 를 쓰므로 데이터 자체는 힙에 올라오지 않는다. 조각마다 커넥션을 새로 얻으므로 DB 는 열어 둔다.
+ */
+@Tag("large-export")
+class TransactionExportLargeTest {
+
+    private static final String ACCOUNT = "100000000001";
+    private static final int INSERT_BATCH = 100_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void exportsMillionsOfRowsWithConstantMemory() throws IOException {
+        long rowCount = Long.getLong("export.rows", 2_000_000);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:file:" + dir.resolve("export") + ";MODE=MySQL;CACHE_SIZE=4096;DB_CLOSE_DELAY=-1", "sa", ""));
+        createTransactions(jdbcTemplate, rowCount);
+        TransactionExporter exporter = new TransactionExporter(jdbcTemplate, 1000, 1000);
+
+        CountingOutputStream csv = new CountingOutputStream();
+        long rows = exporter.export(ACCOUNT, LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                ExportFormat.CSV, false, csv);
+
+        assertThat(rows).isEqualTo(rowCount);
+        assertThat(csv.lines).isEqualTo(rowCount + 1);
+        // 출력 전체가 힙보다 크므로 메모리에 모았다면 OutOfMemoryError 로 실패한다.
+        assertThat(csv.bytes).isGreaterThan(Runtime.getRuntime().maxMemory());
+
+        CountingOutputStream ndjsonGzip = new CountingOutputStream();
+        assertThat(exporter.export(ACCOUNT, LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                ExportFormat.NDJSON, true, ndjsonGzip)).isEqualTo(rowCount);
+        assertThat(ndjsonGzip.bytes).isPositive();
+    }
+
+    private static void createTransactions(JdbcTemplate jdbcTemplate, long rowCount) {
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, type VARCHAR(16) NOT NULL, "
+                + "from_account_number VARCHAR(12), to_account_number VARCHAR(12), amount BIGINT NOT NULL, "
+                + "status VARCHAR(16) NOT NULL, original_transaction_id BIGINT, lsn BIGINT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_from_created ON transactions (from_account_number, created_at, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_to_created ON transactions (to_account_number, created_at, id)");
+        // 짝수는 입금, 홀수는 출금. 한 문장으로 넣으면 언두 로그가 커지므로 나눠서 넣는다.
+        for (long start = 1; start <= rowCount; start += INSERT_BATCH) {
+            long end = Math.min(start + INSERT_BATCH - 1, rowCount);
+            jdbcTemplate.update("INSERT INTO transactions SELECT X, "
+                    + "CASEWHEN(MOD(X, 2) = 0, 'DEPOSIT', 'WITHDRAW'), "
+                    + "CASEWHEN(MOD(X, 2) = 0, NULL, '" + ACCOUNT + "'), "
+                    + "CASEWHEN(MOD(X, 2) = 0, '" + ACCOUNT + "', NULL), "
+                    + "1000, 'COMPLETED', NULL, X, DATEADD(SECOND, X, TIMESTAMP '2024-01-01 00:00:00') "
+                    + "FROM SYSTEM_RANGE(?, ?)", start, end);
+        }
+    }
+
+    // 받은 바이트 수와 줄 수만 센다.
+    private static final class CountingOutputStream extends OutputStream {
+
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
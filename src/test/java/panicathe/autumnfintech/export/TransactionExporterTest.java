@@ -0,0 +1,131 @@
+package panicathe.autumnfintech.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionExporter.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.export.fetch-size=2",
+        "spring.export.flush-rows=2"
+})
+class TransactionExporterTest {
+
+    private static final String ACCOUNT = "100000000001";
+    private static final LocalDateTime OLDEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        insert(1, "DEPOSIT", null, ACCOUNT, 1_000, null, LocalDateTime.of(2024, 10, 1, 9, 0));
+        insert(2, "TRANSFER", ACCOUNT, "100000000002", 300, null, LocalDateTime.of(2024, 10, 2, 9, 0));
+        insert(3, "TRANSFER", "100000000002", "100000000003", 700, null, LocalDateTime.of(2024, 10, 2, 10, 0));
+        insert(4, "CANCEL", "100000000002", ACCOUNT, 300, 2L, LocalDateTime.of(2024, 10, 3, 9, 0));
+    }
+
+    @Test
+    void exportsOwnTransactionsOldestFirstAsCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.export(ACCOUNT, OLDEST, NEWEST, ExportFormat.CSV, false, out);
+
+        assertThat(rows).isEqualTo(3);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(TransactionExporter.CSV_HEADER
+                + "1,DEPOSIT,COMPLETED,,100000000001,1000,,2024-10-01T09:00:00\n"
+                + "2,TRANSFER,COMPLETED,100000000001,100000000002,300,,2024-10-02T09:00:00\n"
+                + "4,CANCEL,COMPLETED,100000000002,100000000001,300,2,2024-10-03T09:00:00\n");
+    }
+
+    @Test
+    void exportsNdjsonWithTransactionDtoFieldNames() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(ACCOUNT, LocalDateTime.of(2024, 10, 2, 0, 0), NEWEST, ExportFormat.NDJSON, false, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode cancel = new ObjectMapper().readTree(lines.get(1));
+        assertThat(cancel.get("transactionId").asLong()).isEqualTo(4);
+        assertThat(cancel.get("type").asText()).isEqualTo("CANCEL");
+        assertThat(cancel.get("fromAccountNumber").asText()).isEqualTo("100000000002");
+        assertThat(cancel.get("toAccountNumber").asText()).isEqualTo(ACCOUNT);
+        assertThat(cancel.get("amount").asLong()).isEqualTo(300);
+        assertThat(cancel.get("originalTransactionId").asLong()).isEqualTo(2);
+        assertThat(cancel.get("createdAt").asText()).isEqualTo("2024-10-03T09:00:00");
+        assertThat(new ObjectMapper().readTree(lines.get(0)).get("originalTransactionId").isNull()).isTrue();
+    }
+
+    @Test
+    void mergesBothDirectionsAcrossChunksAndEqualTimestamps() throws IOException {
+        // 같은 시각의 출금/입금이 id 순으로 섞이고, 방향마다 fetch-size(2) 를 넘겨 여러 조각으로 읽힌다.
+        LocalDateTime tie = LocalDateTime.of(2024, 10, 4, 9, 0);
+        insert(10, "TRANSFER", ACCOUNT, "100000000002", 10, null, tie);
+        insert(11, "TRANSFER", "100000000002", ACCOUNT, 11, null, tie);
+        insert(12, "TRANSFER", ACCOUNT, "100000000003", 12, null, tie);
+        insert(13, "TRANSFER", ACCOUNT, "100000000002", 13, null, tie);
+        insert(14, "TRANSFER", "100000000003", ACCOUNT, 14, null, tie);
+        insert(15, "DEPOSIT", null, ACCOUNT, 15, null, tie.plusSeconds(1));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.export(ACCOUNT, OLDEST, NEWEST, ExportFormat.CSV, false, out);
+
+        assertThat(rows).isEqualTo(9);
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1).map(line -> line.substring(0, line.indexOf(','))))
+                .containsExactly("1", "2", "4", "10", "11", "12", "13", "14", "15");
+    }
+
+    @Test
+    void gzipOutputDecompressesToThePlainExport() throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        exporter.export(ACCOUNT, OLDEST, NEWEST, ExportFormat.CSV, false, plain);
+        exporter.export(ACCOUNT, OLDEST, NEWEST, ExportFormat.CSV, true, compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.toByteArray());
+        }
+    }
+
+    private void insert(long id, String type, String from, String to, long amount, Long originalId, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (id, type, from_account_number, to_account_number, amount, status, "
+                        + "original_transaction_id, lsn, created_at) VALUES (?, ?, ?, ?, ?, 'COMPLETED', ?, ?, ?)",
+                id, type, from, to, amount, originalId, id, Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,66 @@
+package panicathe.autumnfintech.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+class AccountNumberPermutationTest {
+
+    @Test
+    void reducedWidthPermutationIsBijective() {
+        // 16비트 Feistel 에 2^16 보다 작은 범위를 줘서 cycle-walking 까지 같은 경로로 검사한다.
+        assertBijective(new AccountNumberPermutation("test-secret", 8, 50_000), 50_000);
+    }
+
+    /**
+     * 10^8 개 전체를 훑으므로 기본 테스트에서는 제외되며 ./gradlew exhaustiveTest 로 실행한다.
+     */
+    @Test
+    @Tag("exhaustive")
+    void permutationIsBijectiveOverTheWholeDomain() {
+        assertBijective(new AccountNumberPermutation("test-secret"), AccountNumberPermutation.DOMAIN);
+    }
+
+    @Test
+    void differentSecretsProduceDifferentSequences() {
+        AccountNumberPermutation first = new AccountNumberPermutation("secret-a");
+        AccountNumberPermutation second = new AccountNumberPermutation("secret-b");
+
+        int same = 0;
+        for (long counter = 0; counter < 1_000; counter++) {
+            if (first.permute(counter) == second.permute(counter)) {
+                same++;
+            }
+        }
+
+        assertThat(same).isLessThan(5);
+    }
+
+    @Test
+    void formattedNumbersAreTwelveDigitsWithPrefix() {
+        AccountNumberPermutation permutation = new AccountNumberPermutation("test-secret");
+
+        for (long counter = 0; counter < 10_000; counter++) {
+            String accountNumber = AccountNumberAllocator.format(permutation.permute(counter));
+            assertThat(accountNumber).hasSize(12).startsWith("1000").containsOnlyDigits();
+        }
+    }
+
+    private static void assertBijective(AccountNumberPermutation permutation, long domain) {
+        BitSet seen = new BitSet((int) domain);
+
+        for (long counter = 0; counter < domain; counter++) {
+            long value = permutation.permute(counter);
+            if (value < 0 || value >= domain || seen.get((int) value)) {
+                fail("Collision or out-of-range value %d for counter %d", value, counter);
+            }
+            seen.set((int) value);
+        }
+
+        assertThat(seen.cardinality()).isEqualTo((int) domain);
+    }
+}
@@ -0,0 +1,177 @@
+package panicathe.autumnfintech.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import panicathe.autumnfintech.entity.IdempotencyRecord;
+import panicathe.autumnfintech.repository.IdempotencyRecordRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final String OWNER = "user@test.com";
+    private static final StoredResponse OK = new StoredResponse(200, "application/json",
+            "{\"success\":true}".getBytes(StandardCharsets.UTF_8));
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findByOwnerAndIdempotencyKey(anyString(), anyString())).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            record.setId(1L);
+            return record;
+        });
+        when(repository.complete(any(), anyInt(), any(), any())).thenReturn(1);
+        store = new IdempotencyStore(repository, 24, 5_000, 1_000);
+    }
+
+    @Test
+    void retryReturnsStoredResponseWithoutExecutingAgain() {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+        store.complete(OWNER, "key-1", OK);
+
+        assertThat(store.claim(OWNER, "key-1", "hash")).isSameAs(OK);
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        verify(repository).complete(eq(1L), eq(200), eq("application/json"), any());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstRequest() throws Exception {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<StoredResponse> duplicate = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            return store.claim(OWNER, "key-1", "hash");
+        });
+        started.await();
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+
+        store.complete(OWNER, "key-1", OK);
+        assertThat(duplicate.get(1, TimeUnit.SECONDS)).isSameAs(OK);
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+
+        assertThatThrownBy(() -> store.claim(OWNER, "key-1", "other-hash"))
+                .isInstanceOfSatisfying(IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void keysAreScopedPerUser() {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+        assertThat(store.claim("other@test.com", "key-1", "hash")).isNull();
+    }
+
+    @Test
+    void serverErrorLeavesTheClaimIncompleteSoRetriesAreNotExecuted() {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+        store.complete(OWNER, "key-1", new StoredResponse(500, "application/json", new byte[0]));
+
+        // 송금이 이미 반영되었을 수 있으므로 DB 의 미완료 선점을 보고 다시 실행하지 않는다.
+        when(repository.findByOwnerAndIdempotencyKey(OWNER, "key-1")).thenReturn(Optional.of(incomplete()));
+        assertThatThrownBy(() -> store.claim(OWNER, "key-1", "hash"))
+                .isInstanceOfSatisfying(IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        verify(repository, times(0)).complete(any(), anyInt(), any(), any());
+        verify(repository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void failureWithoutAResponseFailsWaitersAndKeepsTheClaim() throws Exception {
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+        CompletableFuture<StoredResponse> duplicate = CompletableFuture.supplyAsync(() -> store.claim(OWNER, "key-1", "hash"));
+        Thread.sleep(100);
+
+        store.fail(OWNER, "key-1", new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> duplicate.get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IdempotencyException.class);
+        assertThat(store.size()).isZero();
+        verify(repository, times(0)).delete(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void completedKeyFromDatabaseIsReplayed() {
+        when(repository.findByOwnerAndIdempotencyKey(OWNER, "key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id(7L)
+                .owner(OWNER)
+                .idempotencyKey("key-1")
+                .requestHash("hash")
+                .completed(true)
+                .responseStatus(200)
+                .responseContentType("application/json")
+                .responseBody(OK.body())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build()));
+
+        StoredResponse replayed = store.claim(OWNER, "key-1", "hash");
+
+        assertThat(replayed.status()).isEqualTo(200);
+        assertThat(replayed.body()).isEqualTo(OK.body());
+        verify(repository, times(0)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void incompleteKeyFromDatabaseIsNeverExecutedAgain() {
+        // 처리하던 인스턴스가 죽었어도 송금이 WAL 에 기록되었을 수 있으므로 넘겨받지 않는다.
+        when(repository.findByOwnerAndIdempotencyKey(OWNER, "key-1")).thenReturn(Optional.of(incomplete()));
+
+        assertThatThrownBy(() -> store.claim(OWNER, "key-1", "hash"))
+                .isInstanceOfSatisfying(IdempotencyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        verify(repository, times(0)).saveAndFlush(any(IdempotencyRecord.class));
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void failedCompletionIsNotKeptInMemory() {
+        when(repository.complete(any(), anyInt(), any(), any())).thenThrow(new IllegalStateException("db down"));
+        assertThat(store.claim(OWNER, "key-1", "hash")).isNull();
+
+        store.complete(OWNER, "key-1", OK);
+        assertThat(store.size()).isZero();
+
+        // DB 를 다시 보고, 남아 있는 미완료 선점 때문에 다시 실행하지 않는다.
+        when(repository.findByOwnerAndIdempotencyKey(OWNER, "key-1")).thenReturn(Optional.of(incomplete()));
+        assertThatThrownBy(() -> store.claim(OWNER, "key-1", "hash")).isInstanceOf(IdempotencyException.class);
+        verify(repository, times(2)).findByOwnerAndIdempotencyKey(OWNER, "key-1");
+    }
+
+    private static IdempotencyRecord incomplete() {
+        return IdempotencyRecord.builder()
+                .id(7L)
+                .owner(OWNER)
+                .idempotencyKey("key-1")
+                .requestHash("hash")
+                .completed(false)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
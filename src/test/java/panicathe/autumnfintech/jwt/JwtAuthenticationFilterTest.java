@@ -0,0 +1,73 @@
+package panicathe.autumnfintech.jwt;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtProvider jwtProvider = mock(JwtProvider.class);
+    private final TokenRevocationRegistry revocationRegistry = mock(TokenRevocationRegistry.class);
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(jwtProvider, revocationRegistry, new MetricsRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenAuthenticatesTheRequest() throws Exception {
+        long now = System.currentTimeMillis();
+        when(jwtProvider.verify("token"))
+                .thenReturn(new JwtClaims("jti", "user@example.com", "ROLE_USER", now, now + 60_000));
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), chain);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void invalidTokenContinuesWithoutAuthentication() throws Exception {
+        when(jwtProvider.verify("token")).thenThrow(new JwtException("bad signature"));
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), chain);
+
+        verify(chain, times(1)).doFilter(any(), any());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void downstreamExceptionPropagatesWithoutRunningTheChainAgain() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        doThrow(new IllegalArgumentException("downstream")).when(chain).doFilter(any(), any());
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("downstream");
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
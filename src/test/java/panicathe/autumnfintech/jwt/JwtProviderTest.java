@@ -0,0 +1,59 @@
+package panicathe.autumnfintech.jwt;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtProviderTest {
+
+    private static final String SECRET = "YourSecretKeyMustBeAtLeast32CharactersLong";
+
+    @Test
+    void verifyReturnsAllClaimsAndCachesVerifiedToken() {
+        JwtProvider jwtProvider = new JwtProvider(SECRET, 100);
+        String token = jwtProvider.create("user@example.com", "ROLE_USER");
+
+        JwtClaims first = jwtProvider.verify(token);
+        JwtClaims second = jwtProvider.verify(token);
+
+        assertThat(first.email()).isEqualTo("user@example.com");
+        assertThat(first.role()).isEqualTo("ROLE_USER");
+        assertThat(second).isSameAs(first);
+        assertThat(jwtProvider.getCacheMisses()).isEqualTo(1);
+        assertThat(jwtProvider.getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalIsCached() {
+        JwtProvider jwtProvider = new JwtProvider(SECRET, 100);
+        String token = jwtProvider.create("user@example.com", "ROLE_USER");
+        jwtProvider.verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtProvider.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void cacheStaysBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            cache.put(cache.keyOf("token-" + i), new JwtClaims("jti-" + i, "u" + i, "ROLE_USER", now, now + 60_000), now);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void expiredEntryIsNotServedFromCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        String key = cache.keyOf("token");
+        cache.put(key, new JwtClaims("jti", "u", "ROLE_USER", 0L, 1_000L), 0L);
+
+        assertThat(cache.get(key, 999L)).isNotNull();
+        assertThat(cache.get(key, 1_000L)).isNull();
+    }
+}
@@ -0,0 +1,107 @@
+package panicathe.autumnfintech.jwt;
+
+import org.junit.jupiter.api.Test;
+import panicathe.autumnfintech.entity.TokenRevocation;
+import panicathe.autumnfintech.repository.TokenRevocationRepository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationRegistryTest {
+
+    private final TokenRevocationRegistry registry = new TokenRevocationRegistry(mock(TokenRevocationRepository.class));
+
+    @Test
+    void tokensIssuedBeforeUserRevocationAreRevoked() {
+        LocalDateTime revokedAt = LocalDateTime.now();
+        long revokedAtMillis = revokedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        registry.revokeUser("user@example.com", revokedAt);
+
+        JwtClaims older = claims("a", "user@example.com", revokedAtMillis - 5_000);
+        JwtClaims newer = claims("b", "user@example.com", revokedAtMillis + 5_000);
+        JwtClaims otherUser = claims("c", "other@example.com", revokedAtMillis - 5_000);
+
+        assertThat(registry.isRevoked(older)).isTrue();
+        assertThat(registry.isRevoked(newer)).isFalse();
+        assertThat(registry.isRevoked(otherUser)).isFalse();
+    }
+
+    @Test
+    void individuallyRevokedTokenIdIsRejectedUntilPurged() {
+        long now = System.currentTimeMillis();
+        JwtClaims loggedOut = claims("jti-1", "user@example.com", now);
+        JwtClaims expired = new JwtClaims("jti-2", "user@example.com", "ROLE_USER", now - 7_200_000, now - 1);
+
+        registry.revokeToken(loggedOut);
+        registry.revokeToken(expired);
+        registry.purgeExpired();
+
+        assertThat(registry.isRevoked(loggedOut)).isTrue();
+        assertThat(registry.isRevoked(claims("jti-3", "user@example.com", now))).isFalse();
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void syncAppliesUserAndTokenRevocationsFromOtherNodesAndContinuesFromTheLastId() {
+        TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+        TokenRevocationRegistry synced = new TokenRevocationRegistry(repository);
+        // 다른 노드가 기록한 값. 이 노드의 시계보다 1분 앞서 있어도 순번으로만 이어 읽는다.
+        LocalDateTime revokedAt = LocalDateTime.now().plusMinutes(1);
+        long now = System.currentTimeMillis();
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(
+                userRevocation(1, "user@example.com", revokedAt),
+                tokenRevocation(2, "other@example.com", "jti-1", now + 3_600_000)));
+
+        synced.load();
+        synced.syncFromDatabase();
+
+        verify(repository).findByIdGreaterThanOrderByIdAsc(2L);
+        long revokedAtMillis = revokedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        assertThat(synced.isRevoked(claims("a", "user@example.com", revokedAtMillis - 1))).isTrue();
+        assertThat(synced.isRevoked(claims("jti-1", "other@example.com", now))).isTrue();
+        assertThat(synced.isRevoked(claims("jti-2", "other@example.com", now))).isFalse();
+    }
+
+    @Test
+    void gapInTheSequenceIsReadAgainUntilTheLateCommitAppears() {
+        TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+        TokenRevocationRegistry synced = new TokenRevocationRegistry(repository);
+        long now = System.currentTimeMillis();
+        // 2번이 아직 커밋되지 않아 3번만 보인다.
+        when(repository.findByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(
+                tokenRevocation(1, "user@example.com", "jti-1", now + 3_600_000),
+                tokenRevocation(3, "user@example.com", "jti-3", now + 3_600_000)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(1L)).thenReturn(List.of(
+                tokenRevocation(2, "user@example.com", "jti-2", now + 3_600_000),
+                tokenRevocation(3, "user@example.com", "jti-3", now + 3_600_000)));
+
+        synced.load();
+        synced.syncFromDatabase();
+        synced.syncFromDatabase();
+
+        verify(repository).findByIdGreaterThanOrderByIdAsc(1L);
+        verify(repository).findByIdGreaterThanOrderByIdAsc(3L);
+        assertThat(synced.isRevoked(claims("jti-2", "user@example.com", now))).isTrue();
+    }
+
+    private JwtClaims claims(String tokenId, String email, long issuedAtMillis) {
+        return new JwtClaims(tokenId, email, "ROLE_USER", issuedAtMillis, issuedAtMillis + 3_600_000);
+    }
+
+    private static TokenRevocation userRevocation(long id, String email, LocalDateTime revokedAt) {
+        return TokenRevocation.builder().id(id).email(email).revokedAt(revokedAt).expiresAt(revokedAt.plusHours(1)).build();
+    }
+
+    private static TokenRevocation tokenRevocation(long id, String email, String tokenId, long expiresAtMillis) {
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault());
+        return TokenRevocation.builder().id(id).email(email).tokenId(tokenId).revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,252 @@
+package panicathe.autumnfintech.ledger;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.entity.TransactionType;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdGeneratorConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ledger;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class BalanceEngineTest {
+
+    private static final String OWNER = "owner@example.com";
+    // 16개 샤드에서 A 는 3번, B 는 2번 샤드에 들어간다. (A -> B 송금은 B 의 샤드 락을 먼저 잡는다)
+    private static final String A = "100000000001";
+    private static final String B = "100000000002";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 10, 1, 0, 0);
+
+    @TempDir
+    Path walDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    private LedgerPersister persister;
+    private BalanceEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM ledger_checkpoint");
+        jdbcTemplate.update("DELETE FROM account");
+        jdbcTemplate.update("DELETE FROM user");
+
+        jdbcTemplate.update("INSERT INTO user (id, username, password, email, is_active, role, created_at, updated_at) "
+                + "VALUES (1, 'owner', 'x', ?, TRUE, 'ROLE_USER', ?, ?)", OWNER, ts(), ts());
+        insertAccount(1, A, 1_000);
+        insertAccount(2, B, 1_000);
+
+        persister = new LedgerPersister(jdbcTemplate, transactionManager, 100);
+        engine = startEngine(persister);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        engine.stop();
+        persister.stop();
+    }
+
+    @Test
+    void overdraftIsRejectedWithoutChangingTheBalance() {
+        assertThatThrownBy(() -> engine.withdraw(OWNER, A, 1_001))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient balance.");
+        assertThatThrownBy(() -> engine.transfer(OWNER, A, B, 1_001))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient balance.");
+
+        assertThat(engine.withdraw(OWNER, A, 1_000).balance()).isZero();
+        assertThat(engine.balance(OWNER, B)).isEqualTo(1_000);
+    }
+
+    @Test
+    void debitLimitsApplyToWithdrawalsAndTransfers() {
+        engine.updateLimits(A, new AccountLimits(500L, null, null, 800L));
+
+        assertThatThrownBy(() -> engine.withdraw(OWNER, A, 600))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount exceeds the account's transaction limit.");
+
+        engine.withdraw(OWNER, A, 500);
+        assertThatThrownBy(() -> engine.transfer(OWNER, A, B, 400))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount exceeds the account's daily limit.");
+        engine.transfer(OWNER, A, B, 300);
+
+        assertThat(engine.balance(OWNER, A)).isEqualTo(200);
+        assertThat(engine.balance(OWNER, B)).isEqualTo(1_300);
+    }
+
+    @Test
+    void concurrentTransfersInOppositeDirectionsDoNotDeadlock() throws Exception {
+        int transfers = 1_000; // 한쪽이 모두 먼저 실행되어도 잔액이 모자라지 않는 횟수
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> aToB = executor.submit(() -> transferRepeatedly(start, A, B, transfers));
+            Future<?> bToA = executor.submit(() -> transferRepeatedly(start, B, A, transfers));
+            start.countDown();
+
+            aToB.get(30, TimeUnit.SECONDS);
+            bToA.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(engine.balance(OWNER, A) + engine.balance(OWNER, B)).isEqualTo(2_000);
+        assertThat(engine.balance(OWNER, A)).isEqualTo(1_000);
+    }
+
+    @Test
+    void restartRestoresCheckpointedBalancesAndReplaysTheWalAfterIt() throws Exception {
+        engine.deposit(OWNER, A, 500);
+        awaitPersisted(persister, 1);
+
+        // 반영 스레드를 멈춰 이후 기록은 WAL 에만 남긴다.
+        persister.stop();
+        long transferId = engine.transfer(OWNER, A, B, 300).transactionId();
+        engine.withdraw(OWNER, B, 100);
+        engine.stop();
+
+        assertThat(accountBalance(A)).isEqualTo(1_500);
+        assertThat(jdbcTemplate.queryForObject("SELECT lsn FROM ledger_checkpoint WHERE id = 1", Long.class)).isEqualTo(1);
+
+        persister = new LedgerPersister(jdbcTemplate, transactionManager, 100);
+        engine = startEngine(persister);
+
+        assertThat(engine.balance(OWNER, A)).isEqualTo(1_200);
+        assertThat(engine.balance(OWNER, B)).isEqualTo(1_200);
+        awaitPersisted(persister, 3);
+        assertThat(accountBalance(A)).isEqualTo(1_200);
+        assertThat(accountBalance(B)).isEqualTo(1_200);
+
+        // WAL 에서 다시 채운 송금도 취소할 수 있다.
+        LedgerReceipt cancelled = engine.cancel(OWNER, transferId);
+        assertThat(cancelled.balance()).isEqualTo(1_500);
+        assertThat(cancelled.counterpartyAccountNumber()).isEqualTo(B);
+        assertThat(cancelled.amount()).isEqualTo(300);
+        assertThat(engine.balance(OWNER, B)).isEqualTo(900);
+    }
+
+    @Test
+    void batchThatWasCommittedButReportedAsFailedIsNotAppliedTwice() throws Exception {
+        engine.deposit(OWNER, A, 500);
+        awaitPersisted(persister, 1);
+
+        // 커밋 응답을 받지 못해 같은 배치를 다시 보낸 경우와 같다.
+        Long depositId = jdbcTemplate.queryForObject("SELECT id FROM transactions WHERE lsn = 1", Long.class);
+        persister.enqueue(List.of(new WalEntry(1, new LedgerRecord(depositId, TransactionType.DEPOSIT, null, A, 500,
+                System.currentTimeMillis()))));
+        engine.deposit(OWNER, A, 100);
+        awaitPersisted(persister, 2);
+
+        assertThat(accountBalance(A)).isEqualTo(1_600);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void closeRemovesTheAccountOnlyAfterCommit() {
+        assertThatThrownBy(() -> engine.close(OWNER, A))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot close an account with remaining balance.");
+        engine.transfer(OWNER, A, B, 1_000);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            engine.close(OWNER, A);
+            // 커밋 전에도 해지 중인 계좌로의 거래는 거절된다.
+            assertThatThrownBy(() -> engine.transfer(OWNER, B, A, 100)).isInstanceOf(EntityNotFoundException.class);
+            status.setRollbackOnly();
+        });
+        assertThat(engine.deposit(OWNER, A, 100).balance()).isEqualTo(100);
+        engine.withdraw(OWNER, A, 100);
+
+        transaction.executeWithoutResult(status -> engine.close(OWNER, A));
+        assertThatThrownBy(() -> engine.balance(OWNER, A)).isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> engine.deposit(OWNER, A, 100)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private BalanceEngine startEngine(LedgerPersister ledgerPersister) throws Exception {
+        BalanceEngine started = new BalanceEngine(jdbcTemplate, transactionManager, ledgerPersister, idGenerator,
+                16, walDir.toString(), 1 << 20, 64);
+        started.start();
+        return started;
+    }
+
+    private void transferRepeatedly(CountDownLatch start, String from, String to, int count) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            engine.transfer(OWNER, from, to, 1);
+        }
+    }
+
+    private static void awaitPersisted(LedgerPersister ledgerPersister, long lsn) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (ledgerPersister.getPersistedLsn() < lsn) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private long accountBalance(String accountNumber) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM account WHERE account_number = ?", Long.class, accountNumber);
+    }
+
+    private void insertAccount(long id, String accountNumber, long balance) {
+        jdbcTemplate.update("INSERT INTO account (id, account_number, user_id, balance, closed, created_at, updated_at) "
+                + "VALUES (?, ?, 1, ?, FALSE, ?, ?)", id, accountNumber, balance, ts(), ts());
+    }
+
+    private static Timestamp ts() {
+        return Timestamp.valueOf(CREATED_AT);
+    }
+}
@@ -0,0 +1,64 @@
+package panicathe.autumnfintech.ledger;
+
+import org.junit.jupiter.api.Test;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CancellableTransfersTest {
+
+    private static final long HOUR = CancellableTransfers.WINDOW_MILLIS;
+
+    @Test
+    void transferIsCancellableUntilTheDeadline() {
+        long start = 1_700_000_000_000L;
+        CancellableTransfers transfers = new CancellableTransfers(4, start);
+        transfers.track(transfer(1L, start), start);
+
+        assertThat(transfers.find(1L, start + HOUR - 1)).isNotNull();
+        assertThat(transfers.find(1L, start + HOUR)).isNull();
+        assertThat(transfers.claim(1L, start + HOUR)).isFalse();
+    }
+
+    @Test
+    void claimSucceedsOnlyOnce() {
+        long start = 1_700_000_000_000L;
+        CancellableTransfers transfers = new CancellableTransfers(4, start);
+        transfers.track(transfer(1L, start), start);
+
+        assertThat(transfers.claim(1L, start + 1_000)).isTrue();
+        assertThat(transfers.claim(1L, start + 2_000)).isFalse();
+        assertThat(transfers.size()).isZero();
+    }
+
+    @Test
+    void wheelExpiresEntriesAcrossBothLevels() {
+        long start = 1_700_000_000_500L;
+        CancellableTransfers transfers = new CancellableTransfers(1, start);
+        for (int i = 0; i < 3_600; i++) {
+            // 지난 1시간 동안 1초 간격으로 들어온 송금 (재시작 시 재적재와 같은 상황)
+            transfers.track(transfer(i + 1, start - HOUR + i * 1_000L + 1), start);
+        }
+        assertThat(transfers.size()).isEqualTo(3_600);
+
+        transfers.expire(start + 1_800_000L);
+        assertThat(transfers.size()).isEqualTo(1_800);
+        assertThat(transfers.find(1_801L, start + 1_800_000L)).isNotNull();
+
+        transfers.expire(start + HOUR);
+        assertThat(transfers.size()).isZero();
+    }
+
+    @Test
+    void expiredTransfersAreNotTracked() {
+        long start = 1_700_000_000_000L;
+        CancellableTransfers transfers = new CancellableTransfers(4, start);
+        transfers.track(transfer(1L, start - HOUR), start);
+
+        assertThat(transfers.size()).isZero();
+    }
+
+    private static LedgerRecord transfer(long id, long timestamp) {
+        return new LedgerRecord(id, TransactionType.TRANSFER, "100000000001", "100000000002", 1_000L, timestamp);
+    }
+}
@@ -0,0 +1,56 @@
+package panicathe.autumnfintech.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowCounterTest {
+
+    @Test
+    void amountsLeaveTheWindowBucketByBucket() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60, 1_000L);
+        long start = 1_000_000L;
+
+        counter.add(start, 100);
+        counter.add(start + 30_000, 50);
+
+        assertThat(counter.sum(start + 59_999)).isEqualTo(150);
+        assertThat(counter.sum(start + 60_000)).isEqualTo(50);
+        assertThat(counter.sum(start + 90_000)).isZero();
+    }
+
+    @Test
+    void longIdleGapClearsEverything() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(4, 1_000L);
+        counter.add(0, 10);
+        counter.add(3_000, 20);
+
+        assertThat(counter.sum(1_000_000L)).isZero();
+        counter.add(1_000_000L, 5);
+        assertThat(counter.sum(1_000_000L)).isEqualTo(5);
+    }
+
+    @Test
+    void pastAmountsInsideTheWindowAreCountedWhenReloading() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(10, 1_000L);
+        counter.add(20_000, 1);
+        counter.add(15_000, 2);  // 윈도우 안
+        counter.add(5_000, 4);   // 윈도우 밖
+
+        assertThat(counter.sum(20_000)).isEqualTo(3);
+        assertThat(counter.sum(25_000)).isEqualTo(1);
+    }
+
+    @Test
+    void accountLimitsAccumulateAcrossWindows() {
+        AccountState account = new AccountState("100000000001", "user@test.com", 1_000_000L,
+                new AccountLimits(null, null, 1_000L, null));
+        long now = 10_000_000L;
+
+        assertThat(account.exceededLimit(now, 1_000L)).isNull();
+        account.recordDebit(now, 600L);
+        assertThat(account.exceededLimit(now + 1_000, 400L)).isNull();
+        assertThat(account.exceededLimit(now + 1_000, 401L)).isEqualTo("hourly");
+        assertThat(account.exceededLimit(now + 3_600_000L, 1_000L)).isNull();
+    }
+}
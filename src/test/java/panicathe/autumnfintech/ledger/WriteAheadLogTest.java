@@ -0,0 +1,100 @@
+package panicathe.autumnfintech.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import panicathe.autumnfintech.entity.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreDurableInOrderAndRecoveredAfterRestart() throws Exception {
+        List<WalEntry> durable = Collections.synchronizedList(new ArrayList<>());
+        WriteAheadLog wal = new WriteAheadLog(directory, WriteAheadLog.RECORD_SIZE * 100L, 64);
+        wal.recover();
+        wal.start(0, durable::addAll);
+
+        List<CompletableFuture<WalEntry>> futures = IntStream.range(0, 1_000)
+                .mapToObj(i -> wal.append(new LedgerRecord(i, TransactionType.TRANSFER, "100000000001", "100000000002", i + 1, i)))
+                .toList();
+        futures.forEach(CompletableFuture::join);
+        wal.close();
+
+        assertThat(durable).extracting(WalEntry::lsn).containsExactlyElementsOf(
+                IntStream.rangeClosed(1, 1_000).mapToObj(Long::valueOf).toList());
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, WriteAheadLog.RECORD_SIZE * 100L, 64);
+        List<WalEntry> recovered = reopened.recover();
+
+        assertThat(recovered).containsExactlyElementsOf(durable);
+    }
+
+    @Test
+    void tornTailIsTruncatedAndNumberingContinues() throws Exception {
+        WriteAheadLog wal = new WriteAheadLog(directory, 1 << 20, 16);
+        wal.recover();
+        wal.start(0, entries -> {
+        });
+        wal.append(new LedgerRecord(1L, TransactionType.DEPOSIT, null, "100000000001", 1_000, 0)).join();
+        wal.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{1, 2, 3}, StandardOpenOption.APPEND); // 쓰다 만 레코드
+
+        WriteAheadLog reopened = new WriteAheadLog(directory, 1 << 20, 16);
+        assertThat(reopened.recover()).hasSize(1);
+        reopened.start(0, entries -> {
+        });
+        WalEntry next = reopened.append(new LedgerRecord(2L, TransactionType.WITHDRAW, "100000000001", null, 500, 1)).join();
+        reopened.close();
+
+        assertThat(next.lsn()).isEqualTo(2);
+        assertThat(Files.size(segment)).isEqualTo(WriteAheadLog.SEGMENT_HEADER_SIZE + 2L * WriteAheadLog.RECORD_SIZE);
+    }
+
+    @Test
+    void segmentWithoutAHeaderRefusesToStart() throws Exception {
+        // 헤더 없이 레코드부터 시작하는 세그먼트 (마지막 세그먼트라도 잘라내지 않는다)
+        ByteBuffer headerless = ByteBuffer.allocate(WriteAheadLog.RECORD_SIZE);
+        WriteAheadLog.encode(new WalEntry(1, new LedgerRecord(101L, TransactionType.DEPOSIT, null, "100000000001", 1_000, 1)), headerless);
+        Path segment = directory.resolve(String.format("wal-%020d.log", 1));
+        Files.write(segment, headerless.array());
+
+        assertThatThrownBy(() -> new WriteAheadLog(directory, 1 << 20, 16).recover())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unrecognized WAL segment format");
+        assertThat(Files.size(segment)).isEqualTo(WriteAheadLog.RECORD_SIZE);
+    }
+
+    @Test
+    void unknownFormatVersionRefusesToStart() throws Exception {
+        Path segment = directory.resolve(String.format("wal-%020d.log", 1));
+        Files.write(segment, ByteBuffer.allocate(WriteAheadLog.SEGMENT_HEADER_SIZE + WriteAheadLog.RECORD_SIZE)
+                .putInt(WriteAheadLog.MAGIC).putInt(WriteAheadLog.VERSION + 1).array());
+
+        assertThatThrownBy(() -> new WriteAheadLog(directory, 1 << 20, 16).recover())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported WAL format version 2");
+        assertThat(Files.size(segment)).isEqualTo(WriteAheadLog.SEGMENT_HEADER_SIZE + WriteAheadLog.RECORD_SIZE);
+    }
+}
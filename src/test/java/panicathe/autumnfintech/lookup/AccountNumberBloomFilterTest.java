@@ -0,0 +1,39 @@
+package panicathe.autumnfintech.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountNumberBloomFilterTest {
+
+    @Test
+    void addedNumbersAreAlwaysFound() {
+        AccountNumberBloomFilter filter = new AccountNumberBloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.add(number(i * 7));
+        }
+        for (long i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(number(i * 7))).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        AccountNumberBloomFilter filter = new AccountNumberBloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.add(number(i * 2));
+        }
+        int falsePositives = 0;
+        for (long i = 0; i < 100_000; i++) {
+            if (filter.mightContain(number(i * 2 + 1))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+
+    private static String number(long value) {
+        return "1000" + String.format("%08d", value);
+    }
+}
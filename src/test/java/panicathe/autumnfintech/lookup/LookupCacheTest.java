@@ -0,0 +1,49 @@
+package panicathe.autumnfintech.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupCacheTest {
+
+    @Test
+    void expiredAndInvalidatedEntriesAreMisses() {
+        LookupCache<String> cache = new LookupCache<>(100);
+        cache.put("a", "A", 1_000L);
+        cache.put("b", "B", 1_000L);
+
+        assertThat(cache.get("a", 999L)).isEqualTo("A");
+        assertThat(cache.get("a", 1_000L)).isNull();
+
+        cache.invalidate("b");
+        assertThat(cache.get("b", 0L)).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void valueReadBeforeAnInvalidationIsNotCached() {
+        LookupCache<String> cache = new LookupCache<>(100);
+        long generation = cache.generation("a");
+
+        // 원본을 읽는 사이에 커밋된 해지가 캐시를 지웠다.
+        cache.invalidate("a");
+        assertThat(cache.putIfNotInvalidated("a", "stale", Long.MAX_VALUE, generation)).isFalse();
+        assertThat(cache.get("a", 0L)).isNull();
+
+        assertThat(cache.putIfNotInvalidated("a", "fresh", Long.MAX_VALUE, cache.generation("a"))).isTrue();
+        assertThat(cache.get("a", 0L)).isEqualTo("fresh");
+    }
+
+    @Test
+    void sizeIsBoundedByEvictingLeastRecentlyUsed() {
+        LookupCache<Integer> cache = new LookupCache<>(1_600);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("key-" + i, i, Long.MAX_VALUE);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1_600);
+        assertThat(cache.getEvictions()).isEqualTo(10_000 - cache.size());
+        assertThat(cache.get("key-9999", 0L)).isEqualTo(9_999);
+    }
+}
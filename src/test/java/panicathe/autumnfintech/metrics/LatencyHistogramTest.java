@@ -0,0 +1,60 @@
+package panicathe.autumnfintech.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndCoverTheirValues() {
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertThat(LatencyHistogram.highestValueOf(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValueOf(index - 1)).isLessThan(value);
+            }
+        }
+        assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE >>> 21)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void percentilesStayWithinRelativeErrorOfExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // 100ns ~ 100ms 로그 분포
+            values[i] = (long) Math.pow(10, 2 + random.nextDouble() * 6);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(values.length);
+        assertThat(snapshot.maxNanos()).isEqualTo(values[values.length - 1]);
+        for (double quantile : new double[] {0.5, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            assertThat((double) snapshot.valueAtQuantile(quantile)).isCloseTo(exact, within(exact * 0.04));
+        }
+        assertThat(snapshot.meanNanos()).isCloseTo(Arrays.stream(values).average().orElseThrow(), within(1.0));
+    }
+
+    @Test
+    void emptyAndOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.snapshot().valueAtQuantile(0.99)).isZero();
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(2);
+        assertThat(snapshot.valueAtQuantile(0.5)).isZero();
+        assertThat(snapshot.valueAtQuantile(1.0)).isEqualTo(snapshot.maxNanos());
+    }
+}
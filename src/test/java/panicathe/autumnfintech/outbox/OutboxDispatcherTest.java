@@ -0,0 +1,167 @@
+package panicathe.autumnfintech.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(IdGeneratorConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class OutboxDispatcherTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM outbox_event");
+        jdbcTemplate.update("DELETE FROM outbox_sink_offset");
+    }
+
+    @Test
+    void deliversAllEventsInOrderInBatches() {
+        insertEvents(1, 2_500);
+        InMemorySink sink = new InMemorySink("statements", 0);
+        OutboxDispatcher dispatcher = dispatcher(List.of(sink));
+
+        dispatcher.dispatch();
+
+        assertThat(sink.batchSizes).containsExactly(1_000, 1_000, 500);
+        assertThat(sink.eventIds()).containsExactlyElementsOf(LongStream.rangeClosed(1, 2_500).boxed().toList());
+        assertThat(dispatcher.getOffset("statements")).isEqualTo(2_500);
+    }
+
+    @Test
+    void eachRunDeliversAtMostMaxBatchesPerSink() {
+        insertEvents(1, 2_500);
+        InMemorySink sink = new InMemorySink("statements", 0);
+        OutboxDispatcher dispatcher = dispatcher(List.of(sink), 2);
+
+        dispatcher.dispatch();
+        assertThat(sink.batchSizes).containsExactly(1_000, 1_000);
+        assertThat(dispatcher.getOffset("statements")).isEqualTo(2_000);
+
+        dispatcher.dispatch();
+        assertThat(sink.batchSizes).containsExactly(1_000, 1_000, 500);
+        assertThat(dispatcher.getOffset("statements")).isEqualTo(2_500);
+    }
+
+    @Test
+    void failedSinkRetriesFromItsOwnOffsetWithoutBlockingOthers() {
+        insertEvents(1, 10);
+        InMemorySink healthy = new InMemorySink("notifications", 0);
+        InMemorySink flaky = new InMemorySink("fraud", 1);
+        OutboxDispatcher dispatcher = dispatcher(List.of(flaky, healthy));
+
+        dispatcher.dispatch();
+        assertThat(dispatcher.getOffset("fraud")).isZero();
+        assertThat(dispatcher.getFailures("fraud")).isEqualTo(1);
+        assertThat(dispatcher.getOffset("notifications")).isEqualTo(10);
+
+        insertEvents(11, 15);
+        dispatcher.dispatch();
+
+        assertThat(flaky.eventIds()).containsExactlyElementsOf(LongStream.rangeClosed(1, 15).boxed().toList());
+        assertThat(healthy.eventIds()).containsExactlyElementsOf(LongStream.rangeClosed(1, 15).boxed().toList());
+        assertThat(dispatcher.getFailures("fraud")).isZero();
+    }
+
+    @Test
+    void purgeKeepsEventsNotYetDeliveredToEverySink() {
+        insertEvents(1, 10);
+        InMemorySink fast = new InMemorySink("statements", 0);
+        OutboxDispatcher dispatcher = dispatcher(List.of(fast, new InMemorySink("fraud", Integer.MAX_VALUE)));
+
+        dispatcher.dispatch();
+        dispatcher.purgeDelivered();
+        assertThat(count()).isEqualTo(10);
+
+        jdbcTemplate.update("UPDATE outbox_sink_offset SET last_event_id = 6 WHERE sink_name = 'fraud'");
+        dispatcher.purgeDelivered();
+        assertThat(count()).isEqualTo(4);
+    }
+
+    private OutboxDispatcher dispatcher(List<OutboxSink> sinks) {
+        return dispatcher(sinks, 10);
+    }
+
+    private OutboxDispatcher dispatcher(List<OutboxSink> sinks, int maxBatchesPerRun) {
+        OutboxDispatcher dispatcher = new OutboxDispatcher(jdbcTemplate, transactionManager, sinks, 1_000, maxBatchesPerRun, 0);
+        dispatcher.initOffsets();
+        return dispatcher;
+    }
+
+    private void insertEvents(long fromId, long toId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = fromId; id <= toId; id++) {
+            rows.add(new Object[]{id, 1_000_000 + id, "TRANSFER", "100000000001", "100000000002", 1_000L, null,
+                    new Timestamp(System.currentTimeMillis())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_event (id, transaction_id, type, from_account_number, to_account_number, "
+                + "amount, original_transaction_id, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_event", Long.class);
+    }
+
+    // 브로커 대신 받은 이벤트를 메모리에 쌓는 sink. 처음 failures 번은 실패한다.
+    private static final class InMemorySink implements OutboxSink {
+        private final String name;
+        private int failures;
+        final List<LedgerEvent> events = new ArrayList<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        InMemorySink(String name, int failures) {
+            this.name = name;
+            this.failures = failures;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void deliver(List<LedgerEvent> batch) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("broker unavailable");
+            }
+            events.addAll(batch);
+            batchSizes.add(batch.size());
+        }
+
+        List<Long> eventIds() {
+            return events.stream().map(LedgerEvent::eventId).toList();
+        }
+    }
+}
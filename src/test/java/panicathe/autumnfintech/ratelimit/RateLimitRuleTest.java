@@ -0,0 +1,63 @@
+package panicathe.autumnfintech.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitRuleTest {
+
+    @Test
+    void parsesMethodPathLimitAndPeriod() {
+        RateLimitRule rule = RateLimitRule.parse("POST /user/transfers/**=60/1m");
+
+        assertThat(rule.id()).isEqualTo("POST /user/transfers/**");
+        assertThat(rule.method()).isEqualTo("POST");
+        assertThat(rule.limit()).isEqualTo(60);
+        assertThat(rule.periodNanos()).isEqualTo(TimeUnit.MINUTES.toNanos(1));
+        assertThat(rule.matches("POST", PathContainer.parsePath("/user/transfers/123"))).isTrue();
+        assertThat(rule.matches("GET", PathContainer.parsePath("/user/transfers/123"))).isFalse();
+        assertThat(rule.matches("POST", PathContainer.parsePath("/user/accounts"))).isFalse();
+    }
+
+    @Test
+    void ruleWithoutMethodMatchesEveryMethod() {
+        RateLimitRule rule = RateLimitRule.parse(" /** = 300/1m ");
+
+        assertThat(rule.method()).isNull();
+        assertThat(rule.matches("GET", PathContainer.parsePath("/anything"))).isTrue();
+        assertThat(rule.matches("DELETE", PathContainer.parsePath("/auth/tokens"))).isTrue();
+    }
+
+    @Test
+    void periodUnitsAreSecondsMinutesAndHours() {
+        assertThat(RateLimitRule.parsePeriod("30s")).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+        assertThat(RateLimitRule.parsePeriod("5m")).isEqualTo(TimeUnit.MINUTES.toNanos(5));
+        assertThat(RateLimitRule.parsePeriod("2h")).isEqualTo(TimeUnit.HOURS.toNanos(2));
+    }
+
+    @Test
+    void listKeepsOrderAndSkipsBlankEntries() {
+        List<RateLimitRule> rules = RateLimitRule.parseList("POST /auth/tokens=20/1m; ;/**=300/1m;");
+
+        assertThat(rules).extracting(RateLimitRule::id).containsExactly("POST /auth/tokens", "/**");
+    }
+
+    @Test
+    void rejectsMalformedRules() {
+        assertThatThrownBy(() -> RateLimitRule.parse("/**"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("/**=300"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("/**=0/1m"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("/**=10/1d"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimitRule.parse("/**=ten/1m"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+}
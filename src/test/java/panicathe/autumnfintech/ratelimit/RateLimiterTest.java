@@ -0,0 +1,98 @@
+package panicathe.autumnfintech.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import panicathe.autumnfintech.exception.RateLimitExceededException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Test
+    void failedLoginsAreLimitedPerEmailAndAddress() {
+        RateLimiter limiter = limiter("2/1m", "3/1m");
+
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+        assertThatThrownBy(() -> limiter.acquireLoginAttempt(EMAIL, "10.0.0.1"))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(e -> assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isPositive());
+
+        // 다른 IP 에서는 이메일 전체 한도가 남아 있는 동안 시도할 수 있다.
+        limiter.acquireLoginAttempt(EMAIL.toUpperCase(), "10.0.0.2");
+        assertThatThrownBy(() -> limiter.acquireLoginAttempt(EMAIL, "10.0.0.3"))
+                .isInstanceOf(RateLimitExceededException.class);
+        limiter.acquireLoginAttempt("other@example.com", "10.0.0.1");
+    }
+
+    @Test
+    void successfulLoginsAreNotCounted() {
+        RateLimiter limiter = limiter("2/1m", "3/1m");
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+            limiter.releaseLoginAttempt(EMAIL, "10.0.0.1");
+        }
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+    }
+
+    @Test
+    void rejectionByTheEmailWideLimitDoesNotUseTheAddressBucket() {
+        RateLimiter limiter = limiter("2/1m", "2/1m");
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.2");
+
+        assertThatThrownBy(() -> limiter.acquireLoginAttempt(EMAIL, "10.0.0.3"))
+                .isInstanceOf(RateLimitExceededException.class);
+        // 거절된 시도는 어느 버킷에도 남지 않으므로, 성공한 로그인이 시도를 돌려주면 다시 시도할 수 있다.
+        limiter.releaseLoginAttempt(EMAIL, "10.0.0.1");
+        limiter.acquireLoginAttempt(EMAIL, "10.0.0.3");
+    }
+
+    @Test
+    void ipv6AddressesInTheSame64ShareABucket() {
+        RateLimiter limiter = new RateLimiter(true, "/**=2/1m", "/**=600/1m", "5/1m", "50/1m", 1_000);
+
+        assertThat(limiter.checkIp("GET", "/user/accounts", "2001:db8:0:0::1")).isZero();
+        assertThat(limiter.checkIp("GET", "/user/accounts", "2001:db8:0:0::2")).isZero();
+        assertThat(limiter.checkIp("GET", "/user/accounts", "2001:db8::ffff")).isPositive();
+        assertThat(limiter.checkIp("GET", "/user/accounts", "2001:db8:0:1::1")).isZero();
+    }
+
+    @Test
+    void firstMatchingRouteApplies() {
+        RateLimiter limiter = new RateLimiter(true, "POST /auth/tokens=1/1m;/**=300/1m", "/**=600/1m", "5/1m", "50/1m", 1_000);
+
+        assertThat(limiter.checkIp("POST", "/auth/tokens", "10.0.0.1")).isZero();
+        assertThat(limiter.checkIp("POST", "/auth/tokens", "10.0.0.1")).isPositive();
+        assertThat(limiter.checkIp("GET", "/user/accounts", "10.0.0.1")).isZero();
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        RateLimiter limiter = new RateLimiter(false, "/**=1/1m", "/**=1/1m", "1/1m", "1/1m", 1_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.checkIp("GET", "/", "10.0.0.1")).isZero();
+            assertThat(limiter.checkPrincipal("GET", "/", EMAIL)).isZero();
+            limiter.acquireLoginAttempt(EMAIL, "10.0.0.1");
+        }
+    }
+
+    @Test
+    void clientAndNetworkKeysGroupAddresses() {
+        assertThat(RateLimiter.clientKey("192.168.1.20")).isEqualTo("c0a80114/32");
+        assertThat(RateLimiter.networkKey("192.168.1.20")).isEqualTo("c0a801/24");
+        assertThat(RateLimiter.clientKey("2001:db8:1:2:3:4:5:6")).isEqualTo("20010db800010002/64");
+        assertThat(RateLimiter.networkKey("2001:db8:1:2:3:4:5:6")).isEqualTo("20010db80001/48");
+        assertThat(RateLimiter.clientKey("::ffff:192.168.1.20")).isEqualTo("c0a80114/32");
+        assertThat(RateLimiter.clientKey("unknown")).isEqualTo("unknown");
+    }
+
+    private static RateLimiter limiter(String loginEmail, String loginEmailTotal) {
+        return new RateLimiter(true, "/**=300/1m", "/**=600/1m", loginEmail, loginEmailTotal, 1_000);
+    }
+}
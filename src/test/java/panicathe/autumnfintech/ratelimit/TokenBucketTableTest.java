@@ -0,0 +1,128 @@
+package panicathe.autumnfintech.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTableTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void allowsBurstUpToLimitThenRejectsWithRetryAfter() {
+        TokenBucketTable table = new TokenBucketTable(4, 1000);
+        long now = 1_000 * SECOND;
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(table.tryAcquire("ip|1.2.3.4", 10, MINUTE, now)).isZero();
+        }
+        long wait = table.tryAcquire("ip|1.2.3.4", 10, MINUTE, now);
+
+        // 10회/분이면 6초마다 토큰 하나가 다시 찬다.
+        assertThat(wait).isEqualTo(6 * SECOND);
+        assertThat(table.tryAcquire("ip|5.6.7.8", 10, MINUTE, now)).isZero();
+    }
+
+    @Test
+    void refillsAtSteadyRate() {
+        TokenBucketTable table = new TokenBucketTable(4, 1000);
+        long now = 1_000 * SECOND;
+        for (int i = 0; i < 10; i++) {
+            table.tryAcquire("key", 10, MINUTE, now);
+        }
+
+        assertThat(table.tryAcquire("key", 10, MINUTE, now + 5 * SECOND)).isPositive();
+        assertThat(table.tryAcquire("key", 10, MINUTE, now + 6 * SECOND)).isZero();
+        assertThat(table.tryAcquire("key", 10, MINUTE, now + 6 * SECOND)).isPositive();
+        assertThat(table.tryAcquire("key", 10, MINUTE, now + 12 * SECOND)).isZero();
+    }
+
+    @Test
+    void evictsOnlyIdleKeys() {
+        TokenBucketTable table = new TokenBucketTable(4, 1000);
+        long now = 1_000 * SECOND;
+        table.tryAcquire("busy", 10, MINUTE, now);
+        table.tryAcquire("idle", 10, MINUTE, now - MINUTE);
+
+        table.evictIdle(now);
+
+        assertThat(table.size()).isEqualTo(1);
+        // 지워진 키는 가득 찬 버킷으로 다시 시작한다.
+        assertThat(table.tryAcquire("idle", 10, MINUTE, now)).isZero();
+    }
+
+    @Test
+    void keysBeyondCapacityShareOverflowBucket() {
+        TokenBucketTable table = new TokenBucketTable(1, 10);
+        long now = 1_000 * SECOND;
+        int allowed = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (table.tryAcquire("client-" + i, 5, MINUTE, now) == 0) {
+                allowed++;
+            }
+        }
+
+        assertThat(table.size()).isLessThanOrEqualTo(11);
+        // 표에 자리를 잡은 키의 한도 + 공용 버킷의 한도를 넘지 않는다.
+        assertThat(allowed).isLessThanOrEqualTo(10 * 5 + 5);
+    }
+
+    @Test
+    void keysBeyondCapacityUseTheirOwnOverflowBucket() {
+        TokenBucketTable table = new TokenBucketTable(1, 10);
+        long now = 1_000 * SECOND;
+        // 한 대역에서 주소를 바꿔 가며 표를 채운다.
+        for (int i = 0; i < 1_000; i++) {
+            table.tryAcquire("client-" + i, "net-a", 5, MINUTE, now);
+        }
+
+        assertThat(table.tryAcquire("new-client", "net-a", 5, MINUTE, now)).isPositive();
+        // 다른 대역의 새 클라이언트는 채워진 대역의 버킷을 함께 쓰지 않는다.
+        assertThat(table.tryAcquire("other-client", "net-b", 5, MINUTE, now)).isZero();
+    }
+
+    @Test
+    void releaseReturnsOneToken() {
+        TokenBucketTable table = new TokenBucketTable(4, 1000);
+        long now = 1_000 * SECOND;
+        table.tryAcquire("key", "net", 2, MINUTE, now);
+        table.tryAcquire("key", "net", 2, MINUTE, now);
+        assertThat(table.tryAcquire("key", "net", 2, MINUTE, now)).isPositive();
+
+        table.release("key", "net", 2, MINUTE, now);
+        assertThat(table.tryAcquire("key", "net", 2, MINUTE, now)).isZero();
+
+        // 가득 찬 버킷에 돌려주어도 한도를 넘어 쌓이지 않는다.
+        table.release("fresh", "net", 2, MINUTE, now);
+        table.tryAcquire("idle", "net", 2, MINUTE, now - MINUTE);
+        table.release("idle", "net", 2, MINUTE, now);
+        table.tryAcquire("idle", "net", 2, MINUTE, now);
+        table.tryAcquire("idle", "net", 2, MINUTE, now);
+        assertThat(table.tryAcquire("idle", "net", 2, MINUTE, now)).isPositive();
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedLimit() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable(16, 1000);
+        long now = 1_000 * SECOND;
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> {
+                if (table.tryAcquire("shared", 100, MINUTE, now) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+}
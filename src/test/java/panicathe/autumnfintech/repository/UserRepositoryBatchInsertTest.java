@@ -0,0 +1,116 @@
+package panicathe.autumnfintech.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.entity.User;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdGeneratorConfig.class, UserRepositoryBatchInsertTest.StatementCountingConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserRepositoryBatchInsertTest {
+
+    static final AtomicInteger ADD_BATCH = new AtomicInteger();
+    static final AtomicInteger EXECUTE_BATCH = new AtomicInteger();
+    static final AtomicInteger EXECUTE_UPDATE = new AtomicInteger();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void resetCounters() {
+        ADD_BATCH.set(0);
+        EXECUTE_BATCH.set(0);
+        EXECUTE_UPDATE.set(0);
+    }
+
+    @Test
+    void insertsAreSentAsJdbcBatches() {
+        List<User> users = IntStream.range(0, 120)
+                .mapToObj(i -> User.builder()
+                        .username("batch-user-" + i)
+                        .password("encoded")
+                        .email("batch-" + i + "@example.com")
+                        .isActive(true)
+                        .role("ROLE_USER")
+                        .build())
+                .toList();
+
+        userRepository.saveAll(users);
+        userRepository.flush();
+
+        // batch_size=50 -> 120건이 50 + 50 + 20 세 번의 batch 로 전송되어야 한다.
+        assertThat(ADD_BATCH.get()).isEqualTo(120);
+        assertThat(EXECUTE_BATCH.get()).isEqualTo(3);
+        assertThat(EXECUTE_UPDATE.get()).isZero();
+        assertThat(users).allSatisfy(user -> assertThat(user.getId()).isNotNull());
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        private static <T> T proxy(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "addBatch" -> ADD_BATCH.incrementAndGet();
+                    case "executeBatch" -> EXECUTE_BATCH.incrementAndGet();
+                    case "executeUpdate" -> EXECUTE_UPDATE.incrementAndGet();
+                    default -> {
+                    }
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection);
+                }
+                return result;
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+}
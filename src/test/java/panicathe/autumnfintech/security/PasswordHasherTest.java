@@ -0,0 +1,85 @@
+package panicathe.autumnfintech.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import panicathe.autumnfintech.exception.ServiceBusyException;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = mock(PasswordEncoder.class);
+        when(blockingEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await();
+            return true;
+        });
+        PasswordHasher passwordHasher = new PasswordHasher(blockingEncoder, 4, 1, 1, 5_000, new MetricsRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            callers.submit(() -> passwordHasher.matches("a", "b"));
+            callers.submit(() -> passwordHasher.matches("a", "b"));
+            await().atMost(2, TimeUnit.SECONDS).until(() -> passwordHasher.getQueueSize() == 1);
+
+            assertThatThrownBy(() -> passwordHasher.matches("a", "b"))
+                    .isInstanceOf(ServiceBusyException.class);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            passwordHasher.shutdown();
+        }
+    }
+
+    @Test
+    void detectsHashesWithDifferentCost() {
+        PasswordHasher passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(5), 5, 1, 4, 5_000, new MetricsRegistry());
+
+        try {
+            String current = passwordHasher.encode("password1234");
+            String older = new BCryptPasswordEncoder(4).encode("password1234");
+
+            assertThat(passwordHasher.getStrength()).isEqualTo(5);
+            assertThat(passwordHasher.needsRehash(current)).isFalse();
+            assertThat(passwordHasher.needsRehash(older)).isTrue();
+            assertThat(passwordHasher.matches("password1234", current)).isTrue();
+        } finally {
+            passwordHasher.shutdown();
+        }
+    }
+
+    @Test
+    void encodeAllGivesUpWhenHashingDoesNotFinishInTime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = mock(PasswordEncoder.class);
+        when(blockingEncoder.encode(anyString())).thenAnswer(invocation -> {
+            release.await();
+            return "encoded";
+        });
+        PasswordHasher passwordHasher = new PasswordHasher(blockingEncoder, 4, 1, 4, 200, new MetricsRegistry());
+
+        try {
+            assertThatThrownBy(() -> passwordHasher.encodeAll(List.of("a", "b", "c")))
+                    .isInstanceOf(ServiceBusyException.class)
+                    .hasMessageContaining("timed out");
+        } finally {
+            release.countDown();
+            passwordHasher.shutdown();
+        }
+    }
+}
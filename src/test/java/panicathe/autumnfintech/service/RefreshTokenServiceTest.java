@@ -0,0 +1,131 @@
+package panicathe.autumnfintech.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.entity.User;
+import panicathe.autumnfintech.repository.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdGeneratorConfig.class, RefreshTokenService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM refresh_token");
+        jdbcTemplate.update("DELETE FROM user");
+        user = userRepository.save(User.builder()
+                .username("tester")
+                .password("encoded")
+                .email("tester@example.com")
+                .isActive(true)
+                .role("ROLE_USER")
+                .build());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+        String otherDevice = refreshTokenService.issue(user);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Refresh token reuse detected");
+        // 재사용이 감지된 체인은 아직 쓰지 않은 최신 토큰까지 폐기된다.
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Refresh token reuse detected");
+
+        // 다른 로그인에서 시작된 체인은 영향을 받지 않는다.
+        assertThat(refreshTokenService.rotate(otherDevice).refreshToken()).isNotEqualTo(otherDevice);
+    }
+
+    @Test
+    void expiredTokenIsRejectedWithoutBeingMarkedUsed() {
+        String token = refreshTokenService.issue(user);
+        jdbcTemplate.update("UPDATE refresh_token SET expires_at = ?", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Refresh token expired");
+        // 다시 제출해도 재사용이 아니라 만료로 거절된다.
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Refresh token expired");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE revoked = TRUE", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void revokeEndsTheFamilyOfAnyOfItsTokens() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+        String otherDevice = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(first);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Refresh token reuse detected");
+        assertThat(refreshTokenService.rotate(otherDevice).user().getId()).isEqualTo(user.getId());
+
+        refreshTokenService.revokeAll(user);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE revoked = FALSE", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void tokenOfADeactivatedUserIsRejectedAndItsFamilyRevoked() {
+        String token = refreshTokenService.issue(user);
+        jdbcTemplate.update("UPDATE user SET is_active = FALSE WHERE id = ?", user.getId());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid refresh token");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_token WHERE revoked = FALSE", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("not-a-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid refresh token");
+    }
+}
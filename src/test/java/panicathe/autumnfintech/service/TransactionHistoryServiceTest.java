@@ -0,0 +1,148 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.dto.account.TransactionDto;
+import panicathe.autumnfintech.dto.account.TransactionPageDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdGeneratorConfig.class, TransactionHistoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class TransactionHistoryServiceTest {
+
+    private static final String OWNER = "owner@example.com";
+    private static final String ACCOUNT = "100000000001";
+    private static final String OTHER = "100000000002";
+    private static final String THIRD = "100000000003";
+    private static final LocalDateTime NINE = LocalDateTime.of(2024, 10, 1, 9, 0);
+    private static final LocalDateTime TEN = NINE.plusHours(1);
+    private static final LocalDateTime ELEVEN = NINE.plusHours(2);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM account");
+        jdbcTemplate.update("DELETE FROM user");
+        jdbcTemplate.update("INSERT INTO user (id, username, password, email, is_active, role, created_at, updated_at) "
+                + "VALUES (1, 'owner', 'x', ?, TRUE, 'ROLE_USER', ?, ?)", OWNER, ts(NINE), ts(NINE));
+        jdbcTemplate.update("INSERT INTO account (id, account_number, user_id, balance, closed, created_at, updated_at) "
+                + "VALUES (1, ?, 1, 0, FALSE, ?, ?)", ACCOUNT, ts(NINE), ts(NINE));
+
+        insert(1, "DEPOSIT", null, ACCOUNT, NINE);
+        // 10시에 출금과 입금이 같은 시각으로 섞여 있다. 같은 시각이면 id 로 순서를 정한다.
+        insert(2, "TRANSFER", ACCOUNT, OTHER, TEN);
+        insert(3, "TRANSFER", OTHER, ACCOUNT, TEN);
+        insert(4, "TRANSFER", ACCOUNT, THIRD, TEN);
+        insert(5, "TRANSFER", THIRD, ACCOUNT, TEN);
+        insert(6, "WITHDRAW", ACCOUNT, null, ELEVEN);
+        // 다른 계좌끼리의 거래는 나오지 않는다.
+        insert(7, "TRANSFER", OTHER, THIRD, TEN);
+    }
+
+    @Test
+    void cursorPagesMergeBothDirectionsNewestFirst() {
+        TransactionPageDto first = historyService.getHistory(OWNER, ACCOUNT, null, 0, 2);
+        assertThat(ids(first)).containsExactly(6L, 5L);
+
+        TransactionPageDto second = historyService.getHistory(OWNER, ACCOUNT, first.getNextCursor(), 0, 2);
+        assertThat(ids(second)).containsExactly(4L, 3L);
+
+        TransactionPageDto last = historyService.getHistory(OWNER, ACCOUNT, second.getNextCursor(), 0, 2);
+        assertThat(ids(last)).containsExactly(2L, 1L);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorContinuesInsideATieOfEqualTimestamps() {
+        // 한 건씩 넘기면 커서가 같은 created_at 의 행들 사이에 놓인다.
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageDto page = historyService.getHistory(OWNER, ACCOUNT, cursor, 0, 1);
+            seen.addAll(ids(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void offsetPagesMatchCursorPages() {
+        assertThat(ids(historyService.getHistory(OWNER, ACCOUNT, null, 1, 2))).containsExactly(4L, 3L);
+        TransactionPageDto last = historyService.getHistory(OWNER, ACCOUNT, null, 2, 2);
+        assertThat(ids(last)).containsExactly(2L, 1L);
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(historyService.getHistory(OWNER, ACCOUNT, null, 3, 2).getContent()).isEmpty();
+    }
+
+    @Test
+    void pageEndingExactlyAtTheLastRowHasNoNextCursor() {
+        TransactionPageDto all = historyService.getHistory(OWNER, ACCOUNT, null, 0, 6);
+        assertThat(ids(all)).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(all.getNextCursor()).isNull();
+
+        TransactionPageDto almost = historyService.getHistory(OWNER, ACCOUNT, null, 0, 5);
+        assertThat(almost.getNextCursor()).isNotNull();
+        assertThat(ids(historyService.getHistory(OWNER, ACCOUNT, almost.getNextCursor(), 0, 5))).containsExactly(1L);
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThatThrownBy(() -> historyService.getHistory(OWNER, ACCOUNT, "not-a-cursor", 0, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor.");
+        assertThatThrownBy(() -> historyService.getHistory(OWNER, ACCOUNT, null, 0, TransactionHistoryService.MAX_PAGE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> historyService.getHistory(OWNER, ACCOUNT, null, TransactionHistoryService.MAX_OFFSET_PAGE + 1, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> historyService.getHistory("someone@example.com", ACCOUNT, null, 0, 2))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private static List<Long> ids(TransactionPageDto page) {
+        return page.getContent().stream().map(TransactionDto::getTransactionId).toList();
+    }
+
+    private void insert(long id, String type, String from, String to, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transactions (id, type, from_account_number, to_account_number, amount, status, "
+                        + "original_transaction_id, lsn, created_at) VALUES (?, ?, ?, ?, 100, 'COMPLETED', NULL, ?, ?)",
+                id, type, from, to, id, ts(createdAt));
+    }
+
+    private static Timestamp ts(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+}
@@ -0,0 +1,177 @@
+package panicathe.autumnfintech.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.audit.AuditTrail;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.dto.user.UserDto;
+import panicathe.autumnfintech.dto.user.UserImportJobDto;
+import panicathe.autumnfintech.dto.user.UserImportStatus;
+import panicathe.autumnfintech.entity.AuditEventType;
+import panicathe.autumnfintech.metrics.MetricsRegistry;
+import panicathe.autumnfintech.security.PasswordHasher;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdGeneratorConfig.class, MetricsRegistry.class, PasswordHasher.class, UserImportService.class,
+        UserImportServiceTest.PasswordEncoderConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:user-import;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.password.bcrypt-strength=4",
+        // 청크 경계를 넘는 중복과 청크 단위 커밋을 보기 위해 작게 둔다.
+        "spring.partner.import-chunk-size=2"
+})
+class UserImportServiceTest {
+
+    private static final String PARTNER = "partner@example.com";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @MockBean
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM user");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO user (id, username, password, email, is_active, role, created_at, updated_at) "
+                + "VALUES (1, 'existing', 'x', 'existing@example.com', TRUE, 'ROLE_USER', ?, ?)", now, now);
+    }
+
+    @Test
+    void skipsDuplicatesWithinTheRequestAndAgainstTheDatabase() throws InterruptedException {
+        UserImportJobDto job = userImportService.submit(PARTNER, List.of(
+                user("alice", "alice@example.com"),
+                user("bob", "bob@example.com"),
+                user("alice2", "alice@example.com"),      // 다른 청크에서 같은 이메일
+                user("bob", "bob2@example.com"),          // 다른 청크에서 같은 사용자명
+                user("carol", "existing@example.com"),    // DB 에 있는 이메일
+                user("existing", "dave@example.com"),     // DB 에 있는 사용자명
+                user("erin", "erin@example.com")));
+
+        UserImportJobDto done = awaitFinished(job.getJobId());
+
+        assertThat(done.getStatus()).isEqualTo(UserImportStatus.COMPLETED);
+        assertThat(done.getRequested()).isEqualTo(7);
+        assertThat(done.getProcessed()).isEqualTo(7);
+        assertThat(done.getRegistered()).isEqualTo(3);
+        assertThat(done.getSkipped()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList("SELECT username FROM user ORDER BY username", String.class))
+                .containsExactly("alice", "bob", "erin", "existing");
+        assertThat(jdbcTemplate.queryForObject("SELECT password FROM user WHERE username = 'alice'", String.class))
+                .startsWith("$2");
+        // 실제로 추가된 회원마다 REGISTER 이벤트 하나씩
+        assertThat(registeredEmails()).containsExactlyInAnyOrder("alice@example.com", "bob@example.com", "erin@example.com");
+    }
+
+    @Test
+    void failureKeepsCommittedChunksAndReportsWhereItStopped() throws InterruptedException {
+        UserImportJobDto job = userImportService.submit(PARTNER, List.of(
+                user("first", "first@example.com"),
+                user("second", "second@example.com"),
+                user("third", "third@example.com"),
+                user("x".repeat(300), "too-long@example.com")));
+
+        UserImportJobDto done = awaitFinished(job.getJobId());
+
+        assertThat(done.getStatus()).isEqualTo(UserImportStatus.FAILED);
+        assertThat(done.getError()).isNotBlank();
+        assertThat(done.getProcessed()).isEqualTo(2);
+        assertThat(done.getRegistered()).isEqualTo(2);
+        // 실패한 청크는 통째로 롤백된다.
+        assertThat(jdbcTemplate.queryForList("SELECT username FROM user ORDER BY username", String.class))
+                .containsExactly("existing", "first", "second");
+        assertThat(registeredEmails()).containsExactlyInAnyOrder("first@example.com", "second@example.com");
+
+        // 같은 목록을 다시 제출하면 반영된 회원은 건너뛰고 나머지만 처리한다.
+        UserImportJobDto retry = awaitFinished(userImportService.submit(PARTNER, List.of(
+                user("first", "first@example.com"),
+                user("second", "second@example.com"),
+                user("third", "third@example.com"))).getJobId());
+        assertThat(retry.getRegistered()).isEqualTo(1);
+        assertThat(retry.getSkipped()).isEqualTo(2);
+    }
+
+    @Test
+    void jobIsVisibleOnlyToThePartnerThatSubmittedIt() throws InterruptedException {
+        UserImportJobDto job = userImportService.submit(PARTNER, List.of(user("frank", "frank@example.com")));
+        awaitFinished(job.getJobId());
+
+        assertThatThrownBy(() -> userImportService.getJob("other@example.com", job.getJobId()))
+                .isInstanceOf(EntityNotFoundException.class);
+        assertThatThrownBy(() -> userImportService.getJob(PARTNER, "unknown"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> registeredEmails() {
+        ArgumentCaptor<List<String>> emails = ArgumentCaptor.forClass(List.class);
+        verify(auditTrail, atLeastOnce()).recordAllAfterCommit(eq(AuditEventType.REGISTER), emails.capture());
+        return emails.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private UserImportJobDto awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            UserImportJobDto job = userImportService.getJob(PARTNER, jobId);
+            if (job.getStatus() == UserImportStatus.COMPLETED || job.getStatus() == UserImportStatus.FAILED) {
+                return job;
+            }
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static UserDto user(String username, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setUsername(username);
+        userDto.setEmail(email);
+        userDto.setPassword("password123");
+        return userDto;
+    }
+
+    @TestConfiguration
+    static class PasswordEncoderConfig {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package panicathe.autumnfintech.snapshot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import panicathe.autumnfintech.config.IdGeneratorConfig;
+import panicathe.autumnfintech.dto.snapshot.BalanceMismatchDto;
+import panicathe.autumnfintech.dto.snapshot.ReconciliationReportDto;
+import panicathe.autumnfintech.dto.snapshot.SnapshotRunDto;
+import panicathe.autumnfintech.entity.TransactionType;
+import panicathe.autumnfintech.exception.ServiceBusyException;
+import panicathe.autumnfintech.id.SnowflakeIdGenerator;
+import panicathe.autumnfintech.ledger.LedgerPersister;
+import panicathe.autumnfintech.ledger.LedgerRecord;
+import panicathe.autumnfintech.ledger.WalEntry;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdGeneratorConfig.class, LedgerPersister.class, BalanceSnapshotService.class, BalanceReconciler.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;MODE=MySQL;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.snapshot.chunk-size=2",
+        "spring.snapshot.reconcile-parallelism=2"
+})
+class BalanceSnapshotServiceTest {
+
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2024, 10, 1, 0, 0);
+    private static final LocalDateTime DAY2 = DAY1.plusDays(1);
+    private static final LocalDateTime DAY3 = DAY1.plusDays(2);
+    private static final LocalDateTime DAY4 = DAY1.plusDays(3);
+
+    private final AtomicLong ids = new AtomicLong(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Autowired
+    private BalanceSnapshotService snapshotService;
+
+    @Autowired
+    private BalanceReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM balance_snapshot");
+        jdbcTemplate.update("DELETE FROM balance_snapshot_checkpoint");
+        jdbcTemplate.update("DELETE FROM transactions");
+        jdbcTemplate.update("DELETE FROM account");
+        jdbcTemplate.update("DELETE FROM user");
+
+        jdbcTemplate.update("INSERT INTO user (id, username, password, email, is_active, role, created_at, updated_at) "
+                + "VALUES (1, 'tester', 'x', 'tester@example.com', TRUE, 'ROLE_USER', ?, ?)", ts(DAY1), ts(DAY1));
+        insertAccount("100000000001", 700);
+        insertAccount("100000000002", 200);
+        insertAccount("100000000003", 0);
+
+        insertTransaction("DEPOSIT", null, "100000000001", 1_000, DAY1.plusHours(9));
+        insertTransaction("TRANSFER", "100000000001", "100000000002", 300, DAY1.plusHours(10));
+        insertTransaction("WITHDRAW", "100000000002", null, 100, DAY2.plusHours(9));
+        // 송금 후 취소: 취소 기록은 반대 방향으로 남는다.
+        insertTransaction("TRANSFER", "100000000002", "100000000001", 50, DAY3.plusHours(9));
+        insertTransaction("CANCEL", "100000000001", "100000000002", 50, DAY3.plusHours(10));
+    }
+
+    @Test
+    void snapshotsOnlyAccountsWithTransactionsSinceTheLastSnapshot() {
+        SnapshotRunDto first = snapshotService.takeSnapshot(DAY2);
+        assertThat(first.getAccounts()).isEqualTo(2);
+        assertThat(snapshotBalance("100000000001", DAY2)).isEqualTo(700);
+        assertThat(snapshotBalance("100000000002", DAY2)).isEqualTo(300);
+
+        SnapshotRunDto second = snapshotService.takeSnapshot(DAY4);
+        assertThat(second.getFromAsOf()).isEqualTo(DAY2);
+        assertThat(second.getAccounts()).isEqualTo(2);
+        assertThat(snapshotBalance("100000000001", DAY4)).isEqualTo(700);
+        assertThat(snapshotBalance("100000000002", DAY4)).isEqualTo(200);
+
+        assertThat(snapshotService.takeSnapshot(DAY4).getAccounts()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_snapshot", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void snapshotWaitsUntilEveryDurableWalRecordIsPersisted() {
+        // 반영 스레드가 없으니 넘겨받은 기록은 큐에 남는다. 꺼내 가서 반영 중인 배치와 마찬가지로 아직 DB 에 없다.
+        LedgerPersister persister = new LedgerPersister(jdbcTemplate, transactionManager, 100);
+        BalanceSnapshotService service = new BalanceSnapshotService(jdbcTemplate, transactionManager, persister,
+                idGenerator, 300, 2);
+        long recordedAt = DAY1.plusHours(12).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        persister.enqueue(List.of(new WalEntry(1, new LedgerRecord(999, TransactionType.DEPOSIT, null,
+                "100000000003", 500, recordedAt))));
+
+        assertThatThrownBy(() -> service.takeSnapshot(DAY2)).isInstanceOf(ServiceBusyException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM balance_snapshot", Integer.class)).isZero();
+    }
+
+    @Test
+    void balanceAsOfAddsTransactionsSinceTheLatestSnapshot() {
+        snapshotService.takeSnapshot(DAY2);
+
+        assertThat(snapshotService.balanceAsOf("100000000002", DAY1.plusHours(10))).isZero();
+        assertThat(snapshotService.balanceAsOf("100000000002", DAY2)).isEqualTo(300);
+        assertThat(snapshotService.balanceAsOf("100000000002", DAY2.plusHours(12))).isEqualTo(200);
+        assertThat(snapshotService.balanceAsOf("100000000002", DAY3.plusHours(9).plusMinutes(30))).isEqualTo(150);
+        assertThat(snapshotService.balanceAsOf("100000000002", DAY4)).isEqualTo(200);
+        assertThat(snapshotService.balanceAsOf("100000000003", DAY4)).isZero();
+    }
+
+    @Test
+    void reconciliationReportsAccountsWhoseBalanceDiffersFromSnapshotPlusDelta() {
+        snapshotService.takeSnapshot(DAY2);
+
+        ReconciliationReportDto clean = reconciler.reconcile();
+        assertThat(clean.getCheckedAccounts()).isEqualTo(3);
+        assertThat(clean.getMismatchCount()).isZero();
+        assertThat(clean.getSnapshotAsOf()).isEqualTo(DAY2);
+
+        jdbcTemplate.update("UPDATE account SET balance = 999 WHERE account_number = '100000000002'");
+        ReconciliationReportDto report = reconciler.reconcile();
+
+        assertThat(report.getMismatchCount()).isEqualTo(1);
+        BalanceMismatchDto mismatch = report.getMismatches().get(0);
+        assertThat(mismatch.getAccountNumber()).isEqualTo("100000000002");
+        assertThat(mismatch.getSnapshotBalance()).isEqualTo(300);
+        assertThat(mismatch.getDelta()).isEqualTo(-100);
+        assertThat(mismatch.getExpectedBalance()).isEqualTo(200);
+        assertThat(mismatch.getActualBalance()).isEqualTo(999);
+    }
+
+    private long snapshotBalance(String accountNumber, LocalDateTime asOf) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM balance_snapshot WHERE account_number = ? AND as_of = ?",
+                Long.class, accountNumber, ts(asOf));
+    }
+
+    private void insertAccount(String accountNumber, long balance) {
+        jdbcTemplate.update("INSERT INTO account (id, account_number, user_id, balance, closed, created_at, updated_at) "
+                + "VALUES (?, ?, 1, ?, FALSE, ?, ?)", ids.getAndIncrement(), accountNumber, balance, ts(DAY1), ts(DAY1));
+    }
+
+    private void insertTransaction(String type, String from, String to, long amount, LocalDateTime createdAt) {
+        long id = ids.getAndIncrement();
+        jdbcTemplate.update("INSERT INTO transactions (id, type, from_account_number, to_account_number, amount, status, "
+                        + "original_transaction_id, lsn, created_at) VALUES (?, ?, ?, ?, ?, 'COMPLETED', NULL, ?, ?)",
+                id, type, from, to, amount, id, ts(createdAt));
+    }
+
+    private static Timestamp ts(LocalDateTime dateTime) {
+        return Timestamp.valueOf(dateTime);
+    }
+}